@@ -1,60 +1,206 @@
 package com.campus.authservice2.controller;
 
+import com.campus.authservice2.dto.BulkCreateUsersRequestDto;
+import com.campus.authservice2.dto.BulkCreateUsersResponseDto;
 import com.campus.authservice2.dto.CreateUserRequestDto;
 import com.campus.authservice2.dto.LoginRequestDto;
+import com.campus.authservice2.dto.RefreshRequestDto;
+import com.campus.authservice2.dto.RevocationEntryDto;
+import com.campus.authservice2.dto.RevocationFeedDto;
+import com.campus.authservice2.dto.UserStatusRequestDto;
 import com.campus.authservice2.entity.Role;
 import com.campus.authservice2.service.AuthService;
 import com.campus.authservice2.utils.JwtUtil;
+import com.campus.authservice2.service.LoginThrottledException;
+import com.campus.authservice2.service.RevocationService;
+import com.campus.authservice2.service.UserProvisioningService;
+import com.campus.common.security.IdentityHeaders;
 import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final String REFRESH_COOKIE = "refresh_token";
+
     private final AuthService service;
+    private final UserProvisioningService provisioning;
+    private final RevocationService revocations;
     private final JwtUtil jwtUtil;
+    private final IdentityHeaders identityHeaders;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
 
+    @Value("${jwt.refresh-cookie-secure:false}")
+    private boolean refreshCookieSecure;
+
+    @Value("${auth.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    /* Body stays the access token; the refresh token travels in an
+       HttpOnly cookie scoped to /api/auth. */
     @PostMapping("/login")
-    public ResponseEntity<String> login(
-            @RequestBody LoginRequestDto dto
+    public CompletableFuture<ResponseEntity<String>> login(
+            @RequestBody LoginRequestDto dto,
+            HttpServletRequest request
     ) {
-        return ResponseEntity.ok(
-                service.login(dto.getEmail(), dto.getPassword())
-        );
+        return service.login(dto.getEmail(), dto.getPassword(), identityHeaders.clientIp(request))
+                .thenApply(tokens -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken()))
+                        .body(tokens.getAccessToken()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(
+            @CookieValue(name = REFRESH_COOKIE, required = false) String cookie,
+            @RequestBody(required = false) RefreshRequestDto dto
+    ) {
+        String token = cookie != null ? cookie : dto == null ? null : dto.getRefreshToken();
+
+        return service.refresh(token)
+                .map(tokens -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken()))
+                        .body(tokens.getAccessToken()))
+                .orElseGet(() -> ResponseEntity.status(401)
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(""))
+                        .build());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @CookieValue(name = REFRESH_COOKIE, required = false) String cookie,
+            @RequestBody(required = false) RefreshRequestDto dto
+    ) {
+        service.logout(cookie != null ? cookie : dto == null ? null : dto.getRefreshToken());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie(""))
+                .build();
     }
 
     @PostMapping("/create-tpo")
-    public ResponseEntity<?> createTpo(
+    public CompletableFuture<ResponseEntity<?>> createTpo(
             @RequestHeader("Authorization") String auth,
             @RequestBody CreateUserRequestDto dto
     ) {
         checkRole(auth, "ADMIN");
-        service.createUser(dto.getEmail(), Role.TPO, dto.getPassword());
-        return ResponseEntity.ok("TPO CREATED");
+        return service.createUser(dto.getEmail(), Role.TPO, dto.getPassword())
+                .thenApply(done -> ResponseEntity.ok("TPO CREATED"));
     }
 
     @PostMapping("/create-student")
-    public ResponseEntity<?> createStudent(
+    public CompletableFuture<ResponseEntity<?>> createStudent(
             @RequestHeader("Authorization") String auth,
             @RequestBody CreateUserRequestDto dto
     ) {
         checkRole(auth, "ADMIN");
-        service.createUser(dto.getEmail(), Role.STUDENT, dto.getPassword());
-        return ResponseEntity.ok("STUDENT CREATED");
+        return service.createUser(dto.getEmail(), Role.STUDENT, dto.getPassword())
+                .thenApply(done -> ResponseEntity.ok("STUDENT CREATED"));
+    }
+
+    /* One role check and one report for a whole onboarding batch;
+       duplicates are listed per row instead of failing the request. */
+    @PostMapping("/create-student/bulk")
+    public ResponseEntity<BulkCreateUsersResponseDto> createStudents(
+            @RequestHeader("Authorization") String auth,
+            @RequestBody BulkCreateUsersRequestDto dto
+    ) {
+        checkRole(auth, "ADMIN");
+        return ResponseEntity.ok(provisioning.createUsers(dto.getUsers(), Role.STUDENT));
     }
 
     @PostMapping("/create-recruiter")
-    public ResponseEntity<?> createRecruiter(
+    public CompletableFuture<ResponseEntity<?>> createRecruiter(
             @RequestHeader("Authorization") String auth,
             @RequestBody CreateUserRequestDto dto
     ) {
         checkRole(auth, "TPO");
-        service.createUser(dto.getEmail(), Role.RECRUITER, dto.getPassword());
-        return ResponseEntity.ok("RECRUITER CREATED");
+        return service.createUser(dto.getEmail(), Role.RECRUITER, dto.getPassword())
+                .thenApply(done -> ResponseEntity.ok("RECRUITER CREATED"));
+    }
+
+    @PutMapping("/users/disable")
+    public ResponseEntity<?> disableUser(
+            @RequestHeader("Authorization") String auth,
+            @RequestBody UserStatusRequestDto dto
+    ) {
+        checkRole(auth, "ADMIN");
+        service.setEnabled(dto.getEmail(), false);
+        return ResponseEntity.ok("USER DISABLED");
+    }
+
+    @PutMapping("/users/enable")
+    public ResponseEntity<?> enableUser(
+            @RequestHeader("Authorization") String auth,
+            @RequestBody UserStatusRequestDto dto
+    ) {
+        checkRole(auth, "ADMIN");
+        service.setEnabled(dto.getEmail(), true);
+        return ResponseEntity.ok("USER ENABLED");
+    }
+
+    /* ================================
+       REVOCATION FEED (polled by services)
+       ================================ */
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeedDto> revocationFeed(
+            @RequestParam(defaultValue = "-1") long bloomVersion,
+            @RequestParam(defaultValue = "0") long since,
+            HttpServletRequest request
+    ) {
+        if (identityHeaders.serviceName(request) == null) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(revocations.feed(bloomVersion, since));
+    }
+
+    @GetMapping("/revocations/{key}")
+    public ResponseEntity<RevocationEntryDto> revocation(
+            @PathVariable String key,
+            HttpServletRequest request
+    ) {
+        if (identityHeaders.serviceName(request) == null) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(revocations.lookup(key));
+    }
+
+    /* Hashing pool full: shed the request instead of queueing it. */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> overloaded() {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Server busy, retry shortly");
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<String> throttled(LoginThrottledException e) {
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    private String refreshCookie(String value) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(refreshCookieSecure)
+                .sameSite("Strict")
+                .path("/api/auth")
+                .maxAge(value.isEmpty() ? Duration.ZERO : Duration.ofMillis(refreshExpiration))
+                .build()
+                .toString();
     }
 
     private void checkRole(String authHeader, String requiredRole) {
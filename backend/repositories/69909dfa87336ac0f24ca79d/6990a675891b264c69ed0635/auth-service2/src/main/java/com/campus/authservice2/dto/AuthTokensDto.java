@@ -0,0 +1,11 @@
+package com.campus.authservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuthTokensDto {
+    private String accessToken;
+    private String refreshToken;
+}
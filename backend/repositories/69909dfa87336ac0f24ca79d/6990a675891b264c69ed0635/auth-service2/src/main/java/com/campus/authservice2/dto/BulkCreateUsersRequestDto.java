@@ -0,0 +1,11 @@
+package com.campus.authservice2.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkCreateUsersRequestDto {
+    private List<CreateUserRequestDto> users = new ArrayList<>();
+}
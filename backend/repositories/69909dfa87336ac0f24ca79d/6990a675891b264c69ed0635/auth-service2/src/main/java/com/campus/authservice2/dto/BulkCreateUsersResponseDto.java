@@ -0,0 +1,16 @@
+package com.campus.authservice2.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkCreateUsersResponseDto {
+
+    private int requested;
+    private int created;
+    private int failed;
+
+    private List<BulkUserErrorDto> errors = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package com.campus.authservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserErrorDto {
+    private int row;           // 0-based index in the request's users list
+    private String email;
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.campus.authservice2.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequestDto {
+    private String refreshToken;
+}
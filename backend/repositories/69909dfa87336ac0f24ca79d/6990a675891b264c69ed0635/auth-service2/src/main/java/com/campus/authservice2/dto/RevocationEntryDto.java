@@ -0,0 +1,14 @@
+package com.campus.authservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevocationEntryDto {
+    private long version;
+    private String key;
+    private long cutoff;       // epoch seconds; 0 when the key is not revoked
+}
@@ -0,0 +1,21 @@
+package com.campus.authservice2.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RevocationFeedDto {
+
+    private long version;
+    private long bloomVersion;
+
+    // only sent when the caller's bloomVersion is stale
+    private String bloom;          // base64 of the big-endian bit words
+    private int bloomBits;
+    private int bloomHashes;
+
+    // exact entries newer than the bloom (or than the caller's version)
+    private List<RevocationEntryDto> entries = new ArrayList<>();
+}
@@ -0,0 +1,36 @@
+package com.campus.authservice2.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "refresh_tokens",
+        indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family")
+)
+@Data
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    // SHA-256 of the token; the raw value is only ever sent to the client
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    // every rotation of one login shares a family, so reuse can revoke them all
+    @Column(nullable = false, length = 36)
+    private String family;
+
+    private String email;
+
+    private Instant expiresAt;
+
+    // set when the token is exchanged for its successor; revoked is for logout and replay
+    private Instant rotatedAt;
+
+    private boolean revoked = false;
+}
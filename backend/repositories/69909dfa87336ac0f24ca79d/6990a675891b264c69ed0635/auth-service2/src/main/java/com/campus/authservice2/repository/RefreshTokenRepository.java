@@ -0,0 +1,33 @@
+package com.campus.authservice2.repository;
+
+import com.campus.authservice2.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // conditional so two concurrent refreshes cannot both rotate one token
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now"
+            + " where t.id = :id and t.rotatedAt is null and t.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.family = :family")
+    int revokeFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.email = :email")
+    int revokeAllForEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,30 @@
+package com.campus.authservice2.repository;
+
+import com.campus.authservice2.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("select r from TokenRevocation r where (r.id > :since or r.revokedAt >= :revokedFrom)"
+            + " and r.cutoff > :now order by r.id")
+    List<TokenRevocation> findNewerOrRecent(
+            @Param("since") long since,
+            @Param("revokedFrom") Instant revokedFrom,
+            @Param("now") long now
+    );
+
+    List<TokenRevocation> findByCutoffGreaterThan(long now);
+
+    Optional<TokenRevocation> findFirstByKeyHashOrderByCutoffDesc(String keyHash);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.cutoff < :now")
+    int deleteExpired(@Param("now") long now);
+}
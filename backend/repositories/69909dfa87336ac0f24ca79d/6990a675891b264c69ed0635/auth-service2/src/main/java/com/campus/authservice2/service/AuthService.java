@@ -1,38 +1,100 @@
 package com.campus.authservice2.service;
 
+import com.campus.authservice2.dto.AuthTokensDto;
 import com.campus.authservice2.entity.Role;
 import com.campus.authservice2.entity.User;
 import com.campus.authservice2.repository.UserRepository;
 import com.campus.authservice2.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository repo;
-    private final PasswordEncoder encoder;
+    private final PasswordHasher hasher;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokens;
+    private final LoginAttemptLimiter loginLimiter;
+    private final RevocationService revocations;
 
 
-    public void createUser(String email, Role role, String password) {
-        User u = new User();
-        u.setEmail(email);
-        u.setPassword(encoder.encode(password));
-        u.setRole(role);
-        repo.save(u);
+    /* BCrypt runs on the hashing pool; both methods throw
+       RejectedExecutionException straight away when that pool is saturated.
+       The continuations run on the application task executor (see
+       PasswordHasher), so the database work stays off the bcrypt threads. */
+    public CompletableFuture<Void> createUser(String email, Role role, String password) {
+        return hasher.encode(password).thenAccept(hash -> {
+            User u = new User();
+            u.setEmail(email);
+            u.setPassword(hash);
+            u.setRole(role);
+            repo.save(u);
+        });
     }
 
-    public String login(String email, String password) {
-        User u = repo.findByEmail(email).orElseThrow();
+    public CompletableFuture<AuthTokensDto> login(String email, String password, String clientIp) {
+        // throttled clients never reach the database or BCrypt
+        loginLimiter.acquire(email, clientIp);
 
-        if (!encoder.matches(password, u.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
+        User u = repo.findByEmail(email).orElseThrow(() -> {
+            loginLimiter.recordFailure(clientIp);
+            return new NoSuchElementException("No value present");
+        });
 
-        return jwtUtil.generate(email, u.getRole().name());
+        return hasher.matches(password, u.getPassword()).thenApply(ok -> {
+            if (!ok) {
+                loginLimiter.recordFailure(clientIp);
+                throw new RuntimeException("Invalid credentials");
+            }
+            // checked after the password so it does not reveal account state
+            if (!u.isEnabled()) {
+                throw new RuntimeException("Account disabled");
+            }
+            return new AuthTokensDto(
+                    jwtUtil.generate(email, u.getRole().name()),
+                    refreshTokens.issue(email)
+            );
+        });
     }
-}
 
+    /* Renews the access token without touching BCrypt. */
+    public Optional<AuthTokensDto> refresh(String refreshToken) {
+        return refreshTokens.rotate(refreshToken).flatMap(r -> {
+            User u = repo.findByEmail(r.email()).orElse(null);
+            if (u == null || !u.isEnabled()) {
+                refreshTokens.revokeFamily(r.family());
+                return Optional.empty();
+            }
+            return Optional.of(new AuthTokensDto(
+                    jwtUtil.generate(u.getEmail(), u.getRole().name()),
+                    r.refreshToken()
+            ));
+        });
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokens.revoke(refreshToken);
+    }
+
+    /* Disabling also kills live sessions: refresh tokens are revoked here
+       and access tokens through the revocation feed the services pull. */
+    @Transactional
+    public void setEnabled(String email, boolean enabled) {
+        User u = repo.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        u.setEnabled(enabled);
+        repo.save(u);
+
+        if (!enabled) {
+            refreshTokens.revokeAllForEmail(email);
+            revocations.revoke(email);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.campus.authservice2.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/*
+ * Benchmark for choosing auth.bcrypt.strength. Enable with
+ * auth.bcrypt.calibrate=true; it times one encode + matches per cost
+ * factor on this machine and logs the highest one that stays under
+ * auth.bcrypt.target-millis.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.bcrypt.calibrate", havingValue = "true")
+public class BcryptCostCalibrator {
+
+    private static final int ROUNDS = 5;
+
+    @Value("${auth.bcrypt.target-millis:250}")
+    private long targetMillis;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int configured;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        int best = 4;
+
+        for (int cost = 4; cost <= 16; cost++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            String hash = encoder.encode("calibration-password");   // warm-up
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                encoder.matches("calibration-password", hash);
+            }
+            long millis = (System.nanoTime() - start) / ROUNDS / 1_000_000;
+
+            log.info("bcrypt cost {} -> {} ms per verification", cost, millis);
+            if (millis > targetMillis) break;
+            best = cost;
+        }
+
+        log.info("bcrypt calibration: target {} ms, recommended auth.bcrypt.strength={} (configured {})",
+                targetMillis, best, configured);
+    }
+}
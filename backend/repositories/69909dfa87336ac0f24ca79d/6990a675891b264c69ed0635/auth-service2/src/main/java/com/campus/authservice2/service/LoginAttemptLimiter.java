@@ -0,0 +1,217 @@
+package com.campus.authservice2.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Sliding-window login limiter keyed by email and by client IP.
+ * Every attempt counts against the email; only failed attempts count
+ * against the address, so a campus behind one NAT address can log in
+ * all at once while an address spraying guesses is still cut off.
+ *
+ * Attempts are counted in two fixed windows (previous and current)
+ * held as count-min sketches of atomic counters, so memory is fixed
+ * no matter how many distinct keys show up. The rate is
+ * previous * (unelapsed fraction) + current. A key that crosses its
+ * limit is copied into a small exact table and rejected from there
+ * until the window it tripped in has slid past.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int DEPTH = 4;
+
+    private final long windowMillis;
+    private final int maxPerEmail;
+    private final int maxFailuresPerIp;
+    private final int width;
+    private final int maxBlocked;
+
+    private final AtomicReference<Windows> windows;
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    private final Counter throttledEmail;
+    private final Counter throttledIp;
+
+    public LoginAttemptLimiter(
+            @Value("${auth.login.window-seconds:300}") long windowSeconds,
+            @Value("${auth.login.max-per-email:10}") int maxPerEmail,
+            @Value("${auth.login.max-failures-per-ip:300}") int maxFailuresPerIp,
+            @Value("${auth.login.sketch-width:4096}") int width,
+            @Value("${auth.login.max-blocked:10000}") int maxBlocked,
+            MeterRegistry registry
+    ) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxPerEmail = maxPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.width = width;
+        this.maxBlocked = maxBlocked;
+        this.windows = new AtomicReference<>(
+                new Windows(System.currentTimeMillis(), new Sketch(width), new Sketch(width)));
+
+        this.throttledEmail = registry.counter("auth.login.throttled", "key", "email");
+        this.throttledIp = registry.counter("auth.login.throttled", "key", "ip");
+        Gauge.builder("auth.login.blocked", blockedUntil, Map::size).register(registry);
+    }
+
+    /* Records one attempt; throws LoginThrottledException when either key is over its limit. */
+    public void acquire(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        String emailKey = emailKey(email);
+        String ipKey = ipKey(clientIp);
+
+        checkBlocked(emailKey, now, throttledEmail);
+        if (ipKey != null) checkBlocked(ipKey, now, throttledIp);
+
+        Windows w = current(now);
+        double carry = carry(w, now);
+
+        if (ipKey != null && rate(w, carry, slots(ipKey), 0) >= maxFailuresPerIp) {
+            // blocked table full: the sketch alone keeps rejecting
+            throttle(w, ipKey, now, throttledIp);
+        }
+        int[] slots = slots(emailKey);
+        if (rate(w, carry, slots, w.current.increment(slots)) > maxPerEmail) {
+            throttle(w, emailKey, now, throttledEmail);
+        }
+    }
+
+    /* Counts a failed attempt against the address; at the limit the
+       address is blocked from its next attempt on. */
+    public void recordFailure(String clientIp) {
+        String ipKey = ipKey(clientIp);
+        if (ipKey == null) return;
+
+        long now = System.currentTimeMillis();
+        Windows w = current(now);
+        int[] slots = slots(ipKey);
+        if (rate(w, carry(w, now), slots, w.current.increment(slots)) >= maxFailuresPerIp) {
+            block(ipKey, w.start + 2 * windowMillis, now);
+        }
+    }
+
+    private void checkBlocked(String key, long now, Counter counter) {
+        Long until = blockedUntil.get(key);
+        if (until == null) return;
+        if (until > now) {
+            counter.increment();
+            throw new LoginThrottledException(retryAfter(until, now));
+        }
+        blockedUntil.remove(key, until);
+    }
+
+    // current is this window's count for the key, or 0 to read it from the sketch
+    private static double rate(Windows w, double carry, int[] slots, int current) {
+        return w.previous.estimate(slots) * carry + (current > 0 ? current : w.current.estimate(slots));
+    }
+
+    private void throttle(Windows w, String key, long now, Counter counter) {
+        // blocked until the current window has fully replaced itself
+        long until = w.start + 2 * windowMillis;
+        block(key, until, now);
+        counter.increment();
+        throw new LoginThrottledException(retryAfter(until, now));
+    }
+
+    private void block(String key, long until, long now) {
+        if (blockedUntil.size() >= maxBlocked) {
+            blockedUntil.values().removeIf(t -> t <= now);
+            if (blockedUntil.size() >= maxBlocked) return;   // sketch still rejects it
+        }
+        blockedUntil.merge(key, until, Math::max);
+    }
+
+    private Windows current(long now) {
+        while (true) {
+            Windows w = windows.get();
+            if (now - w.start < windowMillis) return w;
+
+            long elapsed = (now - w.start) / windowMillis;
+            Windows next = elapsed == 1
+                    ? new Windows(w.start + windowMillis, w.current, new Sketch(width))
+                    : new Windows(now - (now - w.start) % windowMillis,
+                                  new Sketch(width), new Sketch(width));
+            if (windows.compareAndSet(w, next)) {
+                blockedUntil.values().removeIf(t -> t <= now);
+                return next;
+            }
+        }
+    }
+
+    private double carry(Windows w, long now) {
+        return 1.0 - (double) (now - w.start) / windowMillis;
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return clientIp == null ? null : "i:" + clientIp;
+    }
+
+    private int[] slots(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int h1 = murmurMix(Arrays.hashCode(bytes));
+        int h2 = murmurMix(h1 ^ 0x9E3779B9);
+
+        int[] slots = new int[DEPTH];
+        for (int i = 0; i < DEPTH; i++) {
+            slots[i] = i * width + Math.floorMod(h1 + i * h2, width);
+        }
+        return slots;
+    }
+
+    private static int murmurMix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static long retryAfter(long until, long now) {
+        return Math.max(1, (until - now + 999) / 1000);
+    }
+
+    private record Windows(long start, Sketch previous, Sketch current) {
+    }
+
+    /* Count-min sketch: DEPTH rows of width counters in one flat array. */
+    private static final class Sketch {
+
+        private final AtomicIntegerArray counters;
+
+        Sketch(int width) {
+            this.counters = new AtomicIntegerArray(DEPTH * width);
+        }
+
+        int increment(int[] slots) {
+            int min = Integer.MAX_VALUE;
+            for (int s : slots) {
+                min = Math.min(min, counters.incrementAndGet(s));
+            }
+            return min;
+        }
+
+        int estimate(int[] slots) {
+            int min = Integer.MAX_VALUE;
+            for (int s : slots) {
+                min = Math.min(min, counters.get(s));
+            }
+            return min;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.campus.authservice2.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Runs BCrypt on a fixed pool sized to the cores instead of on Tomcat
+ * request threads. The queue is bounded; when it is full the work is
+ * rejected at once (RejectedExecutionException, mapped to 503) instead
+ * of piling up behind the CPU. The pool stays on platform threads when
+ * spring.threads.virtual.enabled is set: the work is CPU-bound, and more
+ * threads would only queue on the same cores.
+ *
+ * The returned futures complete on the application task executor, not on
+ * a bcrypt thread, so whatever callers chain onto them (saving the user,
+ * issuing the refresh token) does its database IO there and never holds
+ * a core the hashing pool is sized for.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final int threads;
+    private final ThreadPoolExecutor pool;
+    private final Executor completions;
+
+    private final Timer matchTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            PasswordEncoder encoder,
+            MeterRegistry registry,
+            @Qualifier("applicationTaskExecutor") Executor completions,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity
+    ) {
+        this.encoder = encoder;
+        this.completions = completions;
+
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.matchTimer = registry.timer("auth.hash.duration", "op", "matches");
+        this.encodeTimer = registry.timer("auth.hash.duration", "op", "encode");
+        this.queueWait = registry.timer("auth.hash.queue.wait");
+        this.rejected = registry.counter("auth.hash.rejected");
+        Gauge.builder("auth.hash.queue.depth", pool, p -> p.getQueue().size())
+                .register(registry);
+        Gauge.builder("auth.hash.active", pool, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    /* The cores hashing may occupy; UserProvisioningService sizes itself from it. */
+    public int threads() {
+        return threads;
+    }
+
+    public CompletableFuture<Boolean> matches(String raw, String encoded) {
+        return submit(matchTimer, () -> encoder.matches(raw, encoded));
+    }
+
+    public CompletableFuture<String> encode(String raw) {
+        return submit(encodeTimer, () -> encoder.encode(raw));
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            }, pool).thenApplyAsync(Function.identity(), completions);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,144 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.entity.RefreshToken;
+import com.campus.authservice2.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * Opaque, rotating refresh tokens. Only a SHA-256 of each token is
+ * stored, so a fast indexed lookup replaces BCrypt on renewal. A token
+ * can be used once; presenting a used token again revokes its family.
+ *
+ * Two tabs refreshing with the same cookie at once are not a replay:
+ * within refresh-grace-millis of a rotation the same token gets the same
+ * successor back instead. The successor is an HMAC of the token it
+ * replaces, so it can be handed out again without storing it.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository repo;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${jwt.refresh-grace-millis:10000}")
+    private long graceMillis;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    public String issue(String email) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        save(raw, email, UUID.randomUUID().toString());
+        return raw;
+    }
+
+    /* Returns the email the token belongs to and the rotated token, or
+       empty when the token is unknown, expired, revoked or already used
+       outside the grace window. */
+    public Optional<Rotation> rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return Optional.empty();
+
+        RefreshToken current = repo.findByTokenHash(hash(rawToken)).orElse(null);
+        if (current == null) return Optional.empty();
+
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        if (current.isRevoked()) return Optional.empty();
+
+        Instant now = Instant.now();
+        String next = successor(rawToken);
+        if (repo.markUsed(current.getId(), now) == 1) {
+            save(next, current.getEmail(), current.getFamily());
+            return Optional.of(new Rotation(current.getEmail(), next, current.getFamily()));
+        }
+
+        // lost a race just now (rotatedAt still null here) or a retry inside the window
+        Instant rotatedAt = current.getRotatedAt();
+        if (rotatedAt == null || !rotatedAt.plusMillis(graceMillis).isBefore(now)) {
+            return Optional.of(new Rotation(current.getEmail(), next, current.getFamily()));
+        }
+
+        // replay of a rotated token: assume it leaked
+        repo.revokeFamily(current.getFamily());
+        return Optional.empty();
+    }
+
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return;
+        repo.findByTokenHash(hash(rawToken))
+                .ifPresent(t -> repo.revokeFamily(t.getFamily()));
+    }
+
+    public void revokeFamily(String family) {
+        repo.revokeFamily(family);
+    }
+
+    public void revokeAllForEmail(String email) {
+        repo.revokeAllForEmail(email);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    public void purgeExpired() {
+        repo.deleteExpired(Instant.now());
+    }
+
+    private void save(String raw, String email, String family) {
+        RefreshToken t = new RefreshToken();
+        t.setTokenHash(hash(raw));
+        t.setFamily(family);
+        t.setEmail(email);
+        t.setExpiresAt(Instant.now().plusMillis(refreshExpiration));
+        repo.save(t);
+    }
+
+    // the token that replaces raw; the same every time raw is rotated
+    private String successor(String raw) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] next = mac.doFinal(("refresh-rotation\n" + raw).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(next);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(String raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(String email, String refreshToken, String family) {
+    }
+}
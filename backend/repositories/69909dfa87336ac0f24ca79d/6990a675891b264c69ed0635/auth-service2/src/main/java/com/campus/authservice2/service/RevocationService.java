@@ -0,0 +1,157 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.dto.RevocationEntryDto;
+import com.campus.authservice2.dto.RevocationFeedDto;
+import com.campus.authservice2.entity.TokenRevocation;
+import com.campus.authservice2.repository.TokenRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Publishes revoked users to the other services as a versioned feed.
+ *
+ * Active revocations are periodically compacted into a Bloom filter;
+ * anything recorded after that is sent as an exact list. A service
+ * whose bloomVersion is current only receives entries newer than the
+ * version it already has, so a steady-state poll is a few bytes.
+ * Entries are dropped once their cutoff has passed, because every
+ * token they could reject has expired by then.
+ *
+ * Ids are handed out before the insert commits, so a revocation can
+ * become visible after one with a higher id has already been served.
+ * Each feed therefore also repeats every entry revoked within the last
+ * overlap-millis, which covers any commit that slow; services merge the
+ * repeats by key. Only the client's version and the Bloom version advance
+ * by id.
+ *
+ * Only services may read the feed: both endpoints require a signed
+ * X-Auth-Service header (see IdentityHeaders).
+ */
+@Service
+@RequiredArgsConstructor
+public class RevocationService {
+
+    private final TokenRevocationRepository repo;
+
+    @Value("${jwt.expiration}")
+    private long accessLifetime;
+
+    @Value("${auth.revocation.bloom-fpp:0.01}")
+    private double bloomFpp;
+
+    @Value("${auth.revocation.overlap-millis:60000}")
+    private long overlapMillis;
+
+    private volatile Bloom bloom = Bloom.EMPTY;
+
+    @Transactional
+    public void revoke(String email) {
+        Instant now = Instant.now();
+
+        TokenRevocation r = new TokenRevocation();
+        r.setKeyHash(key(email));
+        r.setEmail(email);
+        r.setRevokedAt(now);
+        // every access token issued up to now expires by this instant
+        r.setCutoff(Math.floorDiv(now.toEpochMilli() + accessLifetime + 999, 1000));
+        repo.save(r);
+    }
+
+    @Transactional(readOnly = true)
+    public RevocationFeedDto feed(long clientBloomVersion, long since) {
+        Bloom b = bloom;
+        boolean fresh = clientBloomVersion == b.version();
+
+        RevocationFeedDto feed = new RevocationFeedDto();
+        feed.setBloomVersion(b.version());
+        if (!fresh) {
+            feed.setBloom(b.encoded());
+            feed.setBloomBits(b.bits());
+            feed.setBloomHashes(b.hashes());
+        }
+
+        long from = fresh ? Math.max(since, b.version()) : b.version();
+        long version = from;
+        Instant overlapFrom = Instant.now().minusMillis(overlapMillis);
+        for (TokenRevocation r : repo.findNewerOrRecent(from, overlapFrom, nowSeconds())) {
+            feed.getEntries().add(new RevocationEntryDto(r.getId(), r.getKeyHash(), r.getCutoff()));
+            version = Math.max(version, r.getId());
+        }
+        feed.setVersion(version);
+        return feed;
+    }
+
+    /* Exact answer for a key, used by services to settle Bloom positives. */
+    @Transactional(readOnly = true)
+    public RevocationEntryDto lookup(String key) {
+        long now = nowSeconds();
+        return repo.findFirstByKeyHashOrderByCutoffDesc(key)
+                .filter(r -> r.getCutoff() > now)
+                .map(r -> new RevocationEntryDto(r.getId(), key, r.getCutoff()))
+                .orElseGet(() -> new RevocationEntryDto(0, key, 0));
+    }
+
+    /* ================================
+       BLOOM COMPACTION
+       ================================ */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-millis:300000}")
+    @Transactional
+    public void rebuild() {
+        long now = nowSeconds();
+        repo.deleteExpired(now);
+
+        List<TokenRevocation> active = repo.findByCutoffGreaterThan(now);
+
+        int n = Math.max(active.size(), 1);
+        int bits = (int) Math.ceil(-n * Math.log(bloomFpp) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, (bits + 63) / 64 * 64);
+        int hashes = Math.max(1, Math.min(16, (int) Math.round((double) bits / n * Math.log(2))));
+
+        long[] words = new long[bits / 64];
+        long version = bloom.version();
+        for (TokenRevocation r : active) {
+            ByteBuffer digest = ByteBuffer.wrap(Base64.getUrlDecoder().decode(r.getKeyHash()));
+            long h1 = digest.getLong(0);
+            long h2 = digest.getLong(8) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+                words[bit >>> 6] |= 1L << (bit & 63);
+            }
+            version = Math.max(version, r.getId());
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(words.length * 8);
+        out.asLongBuffer().put(words);
+        bloom = new Bloom(version, bits, hashes, Base64.getEncoder().encodeToString(out.array()));
+    }
+
+    public static String key(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private record Bloom(long version, int bits, int hashes, String encoded) {
+        static final Bloom EMPTY = new Bloom(0, 64, 1, Base64.getEncoder().encodeToString(new byte[8]));
+    }
+}
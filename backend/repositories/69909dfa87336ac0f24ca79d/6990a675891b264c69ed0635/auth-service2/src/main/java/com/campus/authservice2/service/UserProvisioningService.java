@@ -0,0 +1,177 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.dto.BulkCreateUsersResponseDto;
+import com.campus.authservice2.dto.BulkUserErrorDto;
+import com.campus.authservice2.dto.CreateUserRequestDto;
+import com.campus.authservice2.entity.Role;
+import com.campus.authservice2.entity.User;
+import com.campus.authservice2.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Bulk user creation. Requests are cut into chunks. Each chunk's
+ * passwords are hashed in parallel on a ForkJoinPool while the previous
+ * chunk is inserted in one transaction as JDBC batches. The pool gets at
+ * most half of PasswordHasher's threads by default, and never more than
+ * all of them, so an import runs beside logins instead of taking every
+ * core away from them. Duplicate emails
+ * (already stored, repeated in the request, or lost to a concurrent
+ * insert on the unique email column) are reported per row.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final int BCRYPT_MAX_BYTES = 72;
+
+    private final UserRepository repo;
+    private final PasswordEncoder encoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashPool;
+    private final int chunkSize;
+
+    public UserProvisioningService(
+            UserRepository repo,
+            PasswordEncoder encoder,
+            PasswordHasher hasher,
+            TransactionTemplate transactionTemplate,
+            @Value("${auth.provisioning.parallelism:0}") int parallelism,
+            @Value("${auth.provisioning.chunk-size:500}") int chunkSize
+    ) {
+        this.repo = repo;
+        this.encoder = encoder;
+        this.transactionTemplate = transactionTemplate;
+        this.hashPool = new ForkJoinPool(parallelism > 0
+                ? Math.min(parallelism, hasher.threads())
+                : Math.max(1, hasher.threads() / 2));
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkCreateUsersResponseDto createUsers(List<CreateUserRequestDto> users, Role role) {
+        BulkCreateUsersResponseDto report = new BulkCreateUsersResponseDto();
+        report.setRequested(users.size());
+
+        // validation and in-request duplicates first, so no hash is wasted on them
+        List<Row> valid = new ArrayList<>(users.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            CreateUserRequestDto u = users.get(i);
+            String error = validate(u);
+            if (error == null && !seen.add(u.getEmail())) error = "Duplicate email in request";
+
+            if (error != null) {
+                fail(report, i, u == null ? null : u.getEmail(), error);
+            } else {
+                valid.add(new Row(i, u.getEmail(), u.getPassword()));
+            }
+        }
+
+        HashedChunk pending = null;
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Row> chunk = dropExisting(
+                    valid.subList(from, Math.min(from + chunkSize, valid.size())), report);
+
+            // hash this chunk while the previous one is being inserted
+            HashedChunk next = hash(chunk, role);
+            if (pending != null) insert(pending, report);
+            pending = next;
+        }
+        if (pending != null) insert(pending, report);
+
+        return report;
+    }
+
+    /* ================================
+       HASHING (FORK-JOIN)
+       ================================ */
+    private HashedChunk hash(List<Row> chunk, Role role) {
+        return new HashedChunk(chunk, CompletableFuture.supplyAsync(() ->
+                chunk.parallelStream().map(r -> {
+                    User u = new User();
+                    u.setEmail(r.email());
+                    u.setPassword(encoder.encode(r.password()));
+                    u.setRole(role);
+                    return u;
+                }).toList(), hashPool));
+    }
+
+    /* ================================
+       BATCH INSERT
+       ================================ */
+    private void insert(HashedChunk chunk, BulkCreateUsersResponseDto report) {
+        List<User> users = chunk.users().join();
+        List<Row> rows = chunk.rows();
+        if (users.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> repo.saveAll(users));
+            report.setCreated(report.getCreated() + users.size());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent writer took some email: retry row by row
+            for (int i = 0; i < users.size(); i++) {
+                User u = users.get(i);
+                u.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> repo.save(u));
+                    report.setCreated(report.getCreated() + 1);
+                } catch (DataIntegrityViolationException rowError) {
+                    fail(report, rows.get(i).index(), u.getEmail(), "User already exists");
+                }
+            }
+        }
+    }
+
+    private List<Row> dropExisting(List<Row> chunk, BulkCreateUsersResponseDto report) {
+        Set<String> existing = new HashSet<>(
+                repo.findExistingEmails(chunk.stream().map(Row::email).toList()));
+        if (existing.isEmpty()) return chunk;
+
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row r : chunk) {
+            if (existing.contains(r.email())) {
+                fail(report, r.index(), r.email(), "User already exists");
+            } else {
+                fresh.add(r);
+            }
+        }
+        return fresh;
+    }
+
+    private static String validate(CreateUserRequestDto u) {
+        if (u == null || u.getEmail() == null || !u.getEmail().contains("@")) {
+            return "Invalid email";
+        }
+        if (u.getPassword() == null || u.getPassword().isBlank()) {
+            return "Missing password";
+        }
+        if (u.getPassword().getBytes(StandardCharsets.UTF_8).length > BCRYPT_MAX_BYTES) {
+            return "Password longer than 72 bytes";
+        }
+        return null;
+    }
+
+    private static void fail(BulkCreateUsersResponseDto report, int row, String email, String error) {
+        report.setFailed(report.getFailed() + 1);
+        report.getErrors().add(new BulkUserErrorDto(row, email, error));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdown();
+    }
+
+    private record Row(int index, String email, String password) {
+    }
+
+    private record HashedChunk(List<Row> rows, CompletableFuture<List<User>> users) {
+    }
+}
@@ -1,14 +1,24 @@
 package com.campus.authservice2.utils;
 
+import com.campus.common.security.JwtVerifier;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 
+/*
+ * Issues access tokens. Verification, including the cache of verified
+ * tokens, is campusradar-common's JwtVerifier, the same one the gateway
+ * and the services use.
+ */
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
     @Value("${jwt.secret}")
@@ -17,22 +27,26 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    private final JwtVerifier verifier;
+
+    private SecretKey key;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
     public String generate(String email, String role) {
         return Jwts.builder()
-                .setSubject(email)
+                .subject(email)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(key)
                 .compact();
     }
+
     public Claims parse(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verifier.parse(token);
     }
-
 }
-
@@ -0,0 +1,106 @@
+package com.campus.authservice2.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // 5 attempts per email, 20 failures per address in a 5 minute window
+    private final LoginAttemptLimiter limiter =
+            new LoginAttemptLimiter(300, 5, 20, 1024, 100, registry);
+
+    @Test
+    void throttlesEmailPastItsLimitWithRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("s@college.com", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.acquire("s@college.com", "10.0.0.99"))
+                .isInstanceOfSatisfying(LoginThrottledException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(1L, 600L));
+        assertThat(registry.counter("auth.login.throttled", "key", "email").count()).isEqualTo(1);
+    }
+
+    @Test
+    void emailKeyIgnoresCaseAndSpaces() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(i % 2 == 0 ? "S@College.com " : "s@college.com", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.acquire("s@COLLEGE.com", "10.0.0.99"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void throttlesAddressSprayingManyEmails() {
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire("user" + i + "@college.com", "203.0.113.7");
+            limiter.recordFailure("203.0.113.7");
+        }
+
+        assertThatThrownBy(() -> limiter.acquire("fresh@college.com", "203.0.113.7"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(registry.counter("auth.login.throttled", "key", "ip").count()).isEqualTo(1);
+        // other addresses are unaffected
+        assertThatCode(() -> limiter.acquire("fresh@college.com", "203.0.113.8")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successfulLoginsBehindOneNatAddressAreNotCounted() {
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            assertThatCode(() -> limiter.acquire("user" + n + "@college.com", "203.0.113.7"))
+                    .doesNotThrowAnyException();
+        }
+        for (int i = 0; i < 19; i++) {
+            limiter.recordFailure("203.0.113.7");
+        }
+        assertThatCode(() -> limiter.acquire("late@college.com", "203.0.113.7")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sketchKeepsRejectingWhenTheBlockedTableIsFull() {
+        LoginAttemptLimiter tiny = new LoginAttemptLimiter(300, 5, 20, 1024, 0, registry);
+        for (int i = 0; i < 20; i++) {
+            tiny.recordFailure("203.0.113.7");
+        }
+
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            assertThatThrownBy(() -> tiny.acquire("user" + n + "@college.com", "203.0.113.7"))
+                    .isInstanceOf(LoginThrottledException.class);
+        }
+    }
+
+    @Test
+    void blockedKeyStaysBlockedWithoutCountingFurther() {
+        for (int i = 0; i < 6; i++) {
+            try {
+                limiter.acquire("s@college.com", "10.0.0." + i);
+            } catch (LoginThrottledException ignored) {
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> limiter.acquire("s@college.com", "10.0.1.1"))
+                    .isInstanceOf(LoginThrottledException.class);
+        }
+        // the blocked email's attempts never reached the address counters
+        assertThatCode(() -> limiter.acquire("other@college.com", "10.0.1.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void distinctKeysDoNotInterfereInASketchThisWide() {
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            assertThatCode(() -> limiter.acquire("user" + n + "@college.com", "10.1." + (n / 250) + "." + (n % 250)))
+                    .doesNotThrowAnyException();
+        }
+    }
+}
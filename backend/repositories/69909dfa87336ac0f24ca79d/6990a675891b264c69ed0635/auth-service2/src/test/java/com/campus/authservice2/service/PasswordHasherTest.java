@@ -0,0 +1,43 @@
+package com.campus.authservice2.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> new Thread(r, "io-1"));
+
+    private final PasswordHasher hasher = new PasswordHasher(
+            new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), io, 1, 4);
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+        io.shutdownNow();
+    }
+
+    @Test
+    void continuationsRunOffTheBcryptPool() throws Exception {
+        String thread = hasher.encode("secret")
+                .thenApply(hash -> Thread.currentThread().getName())
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(thread).isEqualTo("io-1");
+    }
+
+    @Test
+    void matchesWhatItEncoded() throws Exception {
+        String hash = hasher.encode("secret").get(10, TimeUnit.SECONDS);
+
+        assertThat(hasher.matches("secret", hash).get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(hasher.matches("wrong", hash).get(10, TimeUnit.SECONDS)).isFalse();
+    }
+}
@@ -0,0 +1,110 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.entity.RefreshToken;
+import com.campus.authservice2.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository repo = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repo);
+
+    // tokenHash -> row, standing in for the table
+    private final Map<String, RefreshToken> rows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "refreshExpiration", 60_000L);
+        ReflectionTestUtils.setField(service, "graceMillis", 10_000L);
+        ReflectionTestUtils.setField(service, "secret", "test_refresh_secret");
+
+        when(repo.save(any(RefreshToken.class))).thenAnswer(inv -> {
+            RefreshToken t = inv.getArgument(0);
+            t.setId((long) rows.size() + 1);
+            rows.put(t.getTokenHash(), t);
+            return t;
+        });
+        when(repo.findByTokenHash(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+    }
+
+    @Test
+    void rotatesIntoNewTokenOfSameFamily() {
+        String first = service.issue("s@college.com");
+        when(repo.markUsed(anyLong(), any())).thenReturn(1);
+
+        RefreshTokenService.Rotation r = service.rotate(first).orElseThrow();
+
+        assertThat(r.refreshToken()).isNotEqualTo(first);
+        assertThat(r.email()).isEqualTo("s@college.com");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repo, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues().get(1).getFamily()).isEqualTo(saved.getAllValues().get(0).getFamily());
+    }
+
+    @Test
+    void concurrentRefreshGetsTheSameSuccessor() {
+        String first = service.issue("s@college.com");
+        when(repo.markUsed(anyLong(), any())).thenReturn(1, 0);
+
+        String winner = service.rotate(first).orElseThrow().refreshToken();
+        rows.values().forEach(t -> t.setRotatedAt(null));      // the loser read the row before the winner committed
+        String loser = service.rotate(first).orElseThrow().refreshToken();
+
+        assertThat(loser).isEqualTo(winner);
+        verify(repo, never()).revokeFamily(anyString());
+        verify(repo, times(2)).save(any(RefreshToken.class));   // the successor is stored once
+    }
+
+    @Test
+    void reuseInsideGraceWindowReturnsSuccessor() {
+        String first = service.issue("s@college.com");
+        when(repo.markUsed(anyLong(), any())).thenReturn(1, 0);
+
+        String next = service.rotate(first).orElseThrow().refreshToken();
+        loginTokenRotatedAgo(2_000);
+
+        assertThat(service.rotate(first)).map(RefreshTokenService.Rotation::refreshToken).contains(next);
+        verify(repo, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void reuseAfterGraceWindowRevokesFamily() {
+        String first = service.issue("s@college.com");
+        when(repo.markUsed(anyLong(), any())).thenReturn(1, 0);
+
+        service.rotate(first);
+        loginTokenRotatedAgo(60_000);
+
+        assertThat(service.rotate(first)).isEmpty();
+        verify(repo).revokeFamily(anyString());
+    }
+
+    @Test
+    void revokedTokenIsNotRotated() {
+        String first = service.issue("s@college.com");
+        rows.values().forEach(t -> t.setRevoked(true));
+
+        assertThat(service.rotate(first)).isEmpty();
+        verify(repo, never()).markUsed(anyLong(), any());
+    }
+
+    private void loginTokenRotatedAgo(long millis) {
+        rows.values().stream()
+                .filter(t -> t.getId() == 1L)
+                .forEach(t -> t.setRotatedAt(Instant.now().minusMillis(millis)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.dto.RevocationEntryDto;
+import com.campus.authservice2.dto.RevocationFeedDto;
+import com.campus.authservice2.entity.TokenRevocation;
+import com.campus.authservice2.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevocationServiceTest {
+
+    private final TokenRevocationRepository repo = mock(TokenRevocationRepository.class);
+    private final RevocationService service = new RevocationService(repo);
+
+    // standing in for the table; ids are set by hand so commit order can differ from id order
+    private final List<TokenRevocation> rows = new ArrayList<>();
+
+    private final long now = System.currentTimeMillis() / 1000;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "accessLifetime", 900_000L);
+        ReflectionTestUtils.setField(service, "bloomFpp", 0.01);
+        ReflectionTestUtils.setField(service, "overlapMillis", 60_000L);
+
+        // the same predicate as the JPQL query
+        when(repo.findNewerOrRecent(anyLong(), any(Instant.class), anyLong())).thenAnswer(inv -> {
+            long since = inv.getArgument(0);
+            Instant revokedFrom = inv.getArgument(1);
+            long at = inv.getArgument(2);
+            return rows.stream()
+                    .filter(r -> (r.getId() > since || !r.getRevokedAt().isBefore(revokedFrom)) && r.getCutoff() > at)
+                    .sorted(Comparator.comparing(TokenRevocation::getId))
+                    .toList();
+        });
+        when(repo.findByCutoffGreaterThan(anyLong())).thenAnswer(inv -> rows.stream()
+                .filter(r -> r.getCutoff() > inv.<Long>getArgument(0))
+                .toList());
+    }
+
+    @Test
+    void sendsTheBloomOnlyToStaleClients() {
+        row(3, "old@college.com", Instant.now().minusSeconds(600));
+        service.rebuild();
+
+        RevocationFeedDto stale = service.feed(-1, 0);
+        RevocationFeedDto fresh = service.feed(3, 3);
+
+        assertThat(stale.getBloomVersion()).isEqualTo(3);
+        assertThat(stale.getBloom()).isNotNull();
+        assertThat(stale.getBloomBits() % 64).isZero();
+        assertThat(fresh.getBloom()).isNull();
+        assertThat(fresh.getEntries()).isEmpty();
+        assertThat(fresh.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void sendsOnlyEntriesNewerThanTheClientVersion() {
+        row(3, "old@college.com", Instant.now().minusSeconds(600));
+        service.rebuild();
+        row(4, "a@college.com", Instant.now().minusSeconds(300));
+        row(5, "b@college.com", Instant.now().minusSeconds(300));
+
+        RevocationFeedDto feed = service.feed(3, 4);
+
+        assertThat(feed.getEntries()).extracting(RevocationEntryDto::getVersion).containsExactly(5L);
+        assertThat(feed.getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void repeatsRecentEntriesWithoutMovingTheVersionBack() {
+        service.rebuild();
+        // id 7 was handed out first but committed after the client had already read id 8
+        row(7, "late@college.com", Instant.now().minusSeconds(5));
+        row(8, "b@college.com", Instant.now().minusSeconds(10));
+        row(6, "settled@college.com", Instant.now().minusSeconds(600));
+
+        RevocationFeedDto feed = service.feed(0, 8);
+
+        assertThat(feed.getEntries()).extracting(RevocationEntryDto::getVersion).containsExactly(7L, 8L);
+        assertThat(feed.getVersion()).isEqualTo(8);
+    }
+
+    @Test
+    void dropsExpiredEntriesAndAnswersLookups() {
+        TokenRevocation expired = row(2, "gone@college.com", Instant.now().minusSeconds(5));
+        expired.setCutoff(now - 1);
+        row(3, "s@college.com", Instant.now().minusSeconds(5));
+        when(repo.findFirstByKeyHashOrderByCutoffDesc(RevocationService.key("s@college.com")))
+                .thenReturn(Optional.of(rows.get(1)));
+        when(repo.findFirstByKeyHashOrderByCutoffDesc(RevocationService.key("gone@college.com")))
+                .thenReturn(Optional.of(expired));
+
+        assertThat(service.feed(0, 0).getEntries()).extracting(RevocationEntryDto::getVersion).containsExactly(3L);
+        assertThat(service.lookup(RevocationService.key("s@college.com")).getCutoff()).isEqualTo(now + 900);
+        assertThat(service.lookup(RevocationService.key("gone@college.com")).getCutoff()).isZero();
+    }
+
+    private TokenRevocation row(long id, String email, Instant revokedAt) {
+        TokenRevocation r = new TokenRevocation();
+        r.setId(id);
+        r.setKeyHash(RevocationService.key(email));
+        r.setEmail(email);
+        r.setRevokedAt(revokedAt);
+        r.setCutoff(now + 900);
+        rows.add(r);
+        return r;
+    }
+}
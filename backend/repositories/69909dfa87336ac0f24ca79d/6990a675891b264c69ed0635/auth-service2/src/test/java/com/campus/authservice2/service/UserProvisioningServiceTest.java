@@ -0,0 +1,177 @@
+package com.campus.authservice2.service;
+
+import com.campus.authservice2.dto.BulkCreateUsersResponseDto;
+import com.campus.authservice2.dto.BulkUserErrorDto;
+import com.campus.authservice2.dto.CreateUserRequestDto;
+import com.campus.authservice2.entity.Role;
+import com.campus.authservice2.entity.User;
+import com.campus.authservice2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserProvisioningServiceTest {
+
+    private final UserRepository repo = mock(UserRepository.class);
+    private final PasswordHasher hasher = mock(PasswordHasher.class);
+    private final TransactionTemplate tx = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    // raw passwords that went through the encoder
+    private final Set<String> hashed = ConcurrentHashMap.newKeySet();
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            hashed.add(raw.toString());
+            return "hash:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encoded.equals("hash:" + raw);
+        }
+    };
+
+    // the users table, unique on email
+    private final Map<String, User> table = new ConcurrentHashMap<>();
+
+    private UserProvisioningService service;
+
+    private UserProvisioningService service(int parallelism, int hasherThreads, int chunkSize) {
+        when(hasher.threads()).thenReturn(hasherThreads);
+        when(repo.findExistingEmails(anyCollection())).thenAnswer(inv -> inv.<Collection<String>>getArgument(0)
+                .stream().filter(table::containsKey).toList());
+        when(repo.save(any(User.class))).thenAnswer(inv -> insert(inv.getArgument(0)));
+        service = new UserProvisioningService(repo, encoder, hasher, tx, parallelism, chunkSize);
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void reportsInvalidRowsAndInRequestDuplicatesWithoutHashingThem() {
+        service(0, 4, 500);
+        when(repo.saveAll(anyCollection())).thenAnswer(inv -> saveAll(inv.getArgument(0)));
+
+        BulkCreateUsersResponseDto report = service.createUsers(List.of(
+                user("a@college.com", "pw-a"),
+                user("not-an-email", "pw-x"),
+                user("b@college.com", "pw-b"),
+                user("a@college.com", "pw-a-again"),
+                user("c@college.com", " ")
+        ), Role.STUDENT);
+
+        assertThat(report.getRequested()).isEqualTo(5);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(BulkUserErrorDto::getRow, BulkUserErrorDto::getError)
+                .containsExactlyInAnyOrder(
+                        tuple(1, "Invalid email"),
+                        tuple(3, "Duplicate email in request"),
+                        tuple(4, "Missing password"));
+        assertThat(hashed).containsExactlyInAnyOrder("pw-a", "pw-b");
+        assertThat(table.get("a@college.com").getPassword()).isEqualTo("hash:pw-a");
+    }
+
+    @Test
+    void skipsEmailsAlreadyStoredBeforeHashing() {
+        service(0, 4, 2);
+        when(repo.saveAll(anyCollection())).thenAnswer(inv -> saveAll(inv.getArgument(0)));
+        table.put("b@college.com", new User());
+        table.put("d@college.com", new User());
+
+        BulkCreateUsersResponseDto report = service.createUsers(List.of(
+                user("a@college.com", "pw-a"),
+                user("b@college.com", "pw-b"),
+                user("c@college.com", "pw-c"),
+                user("d@college.com", "pw-d"),
+                user("e@college.com", "pw-e")
+        ), Role.TPO);
+
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(BulkUserErrorDto::getRow, BulkUserErrorDto::getEmail)
+                .containsExactlyInAnyOrder(
+                        tuple(1, "b@college.com"),
+                        tuple(3, "d@college.com"));
+        assertThat(report.getErrors()).allMatch(e -> e.getError().equals("User already exists"));
+        assertThat(hashed).containsExactlyInAnyOrder("pw-a", "pw-c", "pw-e");
+        assertThat(table.get("e@college.com").getRole()).isEqualTo(Role.TPO);
+    }
+
+    @Test
+    void retriesRowByRowWhenAConcurrentWriterTakesAnEmail() {
+        service(0, 4, 500);
+        // a@ and c@ pass the existence check, then another request inserts c@
+        when(repo.saveAll(anyCollection())).thenAnswer(inv -> {
+            table.put("c@college.com", new User());
+            throw new DataIntegrityViolationException("Duplicate entry 'c@college.com'");
+        });
+
+        BulkCreateUsersResponseDto report = service.createUsers(List.of(
+                user("a@college.com", "pw-a"),
+                user("b@college.com", "pw-b"),
+                user("c@college.com", "pw-c")
+        ), Role.STUDENT);
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(e -> {
+            assertThat(e.getRow()).isEqualTo(2);
+            assertThat(e.getEmail()).isEqualTo("c@college.com");
+            assertThat(e.getError()).isEqualTo("User already exists");
+        });
+        assertThat(table.get("a@college.com").getPassword()).isEqualTo("hash:pw-a");
+        assertThat(table.get("b@college.com").getPassword()).isEqualTo("hash:pw-b");
+        verify(repo, times(3)).save(any(User.class));
+    }
+
+    @Test
+    void sizesTheHashPoolFromThePasswordHasher() {
+        assertThat(parallelism(service(0, 8, 500))).isEqualTo(4);
+        service.shutdown();
+        assertThat(parallelism(service(0, 1, 500))).isEqualTo(1);
+        service.shutdown();
+        assertThat(parallelism(service(16, 8, 500))).isEqualTo(8);
+        service.shutdown();
+        assertThat(parallelism(service(3, 8, 500))).isEqualTo(3);
+    }
+
+    private static int parallelism(UserProvisioningService service) {
+        return ((ForkJoinPool) ReflectionTestUtils.getField(service, "hashPool")).getParallelism();
+    }
+
+    private Object saveAll(Collection<User> users) {
+        users.forEach(this::insert);
+        return List.copyOf(users);
+    }
+
+    private User insert(User u) {
+        if (table.putIfAbsent(u.getEmail(), u) != null) {
+            throw new DataIntegrityViolationException("Duplicate entry '" + u.getEmail() + "'");
+        }
+        return u;
+    }
+
+    private static CreateUserRequestDto user(String email, String password) {
+        CreateUserRequestDto u = new CreateUserRequestDto();
+        u.setEmail(email);
+        u.setPassword(password);
+        return u;
+    }
+}
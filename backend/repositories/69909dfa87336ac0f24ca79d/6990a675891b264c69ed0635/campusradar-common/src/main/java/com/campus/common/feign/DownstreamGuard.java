@@ -0,0 +1,325 @@
+package com.campus.common.feign;
+
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Bulkhead and circuit breaker per downstream service, applied by
+ * PooledFeignClient around every call on the caller's own thread (so
+ * RequestContextHolder and the transaction stay where they are).
+ *
+ * The bulkhead bounds concurrent calls to one service; a call that cannot
+ * get a permit within max-wait-millis is rejected instead of parking a
+ * request thread behind the slow ones. The permit is held until the
+ * response body is closed, so a streamed body counts for as long as it
+ * is being read.
+ *
+ * The breaker looks at the last window-size calls. Once minimum-calls
+ * have been seen and failure-rate-percent of them failed (IO error or
+ * timeout, 5xx, or headers slower than slow-call-millis), it opens and
+ * rejects everything for open-millis, then lets half-open-calls trial
+ * calls through: all succeed and it closes, any fails and it opens again.
+ *
+ * Settings come from feign.guard.<service>.* and fall back to
+ * feign.guard.*. Time limits are the per-client connect and read timeouts
+ * plus the pool's lease timeout. Rejections throw
+ * DownstreamUnavailableException without touching the network.
+ *
+ * Meters, all tagged client=<service>:
+ *   feign.downstream.breaker.state     0 closed, 1 half-open, 2 open
+ *   feign.downstream.breaker.transitions{state}
+ *   feign.downstream.calls{outcome=success|failure|slow}
+ *   feign.downstream.rejected{reason=bulkhead|breaker}
+ *   feign.downstream.inflight
+ */
+public class DownstreamGuard {
+
+    private final Environment env;
+    private final MeterRegistry registry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuard(Environment env, MeterRegistry registry) {
+        this.env = env;
+        this.registry = registry;
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        Response execute() throws IOException;
+    }
+
+    public Response call(String service, Call call) throws IOException {
+        Guard g = guards.computeIfAbsent(service, Guard::new);
+
+        if (!g.bulkhead.tryAcquire()) {
+            g.rejectedBulkhead.increment();
+            throw new DownstreamUnavailableException(service, "bulkhead full", 1);
+        }
+        if (!g.breaker.tryAcquire(System.nanoTime())) {
+            g.bulkhead.release();
+            g.rejectedBreaker.increment();
+            throw new DownstreamUnavailableException(service, "circuit open", g.breaker.retryAfterSeconds());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = call.execute();
+        } catch (IOException | RuntimeException e) {
+            g.bulkhead.release();
+            g.record(Outcome.FAILURE);
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        g.record(response.status() >= 500 ? Outcome.FAILURE
+                : elapsed > g.slowNanos ? Outcome.SLOW
+                : Outcome.SUCCESS);
+
+        if (response.body() == null) {
+            g.bulkhead.release();
+            return response;
+        }
+        return response.toBuilder()
+                .body(new ReleasingBody(response.body(), g.bulkhead))
+                .build();
+    }
+
+    private long longProp(String service, String key, long fallback) {
+        Long shared = env.getProperty("feign.guard." + key, Long.class, fallback);
+        return env.getProperty("feign.guard." + service + "." + key, Long.class, shared);
+    }
+
+    private enum Outcome { SUCCESS, FAILURE, SLOW }
+
+    /* ================================
+       PER SERVICE
+       ================================ */
+    private final class Guard {
+
+        final Bulkhead bulkhead;
+        final Breaker breaker;
+        final long slowNanos;
+
+        final Counter success;
+        final Counter failure;
+        final Counter slow;
+        final Counter rejectedBulkhead;
+        final Counter rejectedBreaker;
+
+        Guard(String service) {
+            this.bulkhead = new Bulkhead(
+                    (int) longProp(service, "max-concurrent-calls", 20),
+                    longProp(service, "max-wait-millis", 100));
+            this.breaker = new Breaker(
+                    service,
+                    (int) longProp(service, "window-size", 20),
+                    (int) longProp(service, "minimum-calls", 10),
+                    (int) longProp(service, "failure-rate-percent", 50),
+                    longProp(service, "open-millis", 10_000),
+                    (int) longProp(service, "half-open-calls", 3));
+            this.slowNanos = TimeUnit.MILLISECONDS.toNanos(longProp(service, "slow-call-millis", 2_000));
+
+            this.success = registry.counter("feign.downstream.calls", "client", service, "outcome", "success");
+            this.failure = registry.counter("feign.downstream.calls", "client", service, "outcome", "failure");
+            this.slow = registry.counter("feign.downstream.calls", "client", service, "outcome", "slow");
+            this.rejectedBulkhead = registry.counter("feign.downstream.rejected", "client", service, "reason", "bulkhead");
+            this.rejectedBreaker = registry.counter("feign.downstream.rejected", "client", service, "reason", "breaker");
+
+            Gauge.builder("feign.downstream.breaker.state", breaker, b -> b.state().ordinal())
+                    .tag("client", service)
+                    .register(registry);
+            Gauge.builder("feign.downstream.inflight", bulkhead, Bulkhead::inflight)
+                    .tag("client", service)
+                    .register(registry);
+        }
+
+        void record(Outcome outcome) {
+            (outcome == Outcome.SUCCESS ? success : outcome == Outcome.SLOW ? slow : failure).increment();
+            breaker.record(outcome != Outcome.SUCCESS);
+        }
+    }
+
+    private static final class Bulkhead {
+
+        private final int max;
+        private final long waitMillis;
+        private final Semaphore permits;
+
+        Bulkhead(int max, long waitMillis) {
+            this.max = max;
+            this.waitMillis = waitMillis;
+            this.permits = new Semaphore(max);
+        }
+
+        boolean tryAcquire() {
+            try {
+                return permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        int inflight() {
+            return max - permits.availablePermits();
+        }
+    }
+
+    private enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final class Breaker {
+
+        private final String service;
+        private final boolean[] window;
+        private final int minimumCalls;
+        private final int failureRatePercent;
+        private final long openNanos;
+        private final int halfOpenCalls;
+
+        private State state = State.CLOSED;
+        private int next;
+        private int calls;
+        private int failures;
+        private long openedAt;
+        private int trials;
+        private int trialSuccesses;
+
+        Breaker(String service, int windowSize, int minimumCalls, int failureRatePercent,
+                long openMillis, int halfOpenCalls) {
+            this.service = service;
+            this.window = new boolean[windowSize];
+            this.minimumCalls = minimumCalls;
+            this.failureRatePercent = failureRatePercent;
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (state == State.OPEN) {
+                if (now - openedAt < openNanos) return false;
+                moveTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trials >= halfOpenCalls) return false;
+                trials++;
+            }
+            return true;
+        }
+
+        synchronized void record(boolean failed) {
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failed) {
+                        moveTo(State.OPEN);
+                    } else if (++trialSuccesses >= halfOpenCalls) {
+                        moveTo(State.CLOSED);
+                    }
+                }
+                case CLOSED -> {
+                    if (calls == window.length && window[next]) failures--;
+                    window[next] = failed;
+                    if (failed) failures++;
+                    next = (next + 1) % window.length;
+                    if (calls < window.length) calls++;
+
+                    if (calls >= minimumCalls && failures * 100 >= failureRatePercent * calls) {
+                        moveTo(State.OPEN);
+                    }
+                }
+                case OPEN -> {
+                    // admitted before the breaker tripped; already counted against it
+                }
+            }
+        }
+
+        synchronized long retryAfterSeconds() {
+            long left = openNanos - (System.nanoTime() - openedAt);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(left + 999_999_999));
+        }
+
+        // caller holds the lock
+        private void moveTo(State to) {
+            state = to;
+            trials = 0;
+            trialSuccesses = 0;
+            if (to == State.OPEN) {
+                openedAt = System.nanoTime();
+            } else if (to == State.CLOSED) {
+                Arrays.fill(window, false);
+                next = 0;
+                calls = 0;
+                failures = 0;
+            }
+            registry.counter("feign.downstream.breaker.transitions",
+                    "client", service, "state", to.name().toLowerCase(Locale.ROOT)).increment();
+        }
+    }
+
+    /* ================================
+       STREAMED BODIES
+       ================================ */
+    private static final class ReleasingBody implements Response.Body {
+
+        private final Response.Body body;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingBody(Response.Body body, Bulkhead bulkhead) {
+            this.body = body;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public Integer length() {
+            return body.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return body.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return body.asInputStream();
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return body.asReader(charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                body.close();
+            } finally {
+                if (released.compareAndSet(false, true)) bulkhead.release();
+            }
+        }
+    }
+}
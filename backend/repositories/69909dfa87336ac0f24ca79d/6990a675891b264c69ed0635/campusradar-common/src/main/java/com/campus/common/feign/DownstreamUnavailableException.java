@@ -0,0 +1,22 @@
+package com.campus.common.feign;
+
+/* Thrown by DownstreamGuard when a call is rejected before it reaches the network. */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private final String service;
+    private final long retryAfterSeconds;
+
+    public DownstreamUnavailableException(String service, String reason, long retryAfterSeconds) {
+        super(service + " unavailable: " + reason);
+        this.service = service;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.campus.common.feign;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/*
+ * The Feign transport shared by the services that call each other:
+ * a DownstreamGuard per application, configured from feign.guard.*,
+ * and, where feign-hc5 is present, the pooled transport under the
+ * load-balanced client. Runs before Spring Cloud OpenFeign's own
+ * load-balancer configuration so that one backs off. Services without
+ * Feign on the classpath get nothing.
+ */
+@AutoConfiguration(beforeName = "org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration")
+@ConditionalOnClass(Client.class)
+public class FeignTransportAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DownstreamGuard downstreamGuard(Environment env, MeterRegistry registry) {
+        return new DownstreamGuard(env, registry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ApacheHttp5Client.class, FeignBlockingLoadBalancerClient.class})
+    static class Pooled {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public PooledFeignClient pooledFeignClient(Environment env, MeterRegistry registry, DownstreamGuard guard) {
+            return new PooledFeignClient(env, registry, guard);
+        }
+
+        // instances still come from the load balancer; only the transport underneath is pooled.
+        // Primary because PooledFeignClient is a Client bean too.
+        @Bean
+        @Primary
+        public Client feignClient(
+                PooledFeignClient pooled,
+                LoadBalancerClient loadBalancer,
+                LoadBalancerClientFactory loadBalancerFactory,
+                List<LoadBalancerFeignRequestTransformer> transformers
+        ) {
+            return new FeignBlockingLoadBalancerClient(pooled, loadBalancer, loadBalancerFactory, transformers);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.campus.common.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Feign transport with one pooled Apache HttpClient 5 per downstream
+ * service, so a slow service can only use up its own connections.
+ * Pools are keyed by the @FeignClient name and opened on first use;
+ * sizes and keep-alive come from feign.pool.<service>.* and fall back
+ * to feign.pool.*. Connect and read timeouts stay per client under
+ * spring.cloud.openfeign.client.config.<service>.
+ *
+ * Connections are reused most-recent-first, so at low load a few stay
+ * warm and the rest age out. Idle ones are evicted before Tomcat's
+ * keep-alive timeout can close them under a request. Every pool is
+ * reported as httpcomponents.httpclient.pool.* with httpclient=<service>.
+ *
+ * Every call goes through DownstreamGuard first, which may reject it
+ * before a connection is leased.
+ */
+public class PooledFeignClient implements Client, DisposableBean {
+
+    private static final String DEFAULT_POOL = "default";
+
+    private final Environment env;
+    private final MeterRegistry registry;
+    private final DownstreamGuard guard;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    public PooledFeignClient(Environment env, MeterRegistry registry, DownstreamGuard guard) {
+        this.env = env;
+        this.registry = registry;
+        this.guard = guard;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String service = serviceOf(request);
+        return guard.call(service, () -> pools.computeIfAbsent(service, this::open)
+                .feign()
+                .execute(forHttpClient(request), options));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Pool p : pools.values()) p.http().close();
+    }
+
+    /* ================================
+       ONE POOL PER SERVICE
+       ================================ */
+    private Pool open(String service) {
+
+        PoolingHttpClientConnectionManager connections = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(intProp(service, "max-connections", 50))
+                .setMaxConnPerRoute(intProp(service, "max-connections-per-route", 20))
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(TimeValue.ofMilliseconds(
+                                intProp(service, "time-to-live-millis", 300_000)))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(
+                                intProp(service, "validate-after-inactivity-millis", 2_000)))
+                        .build())
+                .build();
+
+        CloseableHttpClient http = HttpClients.custom()
+                .setConnectionManager(connections)
+                // how long a call may wait for a free connection before failing
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(
+                                intProp(service, "lease-timeout-millis", 1_000)))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(
+                        intProp(service, "idle-timeout-millis", 30_000)))
+                .disableCookieManagement()
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connections, service).bindTo(registry);
+        return new Pool(http, new ApacheHttp5Client(http));
+    }
+
+    private int intProp(String service, String key, int fallback) {
+        Integer shared = env.getProperty("feign.pool." + key, Integer.class, fallback);
+        return env.getProperty("feign.pool." + service + "." + key, Integer.class, shared);
+    }
+
+    // the load balancer rewrites the URL to an instance but keeps the template and its target
+    private static String serviceOf(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().feignTarget() == null) {
+            return DEFAULT_POOL;
+        }
+        return request.requestTemplate().feignTarget().name();
+    }
+
+    /*
+     * Two differences from Client.Default that would change what goes on
+     * the wire. A body with a charset is turned into a String entity,
+     * which mangles Smile, so bodies always go out as plain bytes. And
+     * the compression interceptor marks bodies "gzip, deflate";
+     * ApacheHttp5Client gzips them itself but rejects deflate, so only
+     * gzip is kept, which is what Client.Default sent.
+     */
+    private static Request forHttpClient(Request request) {
+        if (request.body() == null) return request;
+
+        Map<String, Collection<String>> headers = request.headers();
+        Collection<String> encoding = headers.get(HttpHeaders.CONTENT_ENCODING);
+        if (encoding != null && encoding.contains("gzip") && encoding.size() > 1) {
+            headers = new LinkedHashMap<>(headers);
+            headers.put(HttpHeaders.CONTENT_ENCODING, List.of("gzip"));
+        }
+        return Request.create(request.httpMethod(), request.url(), headers,
+                request.body(), null, request.requestTemplate());
+    }
+
+    private record Pool(CloseableHttpClient http, ApacheHttp5Client feign) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.campus.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+ * Caller identity for the gateway and every service, each piece switched
+ * on by its own setting:
+ *
+ *   jwt.secret               JwtVerifier
+ *   gateway.identity.secret  IdentityHeaders
+ *   revocation.auth-service  RevocationList, pulled from that service
+ *   jwt.filter.url-patterns  JwtFilter on those paths
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CallerIdentityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("jwt.secret")
+    public JwtVerifier jwtVerifier(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            MeterRegistry registry
+    ) {
+        return new JwtVerifier(secret, cacheMaxEntries, registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("gateway.identity.secret")
+    public IdentityHeaders identityHeaders(@Value("${gateway.identity.secret}") String secret) {
+        return new IdentityHeaders(secret);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(LoadBalancerClient.class)
+    @ConditionalOnProperty("revocation.auth-service")
+    static class Revocation {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RevocationList revocationList(
+                LoadBalancerClient loadBalancer,
+                IdentityHeaders identityHeaders,
+                MeterRegistry registry,
+                @Value("${spring.application.name}") String serviceName,
+                @Value("${revocation.auth-service}") String authService,
+                @Value("${revocation.bloom-positive:VERIFY}") RevocationList.BloomPositive onBloomPositive,
+                @Value("${revocation.max-verified:10000}") int maxVerified,
+                @Value("${revocation.timeout-millis:1000}") long timeoutMillis
+        ) {
+            return new RevocationList(loadBalancer, identityHeaders, registry, serviceName, authService,
+                    onBloomPositive, maxVerified, Duration.ofMillis(timeoutMillis));
+        }
+
+        @Bean
+        @ConditionalOnProperty("jwt.filter.url-patterns")
+        public FilterRegistrationBean<JwtFilter> jwtFilter(
+                JwtVerifier jwtVerifier,
+                IdentityHeaders identityHeaders,
+                RevocationList revocations,
+                @Value("${jwt.filter.url-patterns}") String[] urlPatterns
+        ) {
+            FilterRegistrationBean<JwtFilter> reg =
+                    new FilterRegistrationBean<>(new JwtFilter(jwtVerifier, identityHeaders, revocations));
+            reg.addUrlPatterns(urlPatterns);
+            return reg;
+        }
+    }
+}
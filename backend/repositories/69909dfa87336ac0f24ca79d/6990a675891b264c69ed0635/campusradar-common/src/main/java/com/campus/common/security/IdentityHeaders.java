@@ -0,0 +1,154 @@
+package com.campus.common.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+
+/*
+ * The X-Auth-* headers, all signed with the identity secret shared by
+ * campusradar-gateway and the services:
+ *
+ *   - the caller, added by the gateway after it has verified the JWT, so
+ *     a service checks one HMAC instead of parsing the token again;
+ *   - the caller's address, so auth-service2 can trust it for per-IP
+ *     limits only when it really came through the gateway;
+ *   - the calling service on internal endpoints, valid for a minute.
+ *
+ * The gateway drops every X-Auth-* header a client sends, so only the
+ * gateway and the services can present one.
+ */
+public class IdentityHeaders {
+
+    public static final String EMAIL = "X-Auth-Email";
+    public static final String ROLE = "X-Auth-Role";
+    public static final String EXPIRES = "X-Auth-Expires";
+    public static final String SIGNATURE = "X-Auth-Signature";
+
+    public static final String[] ALL = {EMAIL, ROLE, EXPIRES, SIGNATURE};
+
+    public static final String CLIENT_IP = "X-Auth-Client-Ip";
+    public static final String CLIENT_IP_SIGNATURE = "X-Auth-Client-Ip-Signature";
+
+    public static final String SERVICE = "X-Auth-Service";
+    public static final String SERVICE_EXPIRES = "X-Auth-Service-Expires";
+    public static final String SERVICE_SIGNATURE = "X-Auth-Service-Signature";
+
+    public static final String PREFIX = "x-auth-";
+
+    private static final long SERVICE_TTL_SECONDS = 60;
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    public IdentityHeaders(String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    /* ================================
+       CALLER
+       ================================ */
+    public String sign(String email, String role, long expiresEpochSeconds) {
+        return encode(mac(email + "\n" + role + "\n" + expiresEpochSeconds));
+    }
+
+    /* Returns the caller identity, or null when the headers are missing,
+       expired or not signed by the gateway. */
+    public Identity read(HttpServletRequest request) {
+        String signature = request.getHeader(SIGNATURE);
+        if (signature == null) return null;
+
+        String email = request.getHeader(EMAIL);
+        String role = request.getHeader(ROLE);
+        long exp = unexpired(request.getHeader(EXPIRES));
+        if (email == null || role == null || exp < 0) return null;
+
+        return matches(mac(email + "\n" + role + "\n" + exp), signature)
+                ? new Identity(email, role, exp) : null;
+    }
+
+    /* ================================
+       CLIENT ADDRESS
+       ================================ */
+    public String signClientIp(String ip) {
+        return encode(mac("client-ip\n" + ip));
+    }
+
+    /* The signed address the gateway saw; anything else, X-Forwarded-For
+       included, is ignored in favour of the direct peer. */
+    public String clientIp(HttpServletRequest request) {
+        String ip = request.getHeader(CLIENT_IP);
+        String signature = request.getHeader(CLIENT_IP_SIGNATURE);
+        if (ip == null || signature == null) return request.getRemoteAddr();
+
+        return matches(mac("client-ip\n" + ip), signature) ? ip : request.getRemoteAddr();
+    }
+
+    /* ================================
+       CALLING SERVICE
+       ================================ */
+    public Map<String, String> service(String name) {
+        long exp = System.currentTimeMillis() / 1000 + SERVICE_TTL_SECONDS;
+        return Map.of(
+                SERVICE, name,
+                SERVICE_EXPIRES, Long.toString(exp),
+                SERVICE_SIGNATURE, encode(mac("service\n" + name + "\n" + exp)));
+    }
+
+    /* The service name, or null when the headers are missing, expired or forged. */
+    public String serviceName(HttpServletRequest request) {
+        String name = request.getHeader(SERVICE);
+        String signature = request.getHeader(SERVICE_SIGNATURE);
+        long exp = unexpired(request.getHeader(SERVICE_EXPIRES));
+        if (name == null || signature == null || exp < 0) return null;
+
+        return matches(mac("service\n" + name + "\n" + exp), signature) ? name : null;
+    }
+
+    // epoch seconds, or -1 when missing, malformed or past
+    private static long unexpired(String expires) {
+        if (expires == null) return -1;
+        long exp;
+        try {
+            exp = Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return exp * 1000 <= System.currentTimeMillis() ? -1 : exp;
+    }
+
+    private static boolean matches(byte[] expected, String signature) {
+        try {
+            return MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] mac(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(byte[] signature) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance("HmacSHA256");
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Identity(String email, String role, long expires) {
+    }
+}
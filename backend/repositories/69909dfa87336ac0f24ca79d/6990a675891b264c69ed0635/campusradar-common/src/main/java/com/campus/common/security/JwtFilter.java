@@ -0,0 +1,64 @@
+package com.campus.common.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+
+/*
+ * Sets the "email" and "role" request attributes the controllers check.
+ * Requests that came through the gateway carry signed identity headers;
+ * anything else has to present a bearer token. Both are checked against
+ * the revocation list.
+ */
+public class JwtFilter implements Filter {
+
+    private final JwtVerifier jwtVerifier;
+    private final IdentityHeaders identityHeaders;
+    private final RevocationList revocations;
+
+    public JwtFilter(JwtVerifier jwtVerifier, IdentityHeaders identityHeaders, RevocationList revocations) {
+        this.jwtVerifier = jwtVerifier;
+        this.identityHeaders = identityHeaders;
+        this.revocations = revocations;
+    }
+
+    @Override
+    public void doFilter(
+            ServletRequest req,
+            ServletResponse res,
+            FilterChain chain
+    ) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) req;
+
+        // already verified by the gateway
+        IdentityHeaders.Identity identity = identityHeaders.read(request);
+        if (identity != null) {
+            if (revocations.isRevoked(identity.email(), identity.expires())) {
+                throw new RuntimeException("Token revoked");
+            }
+            request.setAttribute("email", identity.email());
+            request.setAttribute("role", identity.role());
+            chain.doFilter(req, res);
+            return;
+        }
+
+        // direct call: full JWT verification
+        String header = request.getHeader("Authorization");
+
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new RuntimeException("Missing token");
+        }
+
+        Claims claims = jwtVerifier.parse(header.substring(7));
+        if (revocations.isRevoked(claims.getSubject(), claims.getExpiration().getTime() / 1000)) {
+            throw new RuntimeException("Token revoked");
+        }
+        request.setAttribute("email", claims.getSubject());
+        request.setAttribute("role", claims.get("role"));
+
+        chain.doFilter(req, res);
+    }
+}
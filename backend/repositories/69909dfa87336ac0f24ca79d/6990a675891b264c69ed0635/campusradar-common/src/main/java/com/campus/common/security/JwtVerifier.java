@@ -0,0 +1,120 @@
+package com.campus.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * The HMAC key and parser are built once. Tokens that passed full
+ * signature verification are remembered by SHA-256 digest until their
+ * own exp, so a hot token is verified once instead of on every request.
+ * Tokens without an exp are verified every time.
+ */
+public class JwtVerifier {
+
+    private final int cacheMaxEntries;
+    private final Clock clock;
+    private final JwtParser parser;
+
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer verifyTimer;
+
+    public JwtVerifier(String secret, int cacheMaxEntries, MeterRegistry registry) {
+        this(secret, cacheMaxEntries, registry, Clock.systemUTC());
+    }
+
+    JwtVerifier(String secret, int cacheMaxEntries, MeterRegistry registry, Clock clock) {
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+
+        this.hits = registry.counter("jwt.verify.cache", "result", "hit");
+        this.misses = registry.counter("jwt.verify.cache", "result", "miss");
+        this.verifyTimer = Timer.builder("jwt.verify.latency")
+                .description("Full JWT signature verification")
+                .register(registry);
+        Gauge.builder("jwt.verify.cache.size", verified, Map::size).register(registry);
+        Gauge.builder("jwt.verify.cache.hit.ratio", this, JwtVerifier::hitRatio).register(registry);
+    }
+
+    public Claims parse(String token) {
+        String digest = digest(token);
+        long now = clock.millis();
+
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null && now < cached.expiresAt()) {
+            hits.increment();
+            return cached.claims();
+        }
+
+        misses.increment();
+        Claims claims = verifyTimer.record(() ->
+                parser.parseSignedClaims(token).getPayload());
+        remember(digest, claims, now);
+        return claims;
+    }
+
+    int cacheSize() {
+        return verified.size();
+    }
+
+    private void remember(String digest, Claims claims, long now) {
+        Date exp = claims.getExpiration();
+        if (exp == null) return;   // never cache tokens that do not expire
+
+        if (verified.size() >= cacheMaxEntries) {
+            evict(now);
+        }
+        verified.put(digest, new VerifiedToken(claims, exp.getTime()));
+    }
+
+    // drop expired entries first, then arbitrary ones, down to 90% of the bound
+    private void evict(long now) {
+        verified.values().removeIf(v -> v.expiresAt() <= now);
+
+        Iterator<String> it = verified.keySet().iterator();
+        while (verified.size() >= cacheMaxEntries * 9L / 10 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.campus.common.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Local copy of auth-service2's revocation feed: a Bloom filter of older
+ * revocations plus an exact map of recent ones, pulled incrementally.
+ * The gateway checks it before forwarding a token and the services check
+ * it again for callers that reach them directly.
+ *
+ * A token is revoked when its subject has an entry whose cutoff is at or
+ * after the token's exp. Entries can arrive more than once (the feed
+ * repeats its most recent ones); merging keeps the latest cutoff. Checks
+ * never leave the process except to settle a Bloom positive in VERIFY
+ * mode, and that answer is cached until the next Bloom.
+ */
+public class RevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationList.class);
+
+    /* What to do when only the Bloom filter matches. */
+    public enum BloomPositive { VERIFY, REJECT, ALLOW }
+
+    private final LoadBalancerClient loadBalancer;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final IdentityHeaders identityHeaders;
+    private final String serviceName;
+    private final String authService;
+    private final BloomPositive onBloomPositive;
+    private final int maxVerified;
+    private final Duration timeout;
+    private final HttpClient http;
+
+    private volatile State state = State.EMPTY;
+    private final Map<String, Long> verified = new ConcurrentHashMap<>();
+
+    private final Counter rejected;
+    private final Counter bloomPositives;
+
+    public RevocationList(
+            LoadBalancerClient loadBalancer,
+            IdentityHeaders identityHeaders,
+            MeterRegistry registry,
+            String serviceName,
+            String authService,
+            BloomPositive onBloomPositive,
+            int maxVerified,
+            Duration timeout
+    ) {
+        this.loadBalancer = loadBalancer;
+        this.identityHeaders = identityHeaders;
+        this.serviceName = serviceName;
+        this.authService = authService;
+        this.onBloomPositive = onBloomPositive;
+        this.maxVerified = maxVerified;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        this.rejected = registry.counter("revocation.rejected");
+        this.bloomPositives = registry.counter("revocation.bloom.positive");
+        Gauge.builder("revocation.version", this, r -> r.state.version).register(registry);
+        Gauge.builder("revocation.recent.size", this, r -> r.state.recent.size()).register(registry);
+    }
+
+    /* exp is the token's expiry in epoch seconds. */
+    public boolean isRevoked(String email, long exp) {
+        State s = state;
+
+        byte[] digest = digest(email);
+        String key = Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+
+        Long cutoff = s.recent.get(key);
+        if (cutoff != null && exp <= cutoff) return reject();
+        if (!s.mightContain(digest)) return false;
+
+        bloomPositives.increment();
+        return switch (onBloomPositive) {
+            case REJECT -> reject();
+            case ALLOW -> false;
+            case VERIFY -> {
+                Long exact = verified.get(key);
+                if (exact == null) {
+                    Entry e = get("/api/auth/revocations/" + key, Entry.class);
+                    if (e == null) yield reject();      // auth unreachable: fail closed
+                    exact = e.cutoff();
+                    if (verified.size() >= maxVerified) verified.clear();
+                    verified.put(key, exact);
+                }
+                yield exp <= exact ? reject() : false;
+            }
+        };
+    }
+
+    /* ================================
+       INCREMENTAL PULL
+       ================================ */
+    @Scheduled(fixedDelayString = "${revocation.poll-millis:5000}")
+    public void poll() {
+        State s = state;
+        Feed feed = get("/api/auth/revocations?bloomVersion=" + s.bloomVersion + "&since=" + s.version,
+                Feed.class);
+        if (feed == null) return;
+
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Long> recent;
+        long[] words = s.words;
+        int bits = s.bits;
+        int hashes = s.hashes;
+
+        if (feed.bloom() != null) {
+            // new compaction: older entries now live in the Bloom filter
+            ByteBuffer buf = ByteBuffer.wrap(Base64.getDecoder().decode(feed.bloom()));
+            words = new long[buf.remaining() / 8];
+            buf.asLongBuffer().get(words);
+            bits = feed.bloomBits();
+            hashes = feed.bloomHashes();
+            recent = new HashMap<>();
+            verified.clear();
+        } else {
+            recent = new HashMap<>(s.recent);
+            recent.values().removeIf(c -> c < now);
+        }
+        for (Entry e : feed.entries()) {
+            recent.merge(e.key(), e.cutoff(), Math::max);
+        }
+
+        state = new State(feed.bloomVersion(), feed.version(), words, bits, hashes, Map.copyOf(recent));
+    }
+
+    // null when auth-service2 has no instance, fails or answers anything but 200
+    private <T> T get(String path, Class<T> type) {
+        ServiceInstance instance = loadBalancer.choose(authService);
+        if (instance == null) {
+            log.warn("Revocation feed unavailable: no instance of {}", authService);
+            return null;
+        }
+
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(instance.getUri() + path))
+                .timeout(timeout)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .GET();
+        identityHeaders.service(serviceName).forEach(b::header);
+
+        try {
+            HttpResponse<byte[]> r = http.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (r.statusCode() != 200) {
+                log.warn("Revocation feed answered {} for {}", r.statusCode(), path);
+                return null;
+            }
+            return objectMapper.readValue(r.body(), type);
+        } catch (IOException | JacksonException e) {
+            log.warn("Revocation feed unavailable: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private boolean reject() {
+        rejected.increment();
+        return true;
+    }
+
+    private static byte[] digest(String email) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(
+                    email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record State(long bloomVersion, long version, long[] words, int bits, int hashes,
+                         Map<String, Long> recent) {
+
+        static final State EMPTY = new State(-1, 0, new long[0], 0, 0, Map.of());
+
+        // same double hashing as auth-service2's RevocationService
+        boolean mightContain(byte[] digest) {
+            if (bits == 0) return false;
+            ByteBuffer d = ByteBuffer.wrap(digest);
+            long h1 = d.getLong(0);
+            long h2 = d.getLong(8) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+                if ((words[bit >>> 6] & (1L << (bit & 63))) == 0) return false;
+            }
+            return true;
+        }
+    }
+
+    private record Entry(long version, String key, long cutoff) {
+    }
+
+    private record Feed(long version, long bloomVersion, String bloom, int bloomBits,
+                        int bloomHashes, List<Entry> entries) {
+    }
+}
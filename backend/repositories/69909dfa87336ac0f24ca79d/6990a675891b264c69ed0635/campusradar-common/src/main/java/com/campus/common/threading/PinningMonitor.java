@@ -0,0 +1,108 @@
+package com.campus.common.threading;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+ * Finds the code that would pin virtual threads to their carriers, from
+ * an in-process JFR stream:
+ *
+ *   jdk.VirtualThreadPinned  a virtual thread blocked while pinned, e.g.
+ *                            waiting on IO inside synchronized (Java 21+)
+ *   jdk.JavaMonitorEnter     any thread queued on a contended monitor;
+ *                            on platform threads this shows the same
+ *                            synchronized hotspots before switching over
+ *
+ * Events over threshold-millis are timed as jvm.threads.pinned with
+ * event=<name> and frame=<first com.campus frame, else the top frame>,
+ * and the first occurrence of each frame is logged with its stack.
+ * Registered by ThreadingAutoConfiguration when threads.pinning.enabled
+ * is set; an event the running JVM does not know is skipped.
+ */
+public class PinningMonitor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningMonitor.class);
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+
+    private static final String APP_PACKAGE = "com.campus.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry registry;
+    private final RecordingStream stream = new RecordingStream();
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public PinningMonitor(MeterRegistry registry, long thresholdMillis) {
+        this.registry = registry;
+
+        for (String event : List.of(PINNED, MONITOR_ENTER)) {
+            stream.enable(event)
+                    .withThreshold(Duration.ofMillis(thresholdMillis))
+                    .withStackTrace();
+            stream.onEvent(event, this::record);
+        }
+        // events are only consumed here, never dumped
+        stream.setMaxAge(Duration.ofSeconds(10));
+        stream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        stream.close();
+    }
+
+    private void record(RecordedEvent e) {
+        String event = e.getEventType().getName();
+        List<RecordedFrame> frames = e.getStackTrace() == null
+                ? List.of() : e.getStackTrace().getFrames();
+        String frame = frameOf(frames);
+
+        Timer.builder("jvm.threads.pinned")
+                .tag("event", event)
+                .tag("frame", frame)
+                .register(registry)
+                .record(e.getDuration());
+
+        if (reported.add(event + " " + frame)) {
+            String monitor = e.hasField("monitorClass") && e.getClass("monitorClass") != null
+                    ? " on " + e.getClass("monitorClass").getName() : "";
+            log.warn("{} for {} ms{} at {}\n{}", event, e.getDuration().toMillis(), monitor, frame,
+                    stackOf(e.getStackTrace()));
+        }
+    }
+
+    private static String frameOf(List<RecordedFrame> frames) {
+        for (RecordedFrame f : frames) {
+            if (f.isJavaFrame() && f.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return name(f);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : name(frames.get(0));
+    }
+
+    private static String stackOf(RecordedStackTrace trace) {
+        if (trace == null) return "\t(no stack)";
+        return trace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(f -> "\tat " + name(f) + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String name(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName();
+    }
+}
@@ -0,0 +1,91 @@
+package com.campus.common.threading;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+ * Thread model switch for every servlet service that has this module on
+ * its classpath. spring.threads.virtual.enabled=true runs Tomcat request
+ * handling, the application task executor (@Async and anything submitted
+ * to it) and @Scheduled work on virtual threads. It needs a Java 21
+ * runtime. On 17 Spring Boot would quietly keep platform threads, so
+ * startup fails instead of running a mode nobody asked for.
+ *
+ * RequestContextHolder is a thread local; the Feign interceptors forward
+ * the caller's headers from it. It follows a request on its own thread,
+ * platform or virtual, but not onto an executor, so tasks handed to the
+ * application executor take the submitting request's attributes with
+ * them. They are only readable while that request is in progress, so
+ * such tasks must be joined before it returns.
+ *
+ * threads.pinning.enabled adds PinningMonitor.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ThreadingAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingAutoConfiguration.class);
+
+    private final boolean virtualThreads;
+
+    public ThreadingAutoConfiguration(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        checkThreadModel(virtualThreads, Runtime.version().feature());
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TaskDecorator requestContextTaskDecorator() {
+        return task -> {
+            RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+            if (attrs == null) return task;
+
+            return () -> {
+                RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(attrs);
+                try {
+                    task.run();
+                } finally {
+                    if (previous == null) {
+                        RequestContextHolder.resetRequestAttributes();
+                    } else {
+                        RequestContextHolder.setRequestAttributes(previous);
+                    }
+                }
+            };
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "threads.pinning.enabled", havingValue = "true")
+    public PinningMonitor pinningMonitor(
+            MeterRegistry registry,
+            @Value("${threads.pinning.threshold-millis:20}") long thresholdMillis
+    ) {
+        return new PinningMonitor(registry, thresholdMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadModel() {
+        log.info("Request threads: {}", virtualThreads ? "virtual" : "platform");
+    }
+
+    static void checkThreadModel(boolean virtualThreads, int java) {
+        if (virtualThreads && java < 21) {
+            throw new IllegalStateException(
+                    "spring.threads.virtual.enabled=true needs Java 21, running on " + java);
+        }
+    }
+}
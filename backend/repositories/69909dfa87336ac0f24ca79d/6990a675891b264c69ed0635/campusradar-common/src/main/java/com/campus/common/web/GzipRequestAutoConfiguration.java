@@ -0,0 +1,33 @@
+package com.campus.common.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+/*
+ * Registers GzipRequestFilter in every servlet service that has this
+ * module on its classpath, ahead of anything that reads the body.
+ * compression.request.enabled=false keeps bodies as sent, for a proxy.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "compression.request.enabled", matchIfMissing = true)
+public class GzipRequestAutoConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<GzipRequestFilter> gzipRequestFilter(
+            @Value("${compression.request.max-inflated-size:64MB}") String maxInflated
+    ) {
+        long maxInflatedBytes = DataSize.parse(maxInflated).toBytes();
+        FilterRegistrationBean<GzipRequestFilter> reg =
+                new FilterRegistrationBean<>(new GzipRequestFilter(maxInflatedBytes));
+        reg.addUrlPatterns("/api/*");
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return reg;
+    }
+}
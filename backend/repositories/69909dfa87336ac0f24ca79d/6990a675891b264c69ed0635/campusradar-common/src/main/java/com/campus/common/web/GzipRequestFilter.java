@@ -0,0 +1,162 @@
+package com.campus.common.web;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Inflates request bodies sent with Content-Encoding: gzip, which the
+ * Feign clients of the other services use for large JSON payloads.
+ * The inflated size is capped so a small body cannot expand unbounded.
+ *
+ * Inflation reads the wire body as it goes and may need several network
+ * reads for one inflated byte, so the body can only be read blocking;
+ * asking for a ReadListener fails with IllegalStateException.
+ */
+public class GzipRequestFilter implements Filter {
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    public void doFilter(
+            ServletRequest req,
+            ServletResponse res,
+            FilterChain chain
+    ) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+
+        if (encoding == null || !"gzip".equalsIgnoreCase(encoding.trim())) {
+            chain.doFilter(req, res);
+            return;
+        }
+        chain.doFilter(new InflatedRequest(request, maxInflatedBytes), res);
+    }
+
+    private static final class InflatedRequest extends HttpServletRequestWrapper {
+
+        private final long max;
+        private ServletInputStream stream;
+
+        InflatedRequest(HttpServletRequest request, long max) {
+            super(request);
+            this.max = max;
+        }
+
+        // the body no longer matches the wire headers
+        private static boolean hidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(InflatedRequest::hidden);
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new InflatingInputStream(new GZIPInputStream(super.getInputStream(), 8192), max);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String enc = getCharacterEncoding();
+            Charset charset = enc == null ? StandardCharsets.UTF_8 : Charset.forName(enc);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private static final class InflatingInputStream extends ServletInputStream {
+
+        private final GZIPInputStream in;
+        private final long max;
+        private long count;
+        private boolean finished;
+
+        InflatingInputStream(GZIPInputStream in, long max) {
+            this.in = in;
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) finished = true;
+            else counted(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n < 0) finished = true;
+            else counted(n);
+            return n;
+        }
+
+        private void counted(int n) throws IOException {
+            count += n;
+            if (count > max) {
+                throw new IOException("Inflated request body exceeds " + max + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        // the Servlet contract's answer to a listener it cannot honour
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new IllegalStateException("Gzip request bodies can only be read blocking");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.campus.common.bench;
+
+import com.campus.common.feign.FeignTransportAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Platform against virtual request threads under many concurrent users.
+ * A closed loop: every user sends its next request as soon as the last
+ * one answered, for a warm-up and then a measured window, and the run
+ * reports throughput and latency percentiles for the measured part.
+ *
+ * With platform or virtual, it starts an embedded service with this
+ * module's ThreadingAutoConfiguration and spring.threads.virtual.enabled
+ * set to match, whose handler blocks for BLOCK_MILLIS the way a MySQL
+ * query or a Feign call would. Virtual needs a Java 21 runtime; on 17
+ * startup is refused. With a URL, it drives a service that is already
+ * running, started with the flag either way, e.g. a drive-service GET.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.campus.common.bench.ThreadModelBenchmark platform|virtual|<url> [users] [seconds]
+ *
+ * Run client and service on separate machines where possible; sharing
+ * one box measures the CPU they fight over as much as the thread model.
+ */
+public final class ThreadModelBenchmark {
+
+    private static final long BLOCK_MILLIS = 50;
+
+    private ThreadModelBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: ThreadModelBenchmark platform|virtual|<url> [users] [seconds]");
+            System.exit(2);
+        }
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int warmup = Math.max(5, seconds / 2);
+
+        ConfigurableApplicationContext service = null;
+        URI target;
+        if (args[0].startsWith("http")) {
+            target = URI.create(args[0]);
+        } else {
+            service = start(args[0].equals("virtual"));
+            int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+            target = URI.create("http://127.0.0.1:" + port + "/api/bench/block");
+        }
+
+        System.out.printf("Java %d, %s, %d users, %ds warm-up then %ds measured%n",
+                Runtime.version().feature(), args[0], users, warmup, seconds);
+        try {
+            Result r = run(target, users, warmup, seconds);
+            System.out.printf("%n %,d requests, %,d failed, %.0f rps%n", r.latencies.length, r.failed,
+                    r.latencies.length / (double) seconds);
+            System.out.printf(" latency ms  p50 %,d  p90 %,d  p99 %,d  max %,d%n",
+                    r.percentile(50), r.percentile(90), r.percentile(99), r.percentile(100));
+        } finally {
+            if (service != null) service.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        SpringApplication app = new SpringApplication(BlockingService.class);
+        app.setDefaultProperties(Map.of(
+                "server.port", "0",
+                "spring.threads.virtual.enabled", Boolean.toString(virtual),
+                "spring.main.banner-mode", "off",
+                "logging.level.root", "warn",
+                "logging.level.com.campus", "info"));
+        return app.run();
+    }
+
+    private static Result run(URI target, int users, int warmupSeconds, int seconds) throws InterruptedException {
+        ExecutorService clientThreads = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureTo = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger active = new AtomicInteger(users);
+
+        for (int i = 0; i < users; i++) {
+            new User(client, request, measureFrom, measureTo, latencies, failed, active).next();
+        }
+        while (active.get() > 0 && System.nanoTime() < measureTo + TimeUnit.SECONDS.toNanos(70)) {
+            Thread.sleep(200);
+        }
+        clientThreads.shutdownNow();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted, failed.get());
+    }
+
+    // one user: a request, then the next once it answered, until the window closes
+    private record User(HttpClient client, HttpRequest request, long measureFrom, long measureTo,
+                        Queue<Long> latencies, AtomicLong failed, AtomicInteger active) {
+
+        void next() {
+            long start = System.nanoTime();
+            if (start >= measureTo) {
+                active.decrementAndGet();
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long end = System.nanoTime();
+                if (start >= measureFrom && end <= measureTo) {
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                    } else {
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(end - start));
+                    }
+                }
+                next();
+            });
+        }
+    }
+
+    private record Result(long[] latencies, long failed) {
+
+        long percentile(int p) {
+            if (latencies.length == 0) return 0;
+            int i = (int) Math.ceil(p / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(i, latencies.length - 1))];
+        }
+    }
+
+    // the embedded service: blocks each request the way a downstream wait would
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = FeignTransportAutoConfiguration.class)
+    @Import(BlockingService.BlockingController.class)
+    static class BlockingService {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @RestController
+        static class BlockingController {
+
+            @GetMapping("/api/bench/block")
+            String block() throws InterruptedException {
+                Thread.sleep(BLOCK_MILLIS);
+                return "ok";
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.campus.common.feign;
+
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownstreamGuardTest {
+
+    private static final String SERVICE = "selection-service2";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger executed = new AtomicInteger();
+
+    // 2 permits here, 4 elsewhere; opens at 50% of the last 4 calls for 200ms, then 2 trials
+    private final DownstreamGuard guard = new DownstreamGuard(new MockEnvironment()
+            .withProperty("feign.guard.max-concurrent-calls", "4")
+            .withProperty("feign.guard.max-wait-millis", "10")
+            .withProperty("feign.guard.window-size", "4")
+            .withProperty("feign.guard.minimum-calls", "4")
+            .withProperty("feign.guard.failure-rate-percent", "50")
+            .withProperty("feign.guard.open-millis", "200")
+            .withProperty("feign.guard.half-open-calls", "2")
+            .withProperty("feign.guard.slow-call-millis", "50")
+            .withProperty("feign.guard." + SERVICE + ".max-concurrent-calls", "2"),
+            registry);
+
+    /* ================================
+       BULKHEAD
+       ================================ */
+    @Test
+    void holdsAPermitUntilTheBodyIsClosed() throws IOException {
+        Response first = guard.call(SERVICE, () -> response(200, "a"));
+        Response second = guard.call(SERVICE, () -> response(200, "b"));
+        assertThat(inflight()).isEqualTo(2);
+
+        assertThatThrownBy(() -> guard.call(SERVICE, () -> response(200, "c")))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("bulkhead full");
+        assertThat(executed).hasValue(2);
+        assertThat(rejected("bulkhead")).isEqualTo(1);
+
+        first.close();
+        first.close();      // a second close must not hand out an extra permit
+        assertThat(inflight()).isEqualTo(1);
+        guard.call(SERVICE, () -> response(200, "c")).close();
+        second.close();
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void releasesThePermitOnFailureOrWithoutABody() {
+        assertThatThrownBy(() -> guard.call(SERVICE, () -> {
+            throw new IOException("connection reset");
+        })).isInstanceOf(IOException.class);
+        assertThat(inflight()).isZero();
+
+        try {
+            guard.call(SERVICE, () -> response(204, null));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void servicesHaveSeparateBulkheadsAndSettings() throws IOException {
+        guard.call(SERVICE, () -> response(200, "a"));
+        guard.call(SERVICE, () -> response(200, "b"));
+
+        for (int i = 0; i < 4; i++) guard.call("profile-service2", () -> response(200, "c"));
+        assertThatThrownBy(() -> guard.call("profile-service2", () -> response(200, "d")))
+                .isInstanceOf(DownstreamUnavailableException.class);
+    }
+
+    /* ================================
+       BREAKER
+       ================================ */
+    @Test
+    void opensAtTheFailureRateAndRejectsWithoutCalling() throws IOException {
+        ok();
+        ok();
+        status(503);
+        assertThat(state()).isZero();
+        status(500);
+
+        assertThat(state()).isEqualTo(2);
+        assertThatThrownBy(this::ok)
+                .isInstanceOfSatisfying(DownstreamUnavailableException.class, e -> {
+                    assertThat(e.getMessage()).contains("circuit open");
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(1);
+                });
+        assertThat(executed).hasValue(4);
+        assertThat(rejected("breaker")).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallsCountAgainstTheBreaker() throws IOException {
+        ok();
+        ok();
+        guard.call(SERVICE, () -> {
+            sleep(80);
+            return response(200, null);
+        });
+        assertThat(state()).isZero();
+        guard.call(SERVICE, () -> {
+            sleep(80);
+            return response(200, null);
+        });
+
+        assertThat(state()).isEqualTo(2);
+        assertThat(registry.counter("feign.downstream.calls", "client", SERVICE, "outcome", "slow").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void closesAfterSuccessfulTrials() throws IOException {
+        trip();
+        sleep(250);
+
+        ok();
+        assertThat(state()).isEqualTo(1);
+        ok();
+
+        assertThat(state()).isZero();
+        // the window starts over: one failure is no longer enough
+        status(503);
+        ok();
+        ok();
+        assertThat(state()).isZero();
+    }
+
+    @Test
+    void admitsOnlyTheTrialCallsWhileHalfOpen() throws Exception {
+        trip();
+        sleep(250);
+
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> trials = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    guard.call(SERVICE, () -> {
+                        started.countDown();
+                        await(release);
+                        return response(200, null);
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            t.start();
+            trials.add(t);
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(this::ok).isInstanceOf(DownstreamUnavailableException.class);
+
+        release.countDown();
+        for (Thread t : trials) t.join(5000);
+        assertThat(state()).isZero();
+        assertThat(executed).hasValue(6);
+    }
+
+    @Test
+    void reopensWhenATrialFails() throws IOException {
+        trip();
+        sleep(250);
+
+        status(503);
+
+        assertThat(state()).isEqualTo(2);
+        assertThatThrownBy(this::ok).isInstanceOf(DownstreamUnavailableException.class);
+    }
+
+    private void trip() throws IOException {
+        for (int i = 0; i < 4; i++) status(503);
+        assertThat(state()).isEqualTo(2);
+    }
+
+    private void ok() throws IOException {
+        status(200);
+    }
+
+    private void status(int status) throws IOException {
+        guard.call(SERVICE, () -> response(status, null));
+    }
+
+    private Response response(int status, String body) {
+        executed.incrementAndGet();
+        Request request = Request.create(Request.HttpMethod.GET, "http://" + SERVICE + "/api/x",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        Response.Builder b = Response.builder().status(status).reason("").request(request).headers(Map.of());
+        if (body != null) b.body(body, StandardCharsets.UTF_8);
+        return b.build();
+    }
+
+    private double state() {
+        return registry.get("feign.downstream.breaker.state").tag("client", SERVICE).gauge().value();
+    }
+
+    private double inflight() {
+        return registry.get("feign.downstream.inflight").tag("client", SERVICE).gauge().value();
+    }
+
+    private double rejected(String reason) {
+        return registry.counter("feign.downstream.rejected", "client", SERVICE, "reason", reason).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
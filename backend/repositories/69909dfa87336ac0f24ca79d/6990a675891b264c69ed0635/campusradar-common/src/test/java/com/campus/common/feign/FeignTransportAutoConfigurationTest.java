@@ -0,0 +1,50 @@
+package com.campus.common.feign;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FeignTransportAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FeignTransportAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(LoadBalancerClient.class, () -> mock(LoadBalancerClient.class))
+            .withBean(LoadBalancerClientFactory.class, () -> mock(LoadBalancerClientFactory.class));
+
+    @Test
+    void putsThePooledTransportUnderTheLoadBalancedClient() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(DownstreamGuard.class).hasSingleBean(PooledFeignClient.class);
+            assertThat(context.getBean(Client.class)).isInstanceOf(FeignBlockingLoadBalancerClient.class);
+            assertThat(((FeignBlockingLoadBalancerClient) context.getBean(Client.class)).getDelegate())
+                    .isSameAs(context.getBean(PooledFeignClient.class));
+        });
+    }
+
+    @Test
+    void keepsOnlyTheGuardWithoutFeignHc5() {
+        runner.withClassLoader(new FilteredClassLoader(ApacheHttp5Client.class))
+                .run(context -> {
+                    assertThat(context).hasSingleBean(DownstreamGuard.class);
+                    assertThat(context).doesNotHaveBean(PooledFeignClient.class);
+                });
+    }
+
+    @Test
+    void backsOffWithoutFeign() {
+        runner.withClassLoader(new FilteredClassLoader(Client.class))
+                .run(context -> assertThat(context).doesNotHaveBean(DownstreamGuard.class));
+    }
+}
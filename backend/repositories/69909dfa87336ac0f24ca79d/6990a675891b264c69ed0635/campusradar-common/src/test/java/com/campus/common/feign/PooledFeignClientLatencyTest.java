@@ -0,0 +1,188 @@
+package com.campus.common.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/* DownstreamGuard over the real pooled transport, against a service whose latency the test sets. */
+class PooledFeignClientLatencyTest {
+
+    // calls without a Feign target share the "default" pool and guard
+    private static final String SERVICE = "default";
+
+    private final ExecutorService stubThreads = Executors.newCachedThreadPool();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // 2 permits; opens at 50% of the last 4 calls for 300ms, then 1 trial; slow above 100ms
+    private final MockEnvironment env = new MockEnvironment()
+            .withProperty("feign.guard.max-concurrent-calls", "2")
+            .withProperty("feign.guard.max-wait-millis", "20")
+            .withProperty("feign.guard.window-size", "4")
+            .withProperty("feign.guard.minimum-calls", "4")
+            .withProperty("feign.guard.failure-rate-percent", "50")
+            .withProperty("feign.guard.open-millis", "300")
+            .withProperty("feign.guard.half-open-calls", "1")
+            .withProperty("feign.guard.slow-call-millis", "100");
+
+    private final PooledFeignClient client = new PooledFeignClient(env, registry, new DownstreamGuard(env, registry));
+
+    private HttpServer server;
+
+    private final AtomicLong delayMillis = new AtomicLong();
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile CountDownLatch arrived = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(stubThreads);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            arrived.countDown();
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // the caller timed out and hung up
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        callers.shutdownNow();
+        client.destroy();
+        server.stop(0);
+        stubThreads.shutdownNow();
+    }
+
+    @Test
+    void slowAnswersOpenTheBreakerAndLaterCallsNeverReachTheService() throws Exception {
+        delayMillis.set(150);
+        for (int i = 0; i < 4; i++) {
+            try (Response r = get(2000)) {
+                assertThat(r.status()).isEqualTo(200);
+            }
+        }
+        assertThat(calls("slow")).isEqualTo(4);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> get(2000))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("circuit open");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+        assertThat(hits).hasValue(4);
+
+        // the service recovers; after open-millis one fast trial closes the breaker
+        delayMillis.set(0);
+        Thread.sleep(350);
+        try (Response r = get(2000)) {
+            assertThat(r.status()).isEqualTo(200);
+        }
+        assertThat(state()).isZero();
+        assertThat(hits).hasValue(5);
+    }
+
+    @Test
+    void aReadTimeoutCountsAsAFailure() {
+        delayMillis.set(500);
+
+        assertThatThrownBy(() -> get(200)).isInstanceOf(SocketTimeoutException.class);
+
+        assertThat(calls("failure")).isEqualTo(1);
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void slowCallsInFlightFillTheBulkheadAndTheNextIsTurnedAwayAtOnce() throws Exception {
+        delayMillis.set(400);
+        arrived = new CountDownLatch(2);
+        List<Future<Integer>> slow = List.of(callers.submit(this::status), callers.submit(this::status));
+        assertThat(arrived.await(2, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> get(2000))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("bulkhead full");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200);
+        assertThat(hits).hasValue(2);
+        assertThat(registry.counter("feign.downstream.rejected", "client", SERVICE, "reason", "bulkhead").count())
+                .isEqualTo(1);
+
+        for (Future<Integer> f : slow) assertThat(f.get(2, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void anOpenBodyKeepsItsPermitUntilClosed() throws Exception {
+        Response first = get(2000);
+        Response second = get(2000);
+
+        assertThatThrownBy(() -> get(2000)).isInstanceOf(DownstreamUnavailableException.class);
+
+        first.close();
+        try (Response third = get(2000)) {
+            assertThat(third.status()).isEqualTo(200);
+        }
+        second.close();
+        assertThat(inflight()).isZero();
+    }
+
+    private Response get(int readTimeoutMillis) throws IOException {
+        Request request = Request.create(Request.HttpMethod.GET,
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/drive/7",
+                Map.of(), null, null, null);
+        return client.execute(request, new Request.Options(
+                1, TimeUnit.SECONDS, readTimeoutMillis, TimeUnit.MILLISECONDS, true));
+    }
+
+    private int status() throws IOException {
+        try (Response r = get(2000)) {
+            return r.status();
+        }
+    }
+
+    private double calls(String outcome) {
+        return registry.counter("feign.downstream.calls", "client", SERVICE, "outcome", outcome).count();
+    }
+
+    private double state() {
+        return registry.get("feign.downstream.breaker.state").tag("client", SERVICE).gauge().value();
+    }
+
+    private double inflight() {
+        return registry.get("feign.downstream.inflight").tag("client", SERVICE).gauge().value();
+    }
+}
@@ -0,0 +1,138 @@
+package com.campus.common.feign;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledFeignClientTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    // a Smile header and values that are not valid UTF-8
+    private static final byte[] SMILE_BODY = {
+            ':', ')', '\n', 0x03, (byte) 0xFA, (byte) 0x80, (byte) 0xC3, 0x00, (byte) 0xFF, (byte) 0xFE, (byte) 0xFB};
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockEnvironment env = new MockEnvironment();
+    private final PooledFeignClient client = new PooledFeignClient(env, registry, new DownstreamGuard(env, registry));
+
+    private HttpServer server;
+
+    // what the stub received last
+    private volatile Headers receivedHeaders;
+    private volatile byte[] receivedBody;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            receivedHeaders = exchange.getRequestHeaders();
+            receivedBody = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void sendsABinaryBodyByteForByteEvenWithACharset() throws IOException {
+        Request request = Request.create(Request.HttpMethod.POST, url("/api/selection/invite"),
+                Map.of("Content-Type", List.of(SMILE)), SMILE_BODY, StandardCharsets.UTF_8, null);
+
+        try (Response response = client.execute(request, options())) {
+            assertThat(response.status()).isEqualTo(204);
+        }
+
+        assertThat(receivedBody).isEqualTo(SMILE_BODY);
+        assertThat(receivedHeaders.getFirst("Content-Type")).isEqualTo(SMILE);
+        assertThat(receivedHeaders.getFirst("Content-Length")).isEqualTo(Integer.toString(SMILE_BODY.length));
+        assertThat(receivedHeaders.get("Content-Encoding")).isNull();
+    }
+
+    @Test
+    void gzipsABodyMarkedGzipDeflateAndSendsOnlyGzip() throws IOException {
+        byte[] json = "{\"driveId\":7,\"studentEmails\":[\"a@college.com\",\"b@college.com\"]}"
+                .getBytes(StandardCharsets.UTF_8);
+        // what FeignContentGzipEncodingInterceptor sets
+        Map<String, Collection<String>> headers = Map.of(
+                "Content-Type", List.of("application/json"),
+                "Content-Encoding", List.of("gzip", "deflate"));
+        Request request = Request.create(Request.HttpMethod.POST, url("/api/selection/invite"),
+                headers, json, StandardCharsets.UTF_8, null);
+
+        try (Response response = client.execute(request, options())) {
+            assertThat(response.status()).isEqualTo(204);
+        }
+
+        assertThat(receivedHeaders.get("Content-Encoding")).containsExactly("gzip");
+        assertThat(receivedHeaders.getFirst("Content-Type")).isEqualTo("application/json");
+        assertThat(receivedBody).isNotEqualTo(json);
+        assertThat(gunzip(receivedBody)).isEqualTo(json);
+    }
+
+    @Test
+    void gzipsASmileBodyWithoutTouchingItsBytes() throws IOException {
+        Request request = Request.create(Request.HttpMethod.POST, url("/api/selection/invite"),
+                Map.of("Content-Type", List.of(SMILE), "Content-Encoding", List.of("gzip", "deflate")),
+                SMILE_BODY, StandardCharsets.UTF_8, null);
+
+        try (Response response = client.execute(request, options())) {
+            assertThat(response.status()).isEqualTo(204);
+        }
+
+        assertThat(receivedHeaders.get("Content-Encoding")).containsExactly("gzip");
+        assertThat(gunzip(receivedBody)).isEqualTo(SMILE_BODY);
+    }
+
+    @Test
+    void leavesABodilessRequestAlone() throws IOException {
+        Request request = Request.create(Request.HttpMethod.GET, url("/api/profile/eligible/stream"),
+                Map.of("Accept", List.of("application/x-ndjson")), null, null, null);
+
+        try (Response response = client.execute(request, options())) {
+            assertThat(response.status()).isEqualTo(204);
+        }
+
+        assertThat(receivedBody).isEmpty();
+        assertThat(receivedHeaders.getFirst("Accept")).isEqualTo("application/x-ndjson");
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static Request.Options options() {
+        return new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+    }
+
+    private static byte[] gunzip(byte[] gz) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.campus.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CallerIdentityAutoConfigurationTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(CallerIdentityAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(LoadBalancerClient.class, () -> mock(LoadBalancerClient.class))
+            .withPropertyValues("spring.application.name=test-service");
+
+    @Test
+    void servicesGetTheWholeChain() {
+        runner.withPropertyValues(
+                        "jwt.secret=test_jwt_secret_test_jwt_secret_0123456789",
+                        "gateway.identity.secret=test_gateway_identity_secret",
+                        "revocation.auth-service=auth-service2",
+                        "jwt.filter.url-patterns=/api/*")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(JwtVerifier.class)
+                            .hasSingleBean(IdentityHeaders.class)
+                            .hasSingleBean(RevocationList.class);
+                    FilterRegistrationBean<?> reg = context.getBean(FilterRegistrationBean.class);
+                    assertThat(reg.getFilter()).isInstanceOf(JwtFilter.class);
+                    assertThat(reg.getUrlPatterns()).containsExactly("/api/*");
+                });
+    }
+
+    @Test
+    void theGatewayKeepsItsOwnFilter() {
+        runner.withPropertyValues(
+                        "jwt.secret=test_jwt_secret_test_jwt_secret_0123456789",
+                        "gateway.identity.secret=test_gateway_identity_secret",
+                        "revocation.auth-service=auth-service2")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(RevocationList.class);
+                    assertThat(context).doesNotHaveBean(FilterRegistrationBean.class);
+                });
+    }
+
+    @Test
+    void authServiceHasNoRevocationClient() {
+        runner.withPropertyValues(
+                        "jwt.secret=test_jwt_secret_test_jwt_secret_0123456789",
+                        "gateway.identity.secret=test_gateway_identity_secret")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(JwtVerifier.class).hasSingleBean(IdentityHeaders.class);
+                    assertThat(context).doesNotHaveBean(RevocationList.class);
+                });
+    }
+
+    @Test
+    void nothingWithoutSecrets() {
+        runner.run(context -> assertThat(context)
+                .doesNotHaveBean(JwtVerifier.class)
+                .doesNotHaveBean(IdentityHeaders.class));
+    }
+}
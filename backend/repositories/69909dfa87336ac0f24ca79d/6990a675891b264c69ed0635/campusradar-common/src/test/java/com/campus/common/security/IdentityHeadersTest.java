@@ -0,0 +1,125 @@
+package com.campus.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityHeadersTest {
+
+    private static final String SECRET = "test_gateway_identity_secret";
+
+    private final IdentityHeaders identityHeaders = new IdentityHeaders(SECRET);
+
+    /* ================================
+       CALLER
+       ================================ */
+    @Test
+    void readsTheCallerTheGatewaySigned() {
+        long exp = System.currentTimeMillis() / 1000 + 60;
+        MockHttpServletRequest request = caller("student@college.com", "STUDENT", exp,
+                identityHeaders.sign("student@college.com", "STUDENT", exp));
+
+        assertThat(identityHeaders.read(request))
+                .isEqualTo(new IdentityHeaders.Identity("student@college.com", "STUDENT", exp));
+    }
+
+    @Test
+    void rejectsForgedEscalatedAndExpiredCallers() {
+        long exp = System.currentTimeMillis() / 1000 + 60;
+        String signature = identityHeaders.sign("student@college.com", "STUDENT", exp);
+        IdentityHeaders other = new IdentityHeaders("some_other_secret");
+
+        assertThat(identityHeaders.read(new MockHttpServletRequest())).isNull();
+        assertThat(identityHeaders.read(caller("student@college.com", "TPO", exp, signature))).isNull();
+        assertThat(identityHeaders.read(caller("student@college.com", "STUDENT", exp,
+                other.sign("student@college.com", "STUDENT", exp)))).isNull();
+        assertThat(identityHeaders.read(caller("student@college.com", "STUDENT", exp - 120,
+                identityHeaders.sign("student@college.com", "STUDENT", exp - 120)))).isNull();
+        assertThat(identityHeaders.read(caller("student@college.com", "STUDENT", exp, "not base64!"))).isNull();
+    }
+
+    /* ================================
+       CLIENT ADDRESS
+       ================================ */
+    @Test
+    void usesSignedGatewayAddress() {
+        MockHttpServletRequest request = fromGateway();
+        request.addHeader(IdentityHeaders.CLIENT_IP, "203.0.113.7");
+        request.addHeader(IdentityHeaders.CLIENT_IP_SIGNATURE, identityHeaders.signClientIp("203.0.113.7"));
+
+        assertThat(identityHeaders.clientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void ignoresForwardedForUnsignedAndForgedAddresses() {
+        MockHttpServletRequest forwarded = fromGateway();
+        forwarded.addHeader("X-Forwarded-For", "198.51.100.1, 198.51.100.2");
+
+        MockHttpServletRequest unsigned = fromGateway();
+        unsigned.addHeader(IdentityHeaders.CLIENT_IP, "203.0.113.7");
+
+        MockHttpServletRequest forged = fromGateway();
+        forged.addHeader(IdentityHeaders.CLIENT_IP, "203.0.113.8");
+        forged.addHeader(IdentityHeaders.CLIENT_IP_SIGNATURE, identityHeaders.signClientIp("203.0.113.7"));
+
+        MockHttpServletRequest garbage = fromGateway();
+        garbage.addHeader(IdentityHeaders.CLIENT_IP, "203.0.113.7");
+        garbage.addHeader(IdentityHeaders.CLIENT_IP_SIGNATURE, "not base64!");
+
+        assertThat(identityHeaders.clientIp(forwarded)).isEqualTo("10.0.0.5");
+        assertThat(identityHeaders.clientIp(unsigned)).isEqualTo("10.0.0.5");
+        assertThat(identityHeaders.clientIp(forged)).isEqualTo("10.0.0.5");
+        assertThat(identityHeaders.clientIp(garbage)).isEqualTo("10.0.0.5");
+    }
+
+    /* ================================
+       CALLING SERVICE
+       ================================ */
+    @Test
+    void acceptsItsOwnServiceHeaders() {
+        assertThat(identityHeaders.serviceName(service(identityHeaders.service("drive-service"))))
+                .isEqualTo("drive-service");
+    }
+
+    @Test
+    void rejectsMissingForgedRenamedAndExpiredServiceHeaders() {
+        IdentityHeaders other = new IdentityHeaders("some_other_secret");
+
+        assertThat(identityHeaders.serviceName(new MockHttpServletRequest())).isNull();
+        assertThat(identityHeaders.serviceName(service(other.service("drive-service")))).isNull();
+
+        MockHttpServletRequest renamed = service(identityHeaders.service("drive-service"));
+        renamed.removeHeader(IdentityHeaders.SERVICE);
+        renamed.addHeader(IdentityHeaders.SERVICE, "selection-service2");
+        assertThat(identityHeaders.serviceName(renamed)).isNull();
+
+        MockHttpServletRequest expired = service(identityHeaders.service("drive-service"));
+        expired.removeHeader(IdentityHeaders.SERVICE_EXPIRES);
+        expired.addHeader(IdentityHeaders.SERVICE_EXPIRES, Long.toString(System.currentTimeMillis() / 1000 - 60));
+        assertThat(identityHeaders.serviceName(expired)).isNull();
+    }
+
+    private static MockHttpServletRequest caller(String email, String role, long exp, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/profile/student/me");
+        request.addHeader(IdentityHeaders.EMAIL, email);
+        request.addHeader(IdentityHeaders.ROLE, role);
+        request.addHeader(IdentityHeaders.EXPIRES, Long.toString(exp));
+        request.addHeader(IdentityHeaders.SIGNATURE, signature);
+        return request;
+    }
+
+    private static MockHttpServletRequest fromGateway() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.0.0.5");
+        return request;
+    }
+
+    private static MockHttpServletRequest service(Map<String, String> headers) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/revocations");
+        headers.forEach(request::addHeader);
+        return request;
+    }
+}
@@ -0,0 +1,149 @@
+package com.campus.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "test_jwt_secret_test_jwt_secret_0123456789";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void verifiesAHotTokenOnce() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 100, registry, clock);
+        String token = token("student@college.com", Duration.ofMinutes(15), SECRET);
+
+        Claims first = verifier.parse(token);
+        Claims second = verifier.parse(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("student@college.com");
+        assertThat(registry.get("jwt.verify.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("jwt.verify.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("jwt.verify.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysTheCacheByTheWholeToken() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 100, registry, clock);
+        String token = token("student@college.com", Duration.ofMinutes(15), SECRET);
+        verifier.parse(token);
+
+        // same header and claims, different signature
+        int sig = token.lastIndexOf('.') + 1;
+        String forged = token.substring(0, sig) + (token.charAt(sig) == 'A' ? 'B' : 'A') + token.substring(sig + 1);
+        assertThatThrownBy(() -> verifier.parse(forged)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> verifier.parse(token("student@college.com", Duration.ofMinutes(15),
+                "some_other_secret_some_other_secret_0123")))
+                .isInstanceOf(SignatureException.class);
+        assertThat(verifier.cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsServingATokenAtItsExp() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 100, registry, clock);
+        String token = token("student@college.com", Duration.ofMinutes(15), SECRET);
+        verifier.parse(token);
+
+        clock.advance(Duration.ofMinutes(14));
+        assertThat(verifier.parse(token).getSubject()).isEqualTo("student@college.com");
+
+        // the cached entry is gone at exp, and the parser itself rejects the token a second later
+        clock.advance(Duration.ofMinutes(1).plusSeconds(1));
+        assertThatThrownBy(() -> verifier.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void neverCachesTokensWithoutExp() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 100, registry, clock);
+        String token = Jwts.builder()
+                .subject("service")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        verifier.parse(token);
+        verifier.parse(token);
+
+        assertThat(verifier.cacheSize()).isZero();
+        assertThat(registry.get("jwt.verify.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void staysWithinTheBoundExpiredEntriesFirst() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, registry, clock);
+
+        for (int i = 0; i < 5; i++) {
+            verifier.parse(token("short" + i + "@college.com", Duration.ofMinutes(1), SECRET));
+        }
+        for (int i = 0; i < 5; i++) {
+            verifier.parse(token("long" + i + "@college.com", Duration.ofHours(1), SECRET));
+        }
+        assertThat(verifier.cacheSize()).isEqualTo(10);
+
+        // the short-lived half has expired: evicting it is enough
+        clock.advance(Duration.ofMinutes(2));
+        verifier.parse(token("new@college.com", Duration.ofHours(1), SECRET));
+        assertThat(verifier.cacheSize()).isEqualTo(6);
+
+        for (int i = 0; i < 100; i++) {
+            verifier.parse(token("burst" + i + "@college.com", Duration.ofHours(1), SECRET));
+            assertThat(verifier.cacheSize()).isLessThanOrEqualTo(10);
+        }
+    }
+
+    private String token(String email, Duration ttl, String secret) {
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .subject(email)
+                .claim("role", "STUDENT")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.campus.common.security;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevocationListTest {
+
+    private static final String AUTH = "auth-service2";
+    private static final IdentityHeaders IDENTITY = new IdentityHeaders("test_gateway_identity_secret");
+
+    private HttpServer auth;
+
+    // stands in for auth-service2: queued feed bodies, per-key lookups, and what was asked
+    private final Queue<String> feeds = new ArrayDeque<>();
+    private final Map<String, Long> exact = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final long now = System.currentTimeMillis() / 1000;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        auth = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        auth.createContext("/api/auth/revocations", this::answer);
+        auth.start();
+        when(loadBalancer.choose(AUTH)).thenReturn(new DefaultServiceInstance(
+                AUTH + "-1", AUTH, "127.0.0.1", auth.getAddress().getPort(), false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        auth.stop(0);
+    }
+
+    /* ================================
+       BLOOM FILTER
+       ================================ */
+    @Test
+    void matchesTheBloomFilterAuthBuilt() {
+        feeds.add(feed(10, 10, bloom(640, 7, "old@college.com"), List.of()));
+        RevocationList list = list(RevocationList.BloomPositive.REJECT);
+
+        list.poll();
+
+        assertThat(list.isRevoked("old@college.com", now + 60)).isTrue();
+        assertThat(list.isRevoked("  OLD@College.com ", now + 60)).isTrue();
+        assertThat(list.isRevoked("fresh@college.com", now + 60)).isFalse();
+        assertThat(registry.get("revocation.bloom.positive").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void allowModeLetsBloomPositivesThrough() {
+        feeds.add(feed(10, 10, bloom(640, 7, "old@college.com"), List.of()));
+        RevocationList list = list(RevocationList.BloomPositive.ALLOW);
+
+        list.poll();
+
+        assertThat(list.isRevoked("old@college.com", now + 60)).isFalse();
+        assertThat(registry.get("revocation.bloom.positive").counter().count()).isEqualTo(1);
+    }
+
+    /* ================================
+       EXACT ENTRIES
+       ================================ */
+    @Test
+    void rejectsTokensIssuedBeforeTheCutoffOnly() {
+        feeds.add(feed(12, 10, bloom(64, 1), List.of(entry(12, "s@college.com", now + 100))));
+        RevocationList list = list(RevocationList.BloomPositive.REJECT);
+
+        list.poll();
+
+        assertThat(list.isRevoked("s@college.com", now + 100)).isTrue();
+        assertThat(list.isRevoked("s@college.com", now + 101)).isFalse();
+        assertThat(registry.get("revocation.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void mergeKeepsTheLatestCutoff() {
+        feeds.add(feed(12, 10, bloom(64, 1), List.of(
+                entry(11, "s@college.com", now + 100),
+                entry(12, "s@college.com", now + 300))));
+        // the next feed repeats the older revocation inside the overlap window
+        feeds.add(feed(12, 10, null, List.of(entry(11, "s@college.com", now + 100))));
+        RevocationList list = list(RevocationList.BloomPositive.REJECT);
+
+        list.poll();
+        assertThat(list.isRevoked("s@college.com", now + 300)).isTrue();
+
+        list.poll();
+        assertThat(list.isRevoked("s@college.com", now + 300)).isTrue();
+        assertThat(list.isRevoked("s@college.com", now + 301)).isFalse();
+    }
+
+    /* ================================
+       INCREMENTAL PULL
+       ================================ */
+    @Test
+    void asksOnlyForWhatItHasNotSeen() {
+        feeds.add(feed(12, 10, bloom(640, 7, "old@college.com"), List.of(entry(12, "a@college.com", now + 100))));
+        feeds.add(feed(15, 10, null, List.of(
+                entry(12, "a@college.com", now + 100),          // overlap repeat
+                entry(15, "b@college.com", now + 100))));
+        feeds.add(feed(15, 20, bloom(640, 7, "a@college.com", "b@college.com"), List.of()));
+        RevocationList list = list(RevocationList.BloomPositive.REJECT);
+
+        list.poll();
+        list.poll();
+        assertThat(list.isRevoked("a@college.com", now + 60)).isTrue();
+        assertThat(list.isRevoked("b@college.com", now + 60)).isTrue();
+
+        list.poll();
+        list.poll();
+
+        assertThat(requests).containsExactly(
+                "/api/auth/revocations?bloomVersion=-1&since=0",
+                "/api/auth/revocations?bloomVersion=10&since=12",
+                "/api/auth/revocations?bloomVersion=10&since=15",
+                "/api/auth/revocations?bloomVersion=20&since=15");
+        // a new Bloom replaces the exact entries it compacted
+        assertThat(list.isRevoked("old@college.com", now + 60)).isFalse();
+        assertThat(list.isRevoked("b@college.com", now + 60)).isTrue();
+    }
+
+    @Test
+    void keepsItsStateWhenAuthIsDown() {
+        feeds.add(feed(12, 10, bloom(64, 1), List.of(entry(12, "s@college.com", now + 100))));
+        RevocationList list = list(RevocationList.BloomPositive.REJECT);
+        list.poll();
+
+        // the stub answers 503 once the queue is empty
+        list.poll();
+
+        assertThat(list.isRevoked("s@college.com", now + 60)).isTrue();
+        assertThat(requests).last().isEqualTo("/api/auth/revocations?bloomVersion=10&since=12");
+    }
+
+    /* ================================
+       VERIFY MODE
+       ================================ */
+    @Test
+    void verifiesABloomPositiveOnceUntilTheNextBloom() {
+        feeds.add(feed(10, 10, bloom(640, 7, "old@college.com", "gone@college.com"), List.of()));
+        feeds.add(feed(10, 10, null, List.of()));
+        feeds.add(feed(20, 20, bloom(640, 7, "old@college.com"), List.of()));
+        exact.put(key("old@college.com"), now + 100);
+        exact.put(key("gone@college.com"), 0L);             // cutoff passed since the compaction
+        RevocationList list = list(RevocationList.BloomPositive.VERIFY);
+
+        list.poll();
+        for (int i = 0; i < 3; i++) {
+            assertThat(list.isRevoked("old@college.com", now + 60)).isTrue();
+            assertThat(list.isRevoked("old@college.com", now + 200)).isFalse();
+            assertThat(list.isRevoked("gone@college.com", now + 60)).isFalse();
+        }
+        assertThat(lookups()).hasSize(2);
+
+        // an incremental poll keeps the answers, a new Bloom drops them
+        list.poll();
+        list.isRevoked("old@college.com", now + 60);
+        assertThat(lookups()).hasSize(2);
+
+        list.poll();
+        list.isRevoked("old@college.com", now + 60);
+        assertThat(lookups()).hasSize(3);
+        assertThat(lookups()).allMatch(p -> p.startsWith("/api/auth/revocations/"));
+    }
+
+    @Test
+    void failsClosedWhenABloomPositiveCannotBeVerified() {
+        feeds.add(feed(10, 10, bloom(640, 7, "old@college.com"), List.of()));
+        RevocationList list = list(RevocationList.BloomPositive.VERIFY);
+        list.poll();
+
+        // no exact answer: the stub answers 503
+        assertThat(list.isRevoked("old@college.com", now + 60)).isTrue();
+        assertThat(list.isRevoked("fresh@college.com", now + 60)).isFalse();
+    }
+
+    private RevocationList list(RevocationList.BloomPositive onBloomPositive) {
+        return new RevocationList(loadBalancer, IDENTITY, registry, "test-service", AUTH,
+                onBloomPositive, 100, Duration.ofSeconds(2));
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().toString();
+        requests.add(path);
+
+        String body = null;
+        if (IDENTITY.serviceName(new ExchangeRequest(exchange)) != null) {
+            if (path.contains("?")) {
+                body = feeds.poll();
+            } else {
+                Long cutoff = exact.get(path.substring(path.lastIndexOf('/') + 1));
+                if (cutoff != null) body = "{\"version\":0,\"key\":\"k\",\"cutoff\":" + cutoff + "}";
+            }
+        }
+
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(body == null ? 503 : 200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private List<String> lookups() {
+        return requests.stream().filter(p -> !p.contains("?")).toList();
+    }
+
+    private static String feed(long version, long bloomVersion, Bloom bloom, List<String> entries) {
+        String b = bloom == null ? "null" : "\"" + bloom.encoded + "\"";
+        return "{\"version\":" + version + ",\"bloomVersion\":" + bloomVersion
+                + ",\"bloom\":" + b + ",\"bloomBits\":" + (bloom == null ? 0 : bloom.bits)
+                + ",\"bloomHashes\":" + (bloom == null ? 0 : bloom.hashes)
+                + ",\"entries\":[" + String.join(",", entries) + "]}";
+    }
+
+    private static String entry(long version, String email, long cutoff) {
+        return "{\"version\":" + version + ",\"key\":\"" + key(email) + "\",\"cutoff\":" + cutoff + "}";
+    }
+
+    // built the way auth-service2's RevocationService.rebuild() does it
+    private static Bloom bloom(int bits, int hashes, String... emails) {
+        long[] words = new long[bits / 64];
+        for (String email : emails) {
+            ByteBuffer digest = ByteBuffer.wrap(digest(email));
+            long h1 = digest.getLong(0);
+            long h2 = digest.getLong(8) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+                words[bit >>> 6] |= 1L << (bit & 63);
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(words.length * 8);
+        out.asLongBuffer().put(words);
+        return new Bloom(bits, hashes, Base64.getEncoder().encodeToString(out.array()));
+    }
+
+    private static String key(String email) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest(email));
+    }
+
+    private static byte[] digest(String email) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(
+                    email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Bloom(int bits, int hashes, String encoded) {
+    }
+
+    // just enough of a servlet request for IdentityHeaders.serviceName
+    private static final class ExchangeRequest extends MockHttpServletRequest {
+        ExchangeRequest(HttpExchange exchange) {
+            exchange.getRequestHeaders().forEach((name, values) -> values.forEach(v -> addHeader(name, v)));
+        }
+    }
+}
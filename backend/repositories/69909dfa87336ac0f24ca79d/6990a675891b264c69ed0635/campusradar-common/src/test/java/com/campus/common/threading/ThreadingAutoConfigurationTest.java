@@ -0,0 +1,148 @@
+package com.campus.common.threading;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ThreadingAutoConfigurationTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ThreadingAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    /* ================================
+       THREAD MODEL
+       ================================ */
+    @Test
+    void refusesVirtualThreadsBeforeJava21() {
+        assertThatThrownBy(() -> ThreadingAutoConfiguration.checkThreadModel(true, 17))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("needs Java 21");
+        assertThatCode(() -> ThreadingAutoConfiguration.checkThreadModel(true, 21)).doesNotThrowAnyException();
+        assertThatCode(() -> ThreadingAutoConfiguration.checkThreadModel(false, 17)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failsStartupWhenVirtualThreadsAreAskedForOnThisRuntime() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        runner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void staysOutOfNonWebApplications() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ThreadingAutoConfiguration.class))
+                .run(context -> assertThat(context).doesNotHaveBean(TaskDecorator.class));
+    }
+
+    /* ================================
+       REQUEST CONTEXT
+       ================================ */
+    @Test
+    void carriesTheRequestOntoTheExecutorThreadAndClearsItAfter() {
+        runner.run(context -> {
+            TaskDecorator decorator = context.getBean(TaskDecorator.class);
+            RequestAttributes attrs = new ServletRequestAttributes(new MockHttpServletRequest());
+            AtomicReference<RequestAttributes> seen = new AtomicReference<>();
+            AtomicReference<RequestAttributes> after = new AtomicReference<>();
+
+            RequestContextHolder.setRequestAttributes(attrs);
+            Runnable task;
+            try {
+                task = decorator.decorate(() -> seen.set(RequestContextHolder.getRequestAttributes()));
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            CompletableFuture.runAsync(() -> {
+                task.run();
+                after.set(RequestContextHolder.getRequestAttributes());
+            }).get(2, TimeUnit.SECONDS);
+
+            assertThat(seen).hasValue(attrs);
+            assertThat(after).hasNullValue();
+        });
+    }
+
+    @Test
+    void leavesTasksSubmittedOutsideARequestAlone() {
+        runner.run(context -> {
+            Runnable task = () -> {
+            };
+            assertThat(context.getBean(TaskDecorator.class).decorate(task)).isSameAs(task);
+        });
+    }
+
+    /* ================================
+       PINNING MONITOR
+       ================================ */
+    @Test
+    void pinningMonitorIsOffByDefault() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(PinningMonitor.class));
+    }
+
+    @Test
+    void pinningMonitorTimesAContendedMonitorAtTheAppFrame() {
+        runner.withPropertyValues("threads.pinning.enabled=true", "threads.pinning.threshold-millis=10")
+                .run(context -> {
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+                    contend();
+
+                    // JFR hands events to the stream about once a second
+                    Timer pinned = null;
+                    for (int i = 0; i < 50 && pinned == null; i++) {
+                        Thread.sleep(100);
+                        pinned = registry.find("jvm.threads.pinned").tag("event", "jdk.JavaMonitorEnter").timer();
+                    }
+                    assertThat(pinned).isNotNull();
+                    assertThat(pinned.getId().getTag("frame"))
+                            .isEqualTo(ThreadingAutoConfigurationTest.class.getName() + ".holdLock");
+                });
+    }
+
+    private final Object lock = new Object();
+
+    // the second thread queues on the monitor for about 100ms
+    private void contend() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        Thread holder = new Thread(() -> holdLock(held, 100));
+        holder.start();
+        assertThat(held.await(2, TimeUnit.SECONDS)).isTrue();
+        Thread waiter = new Thread(() -> holdLock(new CountDownLatch(1), 0));
+        waiter.start();
+        holder.join(2000);
+        waiter.join(2000);
+    }
+
+    private void holdLock(CountDownLatch held, long millis) {
+        synchronized (lock) {
+            held.countDown();
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
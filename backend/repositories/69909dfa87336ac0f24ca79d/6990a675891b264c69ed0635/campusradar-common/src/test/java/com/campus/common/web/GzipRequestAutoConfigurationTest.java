@@ -0,0 +1,43 @@
+package com.campus.common.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.Ordered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestAutoConfigurationTest {
+
+    private static final AutoConfigurations CONFIG = AutoConfigurations.of(GzipRequestAutoConfiguration.class);
+
+    @Test
+    void registersFilterFirstOnApiPaths() {
+        new WebApplicationContextRunner()
+                .withConfiguration(CONFIG)
+                .withPropertyValues("compression.request.max-inflated-size=1MB")
+                .run(context -> {
+                    FilterRegistrationBean<?> reg = context.getBean(FilterRegistrationBean.class);
+                    assertThat(reg.getFilter()).isInstanceOf(GzipRequestFilter.class);
+                    assertThat(reg.getUrlPatterns()).containsExactly("/api/*");
+                    assertThat(reg.getOrder()).isEqualTo(Ordered.HIGHEST_PRECEDENCE);
+                });
+    }
+
+    @Test
+    void canBeSwitchedOff() {
+        new WebApplicationContextRunner()
+                .withConfiguration(CONFIG)
+                .withPropertyValues("compression.request.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+
+    @Test
+    void staysOutOfNonWebApplications() {
+        new ApplicationContextRunner()
+                .withConfiguration(CONFIG)
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+}
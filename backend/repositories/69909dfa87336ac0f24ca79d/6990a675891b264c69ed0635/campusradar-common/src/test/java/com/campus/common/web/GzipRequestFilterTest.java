@@ -0,0 +1,79 @@
+package com.campus.common.web;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class GzipRequestFilterTest {
+
+    private static final String BODY = "{\"emails\":[\"a@college.com\",\"b@college.com\"]}";
+
+    @Test
+    void inflatesGzipBodyAndHidesWireHeaders() throws Exception {
+        HttpServletRequest inflated = filter(new GzipRequestFilter(1024), gzipped(BODY));
+
+        assertThat(new String(inflated.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(inflated.getHeader("Content-Encoding")).isNull();
+        assertThat(inflated.getHeader("Content-Length")).isNull();
+        assertThat(inflated.getContentLengthLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void leavesPlainBodiesAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/drive");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        new GzipRequestFilter(1024).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void capsTheInflatedSize() throws Exception {
+        HttpServletRequest inflated = filter(new GzipRequestFilter(16), gzipped(BODY));
+
+        assertThatThrownBy(() -> inflated.getInputStream().readAllBytes())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds 16 bytes");
+    }
+
+    @Test
+    void rejectsNonBlockingReads() throws Exception {
+        ServletInputStream in = filter(new GzipRequestFilter(1024), gzipped(BODY)).getInputStream();
+
+        assertThatThrownBy(() -> in.setReadListener(mock(ReadListener.class)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static HttpServletRequest filter(GzipRequestFilter filter, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/profile/students/batch");
+        request.addHeader("Content-Encoding", "gzip");
+        request.addHeader("Content-Length", body.length);
+        request.setContent(body);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+
+    private static byte[] gzipped(String s) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,220 @@
+package com.campus.campusradargateway.aggregate;
+
+import com.campus.campusradargateway.routing.InstanceStatsRegistry;
+import com.campus.common.security.IdentityHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Builds a student's landing page in one gateway round trip: active
+ * drives, selection status and the full profile are fetched in parallel
+ * and merged into one document.
+ *
+ * Every leg has its own timeout. A leg that fails or times out leaves
+ * its section null and is listed under "errors"; the response is still
+ * 200 as long as one leg answered. Legs are asynchronous exchanges on
+ * the JDK client, so no thread is parked per leg while waiting.
+ */
+@Component
+public class StudentHomeAggregator {
+
+    private static final String OK = "ok";
+    private static final String ERROR = "error";
+    private static final String TIMEOUT = "timeout";
+
+    private final LoadBalancerClient loadBalancer;
+    private final InstanceStatsRegistry stats;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final HttpClient http;
+
+    private final Duration drivesTimeout;
+    private final Duration selectionsTimeout;
+    private final Duration profileTimeout;
+
+    public StudentHomeAggregator(
+            LoadBalancerClient loadBalancer,
+            InstanceStatsRegistry stats,
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${gateway.home.drives-timeout-millis:800}") long drivesTimeoutMillis,
+            @Value("${gateway.home.selections-timeout-millis:800}") long selectionsTimeoutMillis,
+            @Value("${gateway.home.profile-timeout-millis:1000}") long profileTimeoutMillis
+    ) {
+        this.loadBalancer = loadBalancer;
+        this.stats = stats;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        this.drivesTimeout = Duration.ofMillis(drivesTimeoutMillis);
+        this.selectionsTimeout = Duration.ofMillis(selectionsTimeoutMillis);
+        this.profileTimeout = Duration.ofMillis(profileTimeoutMillis);
+    }
+
+    public StudentHome load(Long studentId, HttpServletRequest request) {
+
+        List<CompletableFuture<Leg>> legs = List.of(
+                call("drives", "drive-service", "/api/drive", drivesTimeout, request),
+                call("selections", "selection-service2", "/api/selection/status",
+                        selectionsTimeout, request),
+                call("profile", "profile-service2", "/api/profile/student/" + studentId,
+                        profileTimeout, request));
+
+        // each leg completes normally by its own deadline
+        CompletableFuture.allOf(legs.toArray(new CompletableFuture[0])).join();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<Integer> failedStatuses = new HashSet<>();
+
+        for (CompletableFuture<Leg> f : legs) {
+            Leg leg = f.join();
+            body.put(leg.name(), leg.data());
+            if (leg.error() != null) {
+                errors.put(leg.name(), leg.error());
+                failedStatuses.add(leg.status());
+            }
+        }
+        body.put("partial", !errors.isEmpty());
+        body.put("errors", errors);
+
+        int status;
+        String result;
+        if (errors.isEmpty()) {
+            status = 200;
+            result = "complete";
+        } else if (errors.size() < legs.size()) {
+            status = 200;
+            result = "partial";
+        } else {
+            // nothing answered: surface a shared 4xx (bad token, wrong role) as is
+            int only = failedStatuses.size() == 1 ? failedStatuses.iterator().next() : 0;
+            status = only >= 400 && only < 500 ? only : 502;
+            result = "failed";
+        }
+        registry.counter("gateway.aggregate.responses", "result", result).increment();
+        return new StudentHome(status, body);
+    }
+
+    /* ================================
+       ONE LEG
+       ================================ */
+    private CompletableFuture<Leg> call(
+            String name,
+            String serviceId,
+            String path,
+            Duration timeout,
+            HttpServletRequest request
+    ) {
+        ServiceInstance instance = loadBalancer.choose(serviceId);
+        if (instance == null) {
+            record(name, ERROR, 0);
+            return CompletableFuture.completedFuture(
+                    Leg.failed(name, 503, "No instance of " + serviceId));
+        }
+
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(instance.getUri() + path))
+                .timeout(timeout)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .GET();
+        forwardIdentity(request, b);
+
+        long start = System.nanoTime();
+        stats.start(instance);
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                http.sendAsync(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // the request timeout covers headers only; this also bounds the body
+        return exchange
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((r, e) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (e != null) {
+                        exchange.cancel(true);
+                        stats.record(instance, elapsed, true);
+                        boolean timedOut = unwrap(e) instanceof TimeoutException
+                                || unwrap(e) instanceof HttpTimeoutException;
+                        record(name, timedOut ? TIMEOUT : ERROR, elapsed);
+                        return Leg.failed(name, timedOut ? 504 : 502,
+                                timedOut ? "Timed out after " + timeout.toMillis() + "ms"
+                                         : "Upstream unavailable");
+                    }
+
+                    stats.record(instance, elapsed, r.statusCode() >= 500);
+                    if (r.statusCode() >= 300) {
+                        record(name, ERROR, elapsed);
+                        return Leg.failed(name, r.statusCode(), "HTTP " + r.statusCode());
+                    }
+                    try {
+                        JsonNode data = r.body().length == 0 ? null : objectMapper.readTree(r.body());
+                        record(name, OK, elapsed);
+                        return new Leg(name, r.statusCode(), data, null);
+                    } catch (JacksonException bad) {
+                        record(name, ERROR, elapsed);
+                        return Leg.failed(name, 502, "Unreadable response");
+                    }
+                });
+    }
+
+    // only what the services need to authorize the caller
+    private static void forwardIdentity(HttpServletRequest request, HttpRequest.Builder b) {
+        for (String name : List.of(HttpHeaders.AUTHORIZATION, IdentityHeaders.EMAIL,
+                IdentityHeaders.ROLE, IdentityHeaders.EXPIRES, IdentityHeaders.SIGNATURE)) {
+            String value = request.getHeader(name);
+            if (value != null) b.header(name, value);
+        }
+    }
+
+    private void record(String leg, String outcome, long nanos) {
+        Timer.builder("gateway.aggregate.leg")
+                .tag("leg", leg)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e.getCause() != null
+                && (e instanceof CompletionException
+                    || e instanceof ExecutionException)) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    public record StudentHome(int status, Map<String, Object> body) {
+    }
+
+    private record Leg(String name, int status, JsonNode data, String error) {
+
+        static Leg failed(String name, int status, String error) {
+            return new Leg(name, status, null, error);
+        }
+    }
+}
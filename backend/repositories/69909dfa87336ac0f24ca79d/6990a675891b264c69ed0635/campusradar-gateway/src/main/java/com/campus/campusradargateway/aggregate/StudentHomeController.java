@@ -0,0 +1,38 @@
+package com.campus.campusradargateway.aggregate;
+
+import com.campus.common.security.IdentityHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/home")
+public class StudentHomeController {
+
+    private final StudentHomeAggregator aggregator;
+
+    public StudentHomeController(StudentHomeAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    /* ================================
+       STUDENT: LANDING PAGE IN ONE CALL
+       ================================ */
+    @GetMapping("/student/{studentId}")
+    public ResponseEntity<Map<String, Object>> studentHome(
+            @PathVariable Long studentId,
+            HttpServletRequest request
+    ) {
+        if (request.getHeader(IdentityHeaders.EMAIL) == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!"STUDENT".equals(request.getHeader(IdentityHeaders.ROLE))) {
+            return ResponseEntity.status(403).build();
+        }
+
+        StudentHomeAggregator.StudentHome home = aggregator.load(studentId, request);
+        return ResponseEntity.status(home.status()).body(home.body());
+    }
+}
@@ -0,0 +1,11 @@
+package com.campus.campusradargateway.config;
+
+import com.campus.campusradargateway.routing.LatencyAwareLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// every lb:// route uses the latency-aware balancer
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,129 @@
+package com.campus.campusradargateway.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Consistent hashing with bounded loads. Each instance owns
+ * gateway.affinity.virtual-nodes points on a ring; a key goes to the
+ * first instance clockwise from its hash whose outstanding requests are
+ * below load-factor x the average. A join or leave only moves the keys
+ * on the arcs that instance owned, and a hot drive spills over to the
+ * next instance instead of overloading its home.
+ */
+@Component
+public class AffinityRouter {
+
+    public static final String ATTRIBUTE = AffinityRouter.class.getName() + ".key";
+
+    private final InstanceStatsRegistry stats;
+    private final int virtualNodes;
+    private final double loadFactor;
+
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    private final Counter home;
+    private final Counter spill;
+
+    public AffinityRouter(
+            InstanceStatsRegistry stats,
+            MeterRegistry registry,
+            @Value("${gateway.affinity.virtual-nodes:100}") int virtualNodes,
+            @Value("${gateway.affinity.load-factor:1.25}") double loadFactor
+    ) {
+        this.stats = stats;
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+        this.home = registry.counter("gateway.affinity.requests", "result", "home");
+        this.spill = registry.counter("gateway.affinity.requests", "result", "spill");
+    }
+
+    ServiceInstance choose(String serviceId, String key, List<ServiceInstance> pool) {
+        Ring ring = ring(serviceId, pool);
+
+        int total = 0;
+        for (ServiceInstance i : pool) total += stats.stats(i).outstanding();
+        int capacity = (int) Math.ceil(loadFactor * (total + 1) / pool.size());
+
+        // walk clockwise, each distinct instance once
+        Set<String> tried = new HashSet<>();
+        boolean first = true;
+        for (ServiceInstance candidate : ring.from(hash(key))) {
+            if (!tried.add(InstanceStatsRegistry.key(candidate))) continue;
+            if (stats.stats(candidate).outstanding() < capacity) {
+                (first ? home : spill).increment();
+                return candidate;
+            }
+            first = false;
+            if (tried.size() == pool.size()) break;
+        }
+        spill.increment();
+        return ring.from(hash(key)).iterator().next();
+    }
+
+    private Ring ring(String serviceId, List<ServiceInstance> pool) {
+        List<String> ids = new ArrayList<>(pool.size());
+        for (ServiceInstance i : pool) ids.add(InstanceStatsRegistry.key(i));
+        Collections.sort(ids);
+
+        Ring ring = rings.get(serviceId);
+        if (ring == null || !ring.ids().equals(ids)) {
+            ring = Ring.build(ids, pool, virtualNodes);
+            rings.put(serviceId, ring);
+        }
+        return ring;
+    }
+
+    // FNV-1a 64 with a murmur finalizer for spread
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Ring(List<String> ids, TreeMap<Long, ServiceInstance> points) {
+
+        static Ring build(List<String> ids, List<ServiceInstance> pool, int virtualNodes) {
+            TreeMap<Long, ServiceInstance> points = new TreeMap<>();
+            for (ServiceInstance i : pool) {
+                String id = InstanceStatsRegistry.key(i);
+                for (int v = 0; v < virtualNodes; v++) {
+                    points.put(hash(id + "#" + v), i);
+                }
+            }
+            return new Ring(List.copyOf(ids), points);
+        }
+
+        Iterable<ServiceInstance> from(long h) {
+            return () -> new Iterator<>() {
+                private final Iterator<ServiceInstance> tail = points.tailMap(h, true).values().iterator();
+                private final Iterator<ServiceInstance> head = points.headMap(h, false).values().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return tail.hasNext() || head.hasNext();
+                }
+
+                @Override
+                public ServiceInstance next() {
+                    return tail.hasNext() ? tail.next() : head.next();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.campus.campusradargateway.routing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/* GET /actuator/balancer: outstanding requests, EWMA latency and ejection per instance. */
+@Component
+@Endpoint(id = "balancer")
+public class BalancerEndpoint {
+
+    private final InstanceStatsRegistry stats;
+
+    public BalancerEndpoint(InstanceStatsRegistry stats) {
+        this.stats = stats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> instances() {
+        return stats.snapshot();
+    }
+}
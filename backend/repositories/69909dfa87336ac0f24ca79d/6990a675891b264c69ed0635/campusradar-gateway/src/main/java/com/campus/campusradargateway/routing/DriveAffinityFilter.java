@@ -0,0 +1,192 @@
+package com.campus.campusradargateway.routing;
+
+import com.campus.common.security.IdentityHeaders;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Finds the driveId of a request (path template, ?driveId= or a small
+ * JSON body) and hands it to the load balancer as the affinity key.
+ * Bodies are read only when they are JSON and under max-body-bytes, and
+ * are replayed to the proxy unchanged.
+ *
+ * Runs after IdentityRelayFilter and only buffers bodies of requests it
+ * authenticated, so an anonymous caller cannot make the gateway read
+ * and parse bodies for free.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 75)
+@ConditionalOnProperty(name = "gateway.affinity.enabled", havingValue = "true")
+public class DriveAffinityFilter extends OncePerRequestFilter {
+
+    private static final String KEY = "driveId";
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final List<String> routes;
+    private final List<String> pathTemplates;
+    private final int maxBodyBytes;
+    private final ObjectMapper objectMapper;
+
+    public DriveAffinityFilter(
+            ObjectMapper objectMapper,
+            @Value("${gateway.affinity.routes:/api/selection/**}") List<String> routes,
+            @Value("${gateway.affinity.paths:/api/selection/drive/{driveId}/**}") List<String> pathTemplates,
+            @Value("${gateway.affinity.max-body-bytes:65536}") int maxBodyBytes
+    ) {
+        this.objectMapper = objectMapper;
+        this.routes = routes.stream().map(String::trim).toList();
+        this.pathTemplates = pathTemplates.stream().map(String::trim).toList();
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return routes.stream().noneMatch(r -> MATCHER.match(r, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        String driveId = fromPath(request.getRequestURI());
+        if (driveId == null) driveId = request.getParameter(KEY);
+
+        HttpServletRequest forwarded = request;
+        if (driveId == null && authenticated(request) && isSmallJson(request)) {
+            byte[] body = request.getInputStream().readAllBytes();
+            forwarded = new BufferedBodyRequest(request, body);
+            driveId = fromBody(body);
+        }
+
+        if (driveId != null && !driveId.isBlank()) {
+            forwarded.setAttribute(AffinityRouter.ATTRIBUTE, driveId);
+        }
+        chain.doFilter(forwarded, response);
+    }
+
+    private String fromPath(String path) {
+        for (String template : pathTemplates) {
+            if (MATCHER.match(template, path)) {
+                Map<String, String> vars = MATCHER.extractUriTemplateVariables(template, path);
+                if (vars.containsKey(KEY)) return vars.get(KEY);
+            }
+        }
+        return null;
+    }
+
+    // set by IdentityRelayFilter only after the token checked out
+    private static boolean authenticated(HttpServletRequest request) {
+        return request.getHeader(IdentityHeaders.SIGNATURE) != null;
+    }
+
+    private boolean isSmallJson(HttpServletRequest request) {
+        if (request.getContentType() == null) return false;
+        long length = request.getContentLengthLong();
+        try {
+            return length > 0 && length <= maxBodyBytes
+                    && MediaType.APPLICATION_JSON.isCompatibleWith(
+                            MediaType.parseMediaType(request.getContentType()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String fromBody(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body).get(KEY);
+            return node == null || node.isNull() ? null : node.asString();
+        } catch (JacksonException e) {
+            return null;    // not ours to reject; the service will
+        }
+    }
+
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // everything is already in memory: ready at once, then done
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String enc = getCharacterEncoding();
+            Charset charset = enc == null || enc.isEmpty() ? StandardCharsets.UTF_8 : Charset.forName(enc);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.campus.campusradargateway.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Hedged requests for idempotent GET routes. The primary goes to the
+ * balancer's pick; if it has not answered after the route's recent p95,
+ * a second copy goes to the next-cheapest healthy instance. The first
+ * good response is returned and the other exchange is cancelled.
+ *
+ * Hedges are paid for from a token bucket that every primary request
+ * refills by budget-percent/100, so they can never add more than that
+ * share of extra load. Routes with a single healthy instance, or a
+ * spent budget, are simply not hedged.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "gateway.hedging.enabled", havingValue = "true")
+public class HedgingFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding",
+            "te", "trailer", "upgrade", "host", "content-length", "expect");
+
+    private final LoadBalancerClient loadBalancer;
+    private final DiscoveryClient discovery;
+    private final InstanceStatsRegistry stats;
+    private final MeterRegistry registry;
+    private final HttpClient http;
+
+    private final List<HedgedRoute> routes = new ArrayList<>();
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final Duration timeout;
+    private final long budgetMilliTokensPerRequest;
+    private final long maxMilliTokens;
+
+    private final AtomicLong milliTokens;
+    private final Counter budgetExhausted;
+
+    public HedgingFilter(
+            LoadBalancerClient loadBalancer,
+            DiscoveryClient discovery,
+            InstanceStatsRegistry stats,
+            MeterRegistry registry,
+            @Value("${gateway.hedging.routes:}") List<String> routeSpecs,
+            @Value("${gateway.hedging.min-delay-millis:20}") long minDelayMillis,
+            @Value("${gateway.hedging.initial-delay-millis:100}") long initialDelayMillis,
+            @Value("${gateway.hedging.timeout-millis:10000}") long timeoutMillis,
+            @Value("${gateway.hedging.budget-percent:10}") double budgetPercent,
+            @Value("${gateway.hedging.max-burst:20}") int maxBurst
+    ) {
+        this.loadBalancer = loadBalancer;
+        this.discovery = discovery;
+        this.stats = stats;
+        this.registry = registry;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        for (String spec : routeSpecs) {
+            String[] parts = spec.trim().split("=", 2);
+            if (parts.length == 2) routes.add(new HedgedRoute(parts[0].trim(), parts[1].trim()));
+        }
+        this.minDelayNanos = minDelayMillis * 1_000_000;
+        this.initialDelayNanos = initialDelayMillis * 1_000_000;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.budgetMilliTokensPerRequest = Math.round(budgetPercent * 10);
+        this.maxMilliTokens = maxBurst * 1000L;
+        this.milliTokens = new AtomicLong(maxMilliTokens);
+        this.budgetExhausted = registry.counter("gateway.hedge.budget.exhausted");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || route(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        HedgedRoute route = route(request.getRequestURI());
+        ServiceInstance primary = loadBalancer.choose(route.serviceId);
+        ServiceInstance backup = primary == null ? null : backupFor(route.serviceId, primary);
+        if (backup == null) {
+            chain.doFilter(request, response);      // nothing to hedge against
+            return;
+        }
+
+        route.requests.increment();
+        deposit();
+
+        Attempt first = send(route, primary, request);
+        Outcome winner;
+        try {
+            winner = race(route, first, backup, request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        if (winner.response() == null) {
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Upstream unavailable");
+            return;
+        }
+        write(winner.response(), response);
+    }
+
+    /* ================================
+       THE RACE
+       ================================ */
+    private Outcome race(HedgedRoute route, Attempt first, ServiceInstance backup,
+                         HttpServletRequest request) throws InterruptedException {
+
+        long delay = route.delayNanos(minDelayNanos, initialDelayNanos);
+        Outcome early = first.await(delay);
+        if (early != null && early.good()) return early;
+
+        if (!spend()) {
+            budgetExhausted.increment();
+            Outcome o = early != null ? early : first.await(timeout.toNanos());
+            if (o == null) first.cancel();
+            return o == null ? Outcome.TIMEOUT : o;
+        }
+
+        route.hedges.increment();
+        Attempt second = send(route, backup, request);
+
+        // first good response wins; if one fails, keep waiting on the other
+        CompletableFuture<Attempt> good = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        for (Attempt a : List.of(first, second)) {
+            a.future.whenComplete((r, e) -> {
+                if (e == null && r.statusCode() < 500) good.complete(a);
+                else if (remaining.decrementAndGet() == 0) good.complete(null);
+            });
+        }
+
+        Attempt winner;
+        try {
+            winner = good.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            winner = null;
+        }
+
+        if (winner == null) {
+            // both failed: hand back whichever produced a response
+            Outcome o = first.await(0);
+            if (o == null || o.response() == null) o = second.await(0);
+            first.cancel();
+            second.cancel();
+            return o == null ? Outcome.TIMEOUT : o;
+        }
+        if (winner == second) route.hedgeWins.increment();
+        (winner == first ? second : first).cancel();
+        return winner.await(0);
+    }
+
+    /* ================================
+       UPSTREAM CALLS
+       ================================ */
+    private Attempt send(HedgedRoute route, ServiceInstance instance, HttpServletRequest request) {
+        String query = request.getQueryString();
+        URI uri = URI.create(instance.getUri().toString() + request.getRequestURI()
+                + (query == null ? "" : "?" + query));
+
+        // X-Forwarded-For and the signed client address were already set by IdentityRelayFilter
+        HttpRequest.Builder b = HttpRequest.newBuilder(uri).timeout(timeout).GET();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) continue;
+            for (String value : Collections.list(request.getHeaders(name))) {
+                b.header(name, value);
+            }
+        }
+
+        stats.start(instance);
+        Attempt attempt = new Attempt(
+                http.sendAsync(b.build(), HttpResponse.BodyHandlers.ofByteArray()));
+        attempt.future.whenComplete((r, e) -> {
+            if (attempt.isCancelled()) {
+                stats.abandon(instance);
+                return;
+            }
+            boolean failed = e != null || r.statusCode() >= 500;
+            stats.record(instance, attempt.elapsedNanos(), failed);
+            // every finished attempt feeds the p95, so cancelled losers do not bias it low
+            if (!failed) route.latency.record(attempt.elapsedNanos(), TimeUnit.NANOSECONDS);
+        });
+        return attempt;
+    }
+
+    private ServiceInstance backupFor(String serviceId, ServiceInstance primary) {
+        List<ServiceInstance> pool = stats.healthy(discovery.getInstances(serviceId));
+        String primaryKey = InstanceStatsRegistry.key(primary);
+
+        ServiceInstance best = null;
+        for (ServiceInstance i : pool) {
+            if (InstanceStatsRegistry.key(i).equals(primaryKey)) continue;
+            if (best == null || stats.stats(i).cost() < stats.stats(best).cost()) best = i;
+        }
+        return best;
+    }
+
+    private static void write(HttpResponse<byte[]> upstream, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(upstream.statusCode());
+        upstream.headers().map().forEach((name, values) -> {
+            if (HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT)) || name.startsWith(":")) return;
+            for (String v : values) response.addHeader(name, v);
+        });
+        byte[] body = upstream.body();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /* ================================
+       BUDGET
+       ================================ */
+    private void deposit() {
+        milliTokens.updateAndGet(t -> Math.min(maxMilliTokens, t + budgetMilliTokensPerRequest));
+    }
+
+    private boolean spend() {
+        while (true) {
+            long t = milliTokens.get();
+            if (t < 1000) return false;
+            if (milliTokens.compareAndSet(t, t - 1000)) return true;
+        }
+    }
+
+    private HedgedRoute route(String path) {
+        for (HedgedRoute r : routes) {
+            if (MATCHER.match(r.pattern, path)) return r;
+        }
+        return null;
+    }
+
+    /* ================================
+       PER-ROUTE STATE
+       ================================ */
+    private final class HedgedRoute {
+
+        final String pattern;
+        final String serviceId;
+        final Counter requests;
+        final Counter hedges;
+        final Counter hedgeWins;
+        final Timer latency;
+
+        private volatile long delayNanos = -1;
+        private volatile long delayComputedAt;
+
+        HedgedRoute(String pattern, String serviceId) {
+            this.pattern = pattern;
+            this.serviceId = serviceId;
+            this.requests = registry.counter("gateway.hedge.requests", "route", pattern);
+            this.hedges = registry.counter("gateway.hedge.sent", "route", pattern);
+            this.hedgeWins = registry.counter("gateway.hedge.wins", "route", pattern);
+            this.latency = Timer.builder("gateway.hedge.upstream.latency")
+                    .tag("route", pattern)
+                    .publishPercentiles(0.95)
+                    .distributionStatisticExpiry(Duration.ofMinutes(1))
+                    .distributionStatisticBufferLength(3)
+                    .register(registry);
+        }
+
+        // recomputed at most once a second; the snapshot is not free
+        long delayNanos(long min, long initial) {
+            long now = System.nanoTime();
+            if (delayNanos < 0 || now - delayComputedAt > 1_000_000_000L) {
+                long p95 = -1;
+                for (ValueAtPercentile v : latency.takeSnapshot().percentileValues()) {
+                    if (v.percentile() == 0.95) p95 = (long) v.value(TimeUnit.NANOSECONDS);
+                }
+                delayNanos = p95 <= 0 ? initial : Math.max(min, p95);
+                delayComputedAt = now;
+            }
+            return delayNanos;
+        }
+    }
+
+    private static final class Attempt {
+
+        final CompletableFuture<HttpResponse<byte[]>> future;
+        private final CompletableFuture<HttpResponse<byte[]>> exchange;
+        private final long startNanos = System.nanoTime();
+        private volatile long finishedNanos;
+        private volatile boolean cancelled;
+
+        Attempt(CompletableFuture<HttpResponse<byte[]>> exchange) {
+            this.exchange = exchange;
+            // stamp completion before any other stage sees the result
+            this.future = exchange.whenComplete((r, e) -> finishedNanos = System.nanoTime());
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        long elapsedNanos() {
+            long end = finishedNanos;
+            return (end == 0 ? System.nanoTime() : end) - startNanos;
+        }
+
+        /* The outcome if it completes within nanos, else null. */
+        Outcome await(long nanos) throws InterruptedException {
+            try {
+                if (nanos <= 0 && !future.isDone()) return null;
+                HttpResponse<byte[]> r = future.get(Math.max(nanos, 0), TimeUnit.NANOSECONDS);
+                return new Outcome(r, elapsedNanos());
+            } catch (ExecutionException | CancellationException e) {
+                return new Outcome(null, elapsedNanos());
+            } catch (TimeoutException e) {
+                return null;
+            }
+        }
+
+        // cancelling the JDK client's own future aborts the exchange
+        void cancel() {
+            if (exchange.isDone()) return;
+            cancelled = true;
+            exchange.cancel(true);
+        }
+    }
+
+    private record Outcome(HttpResponse<byte[]> response, long elapsedNanos) {
+
+        static final Outcome TIMEOUT = new Outcome(null, 0);
+
+        boolean good() {
+            return response != null && response.statusCode() < 500;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.campus.campusradargateway.routing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Passive health and latency of one upstream instance, fed by every
+ * proxied request. Latency is a peak-sensitive EWMA: a slower sample is
+ * taken at once, faster ones pull the average down with a time decay.
+ */
+final class InstanceStats {
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // guarded by this
+    private double ewmaNanos;
+    private long lastSample;
+    private int consecutiveFailures;
+    private int ejections;
+
+    private volatile long ejectedUntil;
+
+    void start() {
+        outstanding.incrementAndGet();
+    }
+
+    /* A request that was cancelled: no latency sample, no verdict. */
+    void abandon() {
+        outstanding.decrementAndGet();
+    }
+
+    /* Returns true when this failure ejected the instance. */
+    synchronized boolean complete(long rttNanos, boolean failed, long now, Outliers outliers) {
+        outstanding.decrementAndGet();
+
+        if (rttNanos >= 0) {
+            if (ewmaNanos == 0 || rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double w = Math.exp(-(double) (now - lastSample) / outliers.decayNanos());
+                ewmaNanos = ewmaNanos * w + rttNanos * (1 - w);
+            }
+            lastSample = now;
+        }
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            ejections = 0;
+            return false;
+        }
+        if (++consecutiveFailures < outliers.consecutiveFailures()) return false;
+
+        consecutiveFailures = 0;
+        ejections = Math.min(ejections + 1, outliers.maxEjectionMultiplier());
+        ejectedUntil = now + outliers.baseEjectionNanos() * ejections;
+        return true;
+    }
+
+    boolean isEjected(long now) {
+        return ejectedUntil - now > 0;
+    }
+
+    /* Expected wait if one more request is sent here. */
+    double cost() {
+        return ewmaNanos * (outstanding.get() + 1);
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    synchronized Map<String, Object> snapshot(long now) {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("outstanding", outstanding.get());
+        s.put("ewmaMillis", ewmaNanos / 1_000_000);
+        s.put("consecutiveFailures", consecutiveFailures);
+        s.put("ejected", isEjected(now));
+        return s;
+    }
+
+    record Outliers(int consecutiveFailures, long baseEjectionNanos,
+                    int maxEjectionMultiplier, long decayNanos) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.campus.campusradargateway.routing;
+
+import com.campus.campusradargateway.traffic.StreamingLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Collects per-instance stats from the gateway's lb:// calls through the
+ * load balancer lifecycle. A 5xx or transport failure counts against the
+ * instance; enough in a row ejects it for a growing period.
+ */
+@Component
+public class InstanceStatsRegistry implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final Map<Request<?>, Long> started = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final InstanceStats.Outliers outliers;
+    private final double maxEjectionPercent;
+    private final MeterRegistry registry;
+
+    public InstanceStatsRegistry(
+            MeterRegistry registry,
+            @Value("${gateway.lb.ejection.consecutive-failures:5}") int consecutiveFailures,
+            @Value("${gateway.lb.ejection.base-millis:30000}") long baseEjectionMillis,
+            @Value("${gateway.lb.ejection.max-multiplier:10}") int maxMultiplier,
+            @Value("${gateway.lb.ejection.max-percent:50}") double maxEjectionPercent,
+            @Value("${gateway.lb.ewma.decay-millis:10000}") long decayMillis
+    ) {
+        this.registry = registry;
+        this.outliers = new InstanceStats.Outliers(consecutiveFailures,
+                baseEjectionMillis * 1_000_000, maxMultiplier, decayMillis * 1_000_000);
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+
+    InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    /* Drops ejected instances unless that would remove more than the
+       allowed share of the pool. */
+    List<ServiceInstance> healthy(List<ServiceInstance> instances) {
+        long now = System.nanoTime();
+        List<ServiceInstance> ok = new ArrayList<>(instances.size());
+        for (ServiceInstance i : instances) {
+            if (!stats(i).isEjected(now)) ok.add(i);
+        }
+        int ejected = instances.size() - ok.size();
+        return ok.isEmpty() || ejected * 100.0 / instances.size() > maxEjectionPercent
+                ? instances : ok;
+    }
+
+    /* For callers that reach an instance without going through lb:// (hedging, aggregation). */
+    public void start(ServiceInstance instance) {
+        stats(instance).start();
+    }
+
+    public void abandon(ServiceInstance instance) {
+        stats(instance).abandon();
+    }
+
+    public void record(ServiceInstance instance, long rttNanos, boolean failed) {
+        if (stats(instance).complete(rttNanos, failed, System.nanoTime(), outliers)) {
+            registry.counter("gateway.lb.ejections", "service", instance.getServiceId()).increment();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long now = System.nanoTime();
+        Map<String, Object> s = new TreeMap<>();
+        stats.forEach((k, v) -> s.put(k, v.snapshot(now)));
+        return s;
+    }
+
+    /* ================================
+       LIFECYCLE (lb:// routes)
+       ================================ */
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) return;
+        stats(lbResponse.getServer()).start();
+        started.put(request, System.nanoTime());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> ctx) {
+        Long start = started.remove(ctx.getLoadBalancerRequest());
+        if (start == null || ctx.getLoadBalancerResponse() == null
+                || !ctx.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+
+        boolean failed = ctx.status() == CompletionContext.Status.FAILED
+                || (ctx.getClientResponse() instanceof ServerResponse r
+                    && r.statusCode().is5xxServerError());
+        ServiceInstance server = ctx.getLoadBalancerResponse().getServer();
+
+        // bulk uploads and downloads take as long as the bytes do; keep them out of the EWMA
+        if (!failed && isStreaming(ctx.getLoadBalancerRequest())) {
+            stats(server).abandon();
+            return;
+        }
+        record(server, System.nanoTime() - start, failed);
+    }
+
+    private static boolean isStreaming(Request<?> request) {
+        return request != null && request.getContext() instanceof RequestDataContext ctx
+                && ctx.getClientRequest() != null
+                && ctx.getClientRequest().getAttributes() != null
+                && ctx.getClientRequest().getAttributes().get(StreamingLimitFilter.STREAMING) != null;
+    }
+
+    static String key(ServiceInstance i) {
+        return i.getServiceId() + " " + i.getHost() + ":" + i.getPort();
+    }
+}
@@ -0,0 +1,82 @@
+package com.campus.campusradargateway.routing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Power of two choices over healthy instances: sample two at random and
+ * take the one with the lower EWMA latency x (outstanding + 1). Fresh
+ * instances have no latency yet and are tried first. Requests carrying
+ * an affinity key (see DriveAffinityFilter) go through AffinityRouter
+ * instead.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final InstanceStatsRegistry stats;
+    private final AffinityRouter affinity;
+
+    public LatencyAwareLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> suppliers,
+            String serviceId,
+            InstanceStatsRegistry stats,
+            AffinityRouter affinity
+    ) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.stats = stats;
+        this.affinity = affinity;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier =
+                suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String key = affinityKey(request);
+        return supplier.get(request).next().map(instances -> choose(instances, key));
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances, String affinityKey) {
+        if (instances.isEmpty()) return new EmptyResponse();
+
+        List<ServiceInstance> pool = stats.healthy(instances);
+        if (pool.size() == 1) return new DefaultResponse(pool.get(0));
+
+        if (affinityKey != null) {
+            return new DefaultResponse(affinity.choose(serviceId, affinityKey, pool));
+        }
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(pool.size());
+        int b = rnd.nextInt(pool.size() - 1);
+        if (b >= a) b++;
+
+        ServiceInstance first = pool.get(a);
+        ServiceInstance second = pool.get(b);
+        return new DefaultResponse(
+                stats.stats(first).cost() <= stats.stats(second).cost() ? first : second);
+    }
+
+    private static String affinityKey(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext ctx
+                && ctx.getClientRequest() != null
+                && ctx.getClientRequest().getAttributes() != null) {
+            Object key = ctx.getClientRequest().getAttributes().get(AffinityRouter.ATTRIBUTE);
+            return key == null ? null : key.toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.campus.campusradargateway.routing;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/*
+ * Per-service load balancer configuration, registered through
+ * @LoadBalancerClients in LoadBalancerConfig. Deliberately not a
+ * @Configuration so component scanning does not pick it up globally.
+ */
+public class LatencyAwareLoadBalancerConfig {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+            Environment env,
+            LoadBalancerClientFactory factory,
+            InstanceStatsRegistry stats,
+            AffinityRouter affinity
+    ) {
+        String serviceId = env.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, stats, affinity);
+    }
+}
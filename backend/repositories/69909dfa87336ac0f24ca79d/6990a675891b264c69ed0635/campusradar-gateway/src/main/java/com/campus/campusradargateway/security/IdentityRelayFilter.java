@@ -0,0 +1,152 @@
+package com.campus.campusradargateway.security;
+
+import com.campus.common.security.IdentityHeaders;
+import com.campus.common.security.JwtVerifier;
+import com.campus.common.security.RevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * Verifies the bearer token once at the edge and forwards the caller as
+ * signed X-Auth-* headers. Any X-Auth-* header sent by the client is
+ * dropped so it cannot be spoofed. Requests without a token (login) pass
+ * through untouched.
+ *
+ * An invalid, expired or revoked token is answered with 401, except on
+ * login, refresh and logout: a client whose access token has just
+ * expired sends it along to exactly those, so there the token is ignored
+ * and the request goes on without identity. Revocation is checked here,
+ * not only in the services, because filters after this one can answer
+ * from the gateway without going downstream (CoalescingFilter).
+ *
+ * Every request also carries the peer address as a signed
+ * X-Auth-Client-Ip, and X-Forwarded-For is replaced by that address, so
+ * nothing a client puts in X-Forwarded-For reaches the services. If a
+ * TLS terminator ever sits in front of the gateway, configure it with
+ * server.forward-headers-strategy=native so getRemoteAddr() is the real
+ * client rather than the terminator.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class IdentityRelayFilter extends OncePerRequestFilter {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+            "/api/auth/login",
+            "/api/auth/refresh",
+            "/api/auth/logout"
+    );
+
+    private final JwtVerifier jwtVerifier;
+    private final IdentityHeaders identityHeaders;
+    private final RevocationList revocations;
+
+    public IdentityRelayFilter(JwtVerifier jwtVerifier, IdentityHeaders identityHeaders,
+                               RevocationList revocations) {
+        this.jwtVerifier = jwtVerifier;
+        this.identityHeaders = identityHeaders;
+        this.revocations = revocations;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        Map<String, String> identity = new HashMap<>();
+
+        String clientIp = request.getRemoteAddr();
+        identity.put(IdentityHeaders.CLIENT_IP, clientIp);
+        identity.put(IdentityHeaders.CLIENT_IP_SIGNATURE, identityHeaders.signClientIp(clientIp));
+        identity.put(FORWARDED_FOR, clientIp);
+
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            Claims claims;
+            try {
+                claims = jwtVerifier.parse(header.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                claims = null;
+            }
+
+            String email = claims == null ? null : claims.getSubject();
+            long expires = claims == null || claims.getExpiration() == null
+                    ? System.currentTimeMillis() / 1000 + 300
+                    : claims.getExpiration().getTime() / 1000;
+
+            if (claims == null || revocations.isRevoked(email, expires)) {
+                if (PUBLIC_PATHS.contains(request.getRequestURI())) {
+                    chain.doFilter(new IdentityRequest(request, identity), response);
+                    return;
+                }
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
+                        claims == null ? "Invalid token" : "Token revoked");
+                return;
+            }
+
+            String role = String.valueOf(claims.get("role"));
+
+            identity.put(IdentityHeaders.EMAIL, email);
+            identity.put(IdentityHeaders.ROLE, role);
+            identity.put(IdentityHeaders.EXPIRES, Long.toString(expires));
+            identity.put(IdentityHeaders.SIGNATURE, identityHeaders.sign(email, role, expires));
+        }
+
+        chain.doFilter(new IdentityRequest(request, identity), response);
+    }
+
+    private static final class IdentityRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, String> identity = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        IdentityRequest(HttpServletRequest request, Map<String, String> identity) {
+            super(request);
+            this.identity.putAll(identity);
+        }
+
+        private static boolean isIdentity(String name) {
+            return name.toLowerCase(Locale.ROOT).startsWith(IdentityHeaders.PREFIX)
+                    || FORWARDED_FOR.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isIdentity(name)) return identity.get(name);
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isIdentity(name)) {
+                String value = identity.get(name);
+                return Collections.enumeration(value == null ? List.of() : List.of(value));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (String n : Collections.list(super.getHeaderNames())) {
+                if (!isIdentity(n)) names.add(n);
+            }
+            names.addAll(identity.keySet());
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.campus.campusradargateway.traffic;
+
+import com.campus.common.security.IdentityHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * Single-flight for hot GETs: concurrent identical requests share one
+ * upstream call. The first caller (the leader) goes upstream; everyone
+ * who arrives with the same key while it is in flight waits for its
+ * response instead. With cache-millis > 0 a finished 200 is also served
+ * for that long afterwards.
+ *
+ * The key is path, query, Accept headers and an identity scope. Routes
+ * are "pattern=ROLE|ROLE" entries naming the roles that all see the same
+ * response on that route; those callers share per role, every other
+ * caller is keyed by email, and anonymous calls are never coalesced.
+ * Runs after IdentityRelayFilter so the scope comes from a verified,
+ * unrevoked token: waiters get bytes from the gateway and never reach the
+ * services' own revocation check, so that filter stops revoked callers
+ * before they can join a flight.
+ *
+ * Only 200s are shared, never with Set-Cookie, and a failed or oversized
+ * leader response just makes the waiters go upstream themselves.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 50)
+@ConditionalOnProperty(name = "gateway.coalescing.enabled", havingValue = "true")
+public class CoalescingFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            "set-cookie", "content-length", "transfer-encoding", "connection", "keep-alive");
+
+    private final List<CoalescedRoute> routes = new ArrayList<>();
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final MeterRegistry registry;
+    private final long cacheNanos;
+    private final long waitNanos;
+    private final int maxBodyBytes;
+    private final int maxEntries;
+
+    public CoalescingFilter(
+            MeterRegistry registry,
+            @Value("${gateway.coalescing.routes:}") List<String> routeSpecs,
+            @Value("${gateway.coalescing.cache-millis:0}") long cacheMillis,
+            @Value("${gateway.coalescing.wait-millis:5000}") long waitMillis,
+            @Value("${gateway.coalescing.max-body-bytes:1048576}") int maxBodyBytes,
+            @Value("${gateway.coalescing.max-entries:10000}") int maxEntries
+    ) {
+        this.registry = registry;
+        for (String spec : routeSpecs) {
+            String[] parts = spec.trim().split("=", 2);
+            if (parts[0].isEmpty()) continue;
+            Set<String> roles = new HashSet<>();
+            if (parts.length == 2) {
+                for (String r : parts[1].split("\\|")) {
+                    if (!r.isBlank()) roles.add(r.trim());
+                }
+            }
+            routes.add(new CoalescedRoute(parts[0].trim(), roles));
+        }
+        this.cacheNanos = cacheMillis * 1_000_000;
+        this.waitNanos = waitMillis * 1_000_000;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxEntries = maxEntries;
+
+        Gauge.builder("gateway.coalesce.entries", flights, Map::size).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || route(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        CoalescedRoute route = route(request.getRequestURI());
+        String key = key(route, request);
+        if (key == null) {
+            route.bypassed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long window = bypassCache(request) ? 0 : cacheNanos;
+        Flight mine = new Flight();
+        Flight flight;
+        while (true) {
+            flight = flights.putIfAbsent(key, mine);
+            if (flight == null) {
+                flight = mine;
+                break;
+            }
+            if (flight.usable(System.nanoTime(), window)) break;
+            if (flights.replace(key, flight, mine)) {
+                flight = mine;
+                break;
+            }
+        }
+
+        if (flight == mine) {
+            lead(route, key, mine, request, response, chain);
+            return;
+        }
+
+        boolean wasDone = flight.result.isDone();
+        Shared shared = flight.await(waitNanos);
+        if (shared == null) {
+            route.fallbacks.increment();        // leader failed or was too slow
+            chain.doFilter(request, response);
+            return;
+        }
+        (wasDone ? route.cached : route.joined).increment();
+        shared.writeTo(response);
+    }
+
+    /* ================================
+       LEADER
+       ================================ */
+    private void lead(CoalescedRoute route, String key, Flight mine,
+                      HttpServletRequest request, HttpServletResponse response,
+                      FilterChain chain) throws ServletException, IOException {
+
+        route.leaders.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        Shared shared = null;
+        try {
+            chain.doFilter(request, wrapper);
+            shared = Shared.capture(wrapper, maxBodyBytes);
+        } finally {
+            mine.complete(shared);
+            if (shared == null || cacheNanos == 0 || shared.noStore()) {
+                flights.remove(key, mine);
+            } else if (flights.size() > maxEntries) {
+                sweep();
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // drop finished entries past the window, then arbitrary finished ones, down to 90%
+    private void sweep() {
+        long now = System.nanoTime();
+        flights.values().removeIf(f -> f.result.isDone() && !f.usable(now, cacheNanos));
+
+        Iterator<Flight> it = flights.values().iterator();
+        while (flights.size() >= maxEntries * 9L / 10 && it.hasNext()) {
+            if (it.next().result.isDone()) it.remove();
+        }
+    }
+
+    /* ================================
+       KEYS
+       ================================ */
+    private static String key(CoalescedRoute route, HttpServletRequest request) {
+        String role = request.getHeader(IdentityHeaders.ROLE);
+        String email = request.getHeader(IdentityHeaders.EMAIL);
+        if (role == null || email == null) return null;
+
+        String scope = route.sharedRoles.contains(role) ? "role:" + role : "user:" + email;
+        String query = request.getQueryString();
+
+        return request.getRequestURI()
+                + (query == null ? "" : "?" + query)
+                + "\n" + scope
+                + "\n" + Objects.toString(request.getHeader(HttpHeaders.ACCEPT), "")
+                + "\n" + Objects.toString(request.getHeader(HttpHeaders.ACCEPT_ENCODING), "");
+    }
+
+    private static boolean bypassCache(HttpServletRequest request) {
+        String cc = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        return cc != null && (cc.contains("no-cache") || cc.contains("no-store"));
+    }
+
+    private CoalescedRoute route(String path) {
+        for (CoalescedRoute r : routes) {
+            if (MATCHER.match(r.pattern, path)) return r;
+        }
+        return null;
+    }
+
+    /* ================================
+       STATE
+       ================================ */
+    private final class CoalescedRoute {
+
+        final String pattern;
+        final Set<String> sharedRoles;
+        final Counter leaders;
+        final Counter joined;
+        final Counter cached;
+        final Counter fallbacks;
+        final Counter bypassed;
+
+        CoalescedRoute(String pattern, Set<String> sharedRoles) {
+            this.pattern = pattern;
+            this.sharedRoles = sharedRoles;
+            this.leaders = counter("leader");
+            this.joined = counter("joined");
+            this.cached = counter("cached");
+            this.fallbacks = counter("fallback");
+            this.bypassed = counter("bypass");
+        }
+
+        private Counter counter(String result) {
+            return registry.counter("gateway.coalesce.requests", "route", pattern, "result", result);
+        }
+    }
+
+    private static final class Flight {
+
+        final CompletableFuture<Shared> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        void complete(Shared shared) {
+            completedAt = System.nanoTime();
+            result.complete(shared);
+        }
+
+        // still in flight, or a shareable response inside the cache window
+        boolean usable(long now, long window) {
+            if (!result.isDone()) return true;
+            Shared s = result.getNow(null);
+            return s != null && !s.noStore() && now - completedAt <= window;
+        }
+
+        Shared await(long nanos) throws IOException {
+            try {
+                return result.get(nanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a coalesced response", e);
+            }
+        }
+    }
+
+    private record Shared(int status, String contentType, Map<String, List<String>> headers,
+                          byte[] body, boolean noStore) {
+
+        static Shared capture(ContentCachingResponseWrapper w, int maxBodyBytes) {
+            if (w.getStatus() != HttpServletResponse.SC_OK
+                    || w.getContentSize() > maxBodyBytes
+                    || w.getHeader(HttpHeaders.SET_COOKIE) != null) {
+                return null;
+            }
+
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : w.getHeaderNames()) {
+                if (UNSHARED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) continue;
+                headers.putIfAbsent(name, List.copyOf(w.getHeaders(name)));
+            }
+            String cc = w.getHeader(HttpHeaders.CACHE_CONTROL);
+            return new Shared(w.getStatus(), w.getContentType(), headers,
+                    w.getContentAsByteArray(), cc != null && cc.contains("no-store"));
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> {
+                for (String v : values) response.addHeader(name, v);
+            });
+            if (contentType != null) response.setContentType(contentType);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
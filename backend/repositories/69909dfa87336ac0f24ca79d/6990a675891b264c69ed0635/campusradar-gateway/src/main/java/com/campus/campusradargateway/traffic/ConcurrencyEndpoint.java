@@ -0,0 +1,24 @@
+package com.campus.campusradargateway.traffic;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/* GET /actuator/concurrency: live limit, in-flight and rejections per route. */
+@Component
+@Endpoint(id = "concurrency")
+public class ConcurrencyEndpoint {
+
+    private final ConcurrencyLimitFilter filter;
+
+    public ConcurrencyEndpoint(ConcurrencyLimitFilter filter) {
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> limits() {
+        return filter.snapshot();
+    }
+}
@@ -0,0 +1,153 @@
+package com.campus.campusradargateway.traffic;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * Per-route adaptive concurrency limits with priority shedding. Runs
+ * ahead of security and token checks so a shed request costs nothing.
+ *
+ * Priority rules are "METHOD /path/pattern" or "/path/pattern" entries
+ * in gateway.concurrency.critical and gateway.concurrency.low; anything
+ * unmatched is NORMAL.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final Map<String, GradientLimit> limits = new LinkedHashMap<>();
+    private final List<Rule> critical;
+    private final List<Rule> low;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(
+            MeterRegistry registry,
+            @Value("${gateway.concurrency.routes:/api/auth,/api/profile,/api/drive,/api/selection,/api/notify}")
+            List<String> routes,
+            @Value("${gateway.concurrency.critical:}") List<String> critical,
+            @Value("${gateway.concurrency.low:}") List<String> low,
+            @Value("${gateway.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${gateway.concurrency.min-limit:5}") int minLimit,
+            @Value("${gateway.concurrency.max-limit:500}") int maxLimit,
+            @Value("${gateway.concurrency.window-millis:1000}") long windowMillis,
+            @Value("${gateway.concurrency.min-samples:10}") int minSamples,
+            @Value("${gateway.concurrency.retry-after-seconds:1}") int retryAfter
+    ) {
+        for (String route : routes) {
+            GradientLimit limit = new GradientLimit(initialLimit, minLimit, maxLimit, windowMillis, minSamples);
+            limits.put(route.trim(), limit);
+
+            Gauge.builder("gateway.concurrency.limit", limit, GradientLimit::limit)
+                    .tag("route", route.trim()).register(registry);
+            Gauge.builder("gateway.concurrency.inflight", limit, GradientLimit::inflight)
+                    .tag("route", route.trim()).register(registry);
+            for (Priority p : Priority.values()) {
+                registry.more().counter("gateway.concurrency.rejected",
+                        Tags.of("route", route.trim(), "priority", p.name()),
+                        limit, l -> l.rejected(p));
+            }
+        }
+        this.critical = parse(critical);
+        this.low = parse(low);
+        this.retryAfter = String.valueOf(retryAfter);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+        GradientLimit limit = limitFor(path);
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limit.tryAcquire(priorityOf(request.getMethod(), path))) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Gateway overloaded");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.getAttribute(StreamingLimitFilter.STREAMING) != null) {
+                limit.releaseUnsampled();
+            } else {
+                limit.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        limits.forEach((route, limit) -> s.put(route, limit.snapshot()));
+        return s;
+    }
+
+    private GradientLimit limitFor(String path) {
+        for (Map.Entry<String, GradientLimit> e : limits.entrySet()) {
+            String prefix = e.getKey();
+            if (path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Priority priorityOf(String method, String path) {
+        if (matches(critical, method, path)) return Priority.CRITICAL;
+        if (matches(low, method, path)) return Priority.LOW;
+        return Priority.NORMAL;
+    }
+
+    private static boolean matches(List<Rule> rules, String method, String path) {
+        for (Rule r : rules) {
+            if ((r.method() == null || r.method().equalsIgnoreCase(method))
+                    && MATCHER.match(r.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Rule> parse(List<String> specs) {
+        List<Rule> rules = new ArrayList<>();
+        for (String spec : specs) {
+            String s = spec.trim();
+            if (s.isEmpty()) continue;
+            int space = s.indexOf(' ');
+            rules.add(space < 0 ? new Rule(null, s)
+                    : new Rule(s.substring(0, space), s.substring(space + 1).trim()));
+        }
+        return rules;
+    }
+
+    private record Rule(String method, String pattern) {
+    }
+}
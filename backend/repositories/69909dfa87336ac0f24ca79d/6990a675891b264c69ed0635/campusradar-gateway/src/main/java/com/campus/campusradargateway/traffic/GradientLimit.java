@@ -0,0 +1,134 @@
+package com.campus.campusradargateway.traffic;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Adaptive concurrency limit for one route, in the style of Netflix's
+ * Gradient2: per window, compare the short-term average RTT with a slow
+ * long-term baseline. While latency stays near the baseline the limit
+ * grows by about sqrt(limit); when it rises the limit shrinks in
+ * proportion. A window containing 5xx responses or failures backs the
+ * limit off multiplicatively instead (AIMD).
+ */
+final class GradientLimit {
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final int LONG_WINDOWS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minSamples;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+
+    // window state, guarded by this
+    private long windowStart = System.nanoTime();
+    private int samples;
+    private long rttSum;
+    private int maxInflight;
+    private boolean dropped;
+    private double longRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, long windowMillis, int minSamples) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowMillis * 1_000_000;
+        this.minSamples = minSamples;
+        for (Priority p : Priority.values()) rejected.put(p, new LongAdder());
+    }
+
+    boolean tryAcquire(Priority priority) {
+        int cap = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inflight.get();
+            if (current >= cap) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    void release(long rttNanos, boolean failed) {
+        int before = inflight.getAndDecrement();
+
+        synchronized (this) {
+            samples++;
+            rttSum += rttNanos;
+            maxInflight = Math.max(maxInflight, before);
+            dropped |= failed;
+
+            long now = System.nanoTime();
+            if (now - windowStart >= windowNanos && samples >= minSamples) {
+                update();
+                windowStart = now;
+                samples = 0;
+                rttSum = 0;
+                maxInflight = 0;
+                dropped = false;
+            }
+        }
+    }
+
+    // frees the slot without an RTT sample: a long transfer says nothing about backend latency
+    void releaseUnsampled() {
+        inflight.decrementAndGet();
+    }
+
+    private void update() {
+        double shortRtt = (double) rttSum / samples;
+        longRtt = longRtt == 0 ? shortRtt
+                : longRtt + (shortRtt - longRtt) / LONG_WINDOWS;
+
+        // after a long slow period, let the baseline come back down quickly
+        if (longRtt / shortRtt > 2) longRtt *= 0.95;
+
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * BACKOFF;
+        } else if (maxInflight < current / 2) {
+            return;     // not using the limit, so the RTT says nothing about it
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+            next = current * gradient + Math.sqrt(current);
+        }
+
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    long rejected(Priority priority) {
+        return rejected.get(priority).sum();
+    }
+
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("limit", limit());
+        s.put("inflight", inflight());
+        s.put("baselineRttMillis", longRtt / 1_000_000);
+        Map<String, Long> r = new LinkedHashMap<>();
+        for (Priority p : Priority.values()) r.put(p.name(), rejected(p));
+        s.put("rejected", r);
+        return s;
+    }
+}
@@ -0,0 +1,23 @@
+package com.campus.campusradargateway.traffic;
+
+/*
+ * Share of a route's concurrency limit each class may fill. Once
+ * in-flight requests pass 70% of the limit only NORMAL and CRITICAL
+ * traffic is admitted, past 90% only CRITICAL, so reads are shed first.
+ */
+public enum Priority {
+
+    CRITICAL(1.0),
+    NORMAL(0.9),
+    LOW(0.7);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+}
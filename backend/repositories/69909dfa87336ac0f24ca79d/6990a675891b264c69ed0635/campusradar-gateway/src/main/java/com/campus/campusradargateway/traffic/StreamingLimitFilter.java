@@ -0,0 +1,194 @@
+package com.campus.campusradargateway.traffic;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Request body caps per route. The proxy itself copies bodies through a
+ * fixed buffer in both directions, and a blocked write upstream blocks
+ * the read from the client, so bulk imports, resume uploads and exports
+ * never sit in heap; this filter only bounds how much it will carry.
+ *
+ * Routes are "METHOD /path/pattern=size" entries in
+ * gateway.streaming.routes (size like 512MB, or nothing to only mark the
+ * route); everything else is capped at default-max-request-size. Listed
+ * routes are flagged as streaming so their transfer time is kept out of
+ * the concurrency limits and the balancer's latency stats.
+ *
+ * A declared Content-Length over the cap gets 413 before a byte is read;
+ * chunked bodies are counted as they stream and cut off at the cap.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class StreamingLimitFilter extends OncePerRequestFilter {
+
+    public static final String STREAMING = StreamingLimitFilter.class.getName() + ".STREAMING";
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final MeterRegistry registry;
+    private final List<StreamRule> rules = new ArrayList<>();
+    private final long defaultMaxBytes;
+
+    public StreamingLimitFilter(
+            MeterRegistry registry,
+            @Value("${gateway.streaming.routes:}") List<String> routeSpecs,
+            @Value("${gateway.streaming.default-max-request-size:10MB}") DataSize defaultMax
+    ) {
+        this.registry = registry;
+        for (String spec : routeSpecs) {
+            String s = spec.trim();
+            if (s.isEmpty()) continue;
+
+            String[] parts = s.split("=", 2);
+            long max = parts.length == 2 && !parts[1].isBlank()
+                    ? DataSize.parse(parts[1].trim()).toBytes() : -1;
+
+            String target = parts[0].trim();
+            int space = target.indexOf(' ');
+            rules.add(space < 0
+                    ? new StreamRule(null, target, max)
+                    : new StreamRule(target.substring(0, space), target.substring(space + 1).trim(), max));
+        }
+        this.defaultMaxBytes = defaultMax.toBytes();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        StreamRule rule = ruleFor(request.getMethod(), request.getRequestURI());
+        long max = rule == null ? defaultMaxBytes : rule.maxBytes();
+        String route = rule == null ? "default" : rule.pattern();
+
+        if (rule != null) request.setAttribute(STREAMING, Boolean.TRUE);
+
+        if (max < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (request.getContentLengthLong() > max) {
+            tooLarge(route, max, response);
+            return;
+        }
+
+        LimitedRequest limited = new LimitedRequest(request, max);
+        try {
+            chain.doFilter(limited, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            if (!limited.exceeded || response.isCommitted()) throw e;
+            tooLarge(route, max, response);
+        }
+    }
+
+    private void tooLarge(String route, long max, HttpServletResponse response) throws IOException {
+        registry.counter("gateway.streaming.rejected", "route", route).increment();
+        // the client may still be sending; do not keep the connection for the rest
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Request body exceeds " + max + " bytes");
+    }
+
+    private StreamRule ruleFor(String method, String path) {
+        for (StreamRule r : rules) {
+            if ((r.method() == null || r.method().equalsIgnoreCase(method))
+                    && MATCHER.match(r.pattern(), path)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    private record StreamRule(String method, String pattern, long maxBytes) {
+    }
+
+    /* ================================
+       COUNTING BODY
+       ================================ */
+    private static final class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final long max;
+        private ServletInputStream stream;
+        private volatile boolean exceeded;
+
+        LimitedRequest(HttpServletRequest request, long max) {
+            super(request);
+            this.max = max;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) stream = new LimitedInputStream(super.getInputStream());
+            return stream;
+        }
+
+        private final class LimitedInputStream extends ServletInputStream {
+
+            private final ServletInputStream in;
+            private long count;
+
+            LimitedInputStream(ServletInputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b >= 0) counted(1);
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                if (n > 0) counted(n);
+                return n;
+            }
+
+            private void counted(int n) throws IOException {
+                count += n;
+                if (count > max) {
+                    exceeded = true;
+                    throw new IOException("Request body exceeds " + max + " bytes");
+                }
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.isFinished();
+            }
+
+            @Override
+            public boolean isReady() {
+                return in.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                in.setReadListener(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.campus.campusradargateway.aggregate;
+
+import com.campus.campusradargateway.routing.InstanceStatsRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentHomeAggregatorTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService stubThreads = Executors.newCachedThreadPool();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+
+    private StudentHomeAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        InstanceStatsRegistry stats = new InstanceStatsRegistry(registry, 100, 30_000, 10, 50, 10_000);
+        // 300ms per leg
+        aggregator = new StudentHomeAggregator(loadBalancer, stats, JsonMapper.builder().build(),
+                registry, 300, 300, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(s -> s.stop(0));
+        stubThreads.shutdownNow();
+    }
+
+    @Test
+    void mergesEveryLegThatAnswered() throws IOException {
+        leg("drive-service", 200, "[{\"id\":1}]", 0);
+        leg("selection-service2", 200, "{\"status\":\"SELECTED\"}", 0);
+        leg("profile-service2", 200, "{\"id\":7}", 0);
+
+        StudentHomeAggregator.StudentHome home = load();
+
+        assertThat(home.status()).isEqualTo(200);
+        assertThat(home.body()).containsEntry("partial", false).containsEntry("errors", Map.of());
+        assertThat(((JsonNode) home.body().get("profile")).get("id").asInt()).isEqualTo(7);
+        assertThat(responses("complete")).isEqualTo(1);
+    }
+
+    @Test
+    void answers200WhileAnyLegAnswered() throws IOException {
+        leg("drive-service", 200, "[]", 0);
+        leg("selection-service2", 500, "boom", 0);
+        leg("profile-service2", 200, "{\"id\":7}", 3000);
+
+        long start = System.nanoTime();
+        StudentHomeAggregator.StudentHome home = load();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(home.status()).isEqualTo(200);
+        assertThat(home.body()).containsEntry("partial", true)
+                .containsEntry("selections", null)
+                .containsEntry("profile", null)
+                .containsEntry("errors", Map.of(
+                        "selections", "HTTP 500",
+                        "profile", "Timed out after 300ms"));
+        // the slow leg is cut at its own deadline, not waited out
+        assertThat(elapsedMillis).isLessThan(2000);
+        assertThat(responses("partial")).isEqualTo(1);
+    }
+
+    @Test
+    void passesASharedClientErrorThrough() throws IOException {
+        leg("drive-service", 403, "", 0);
+        leg("selection-service2", 403, "", 0);
+        leg("profile-service2", 403, "", 0);
+
+        StudentHomeAggregator.StudentHome home = load();
+
+        assertThat(home.status()).isEqualTo(403);
+        assertThat(home.body()).containsEntry("partial", true);
+        assertThat(responses("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void answers502WhenNothingAnsweredForDifferentReasons() throws IOException {
+        leg("drive-service", 401, "", 0);
+        leg("selection-service2", 403, "", 0);
+        leg("profile-service2", 200, "{}", 3000);
+
+        assertThat(load().status()).isEqualTo(502);
+    }
+
+    @Test
+    void answers502WhenEveryLegIsDown() throws IOException {
+        leg("drive-service", 503, "", 0);
+        leg("selection-service2", 503, "", 0);
+        when(loadBalancer.choose("profile-service2")).thenReturn(null);
+
+        StudentHomeAggregator.StudentHome home = load();
+
+        assertThat(home.status()).isEqualTo(502);
+        assertThat(home.body()).containsEntry("errors", Map.of(
+                "drives", "HTTP 503",
+                "selections", "HTTP 503",
+                "profile", "No instance of profile-service2"));
+    }
+
+    private StudentHomeAggregator.StudentHome load() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/home/student/7");
+        request.addHeader("Authorization", "Bearer token");
+        return aggregator.load(7L, request);
+    }
+
+    private double responses(String result) {
+        return registry.counter("gateway.aggregate.responses", "result", result).count();
+    }
+
+    private void leg(String serviceId, int status, String body, long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(stubThreads);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException ignored) {
+                // the aggregator gave up on this leg
+            }
+        });
+        server.start();
+        servers.add(server);
+
+        when(loadBalancer.choose(serviceId)).thenReturn(new DefaultServiceInstance(
+                serviceId + "-1", serviceId, "127.0.0.1", server.getAddress().getPort(), false));
+    }
+}
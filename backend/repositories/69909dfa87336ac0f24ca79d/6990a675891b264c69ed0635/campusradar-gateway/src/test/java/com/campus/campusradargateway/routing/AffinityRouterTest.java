@@ -0,0 +1,89 @@
+package com.campus.campusradargateway.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AffinityRouterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceStatsRegistry stats = new InstanceStatsRegistry(registry, 3, 30_000, 10, 50, 10_000);
+    private final AffinityRouter router = new AffinityRouter(stats, registry, 100, 1.25);
+
+    private final ServiceInstance a = instance(8081);
+    private final ServiceInstance b = instance(8082);
+    private final ServiceInstance c = instance(8083);
+
+    @Test
+    void keepsADriveOnOneInstance() {
+        ServiceInstance home = router.choose("drive-service", "42", List.of(a, b, c));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(router.choose("drive-service", "42", List.of(c, a, b))).isEqualTo(home);
+        }
+    }
+
+    @Test
+    void spreadsDrivesOverTheRing() {
+        Map<ServiceInstance, Integer> counts = new HashMap<>();
+        for (int d = 0; d < 3000; d++) {
+            counts.merge(router.choose("drive-service", String.valueOf(d), List.of(a, b, c)), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(a, b, c);
+        assertThat(counts.values()).allSatisfy(n -> assertThat(n).isBetween(700, 1300));
+    }
+
+    @Test
+    void leavingInstanceOnlyMovesItsOwnDrives() {
+        Map<String, ServiceInstance> before = new HashMap<>();
+        for (int d = 0; d < 1000; d++) {
+            before.put(String.valueOf(d), router.choose("drive-service", String.valueOf(d), List.of(a, b, c)));
+        }
+
+        before.forEach((drive, home) -> {
+            ServiceInstance after = router.choose("drive-service", drive, List.of(a, b));
+            if (!home.equals(c)) assertThat(after).isEqualTo(home);
+        });
+    }
+
+    @Test
+    void spillsPastAnOverloadedHome() {
+        ServiceInstance home = router.choose("drive-service", "42", List.of(a, b, c));
+        // capacity is ceil(1.25 x (total + 1) / 3); 6 on the home alone makes it 3
+        for (int i = 0; i < 6; i++) stats.start(home);
+
+        ServiceInstance chosen = router.choose("drive-service", "42", List.of(a, b, c));
+
+        assertThat(chosen).isNotEqualTo(home);
+        assertThat(registry.counter("gateway.affinity.requests", "result", "home").count()).isEqualTo(1);
+        assertThat(registry.counter("gateway.affinity.requests", "result", "spill").count()).isEqualTo(1);
+
+        for (int i = 0; i < 6; i++) stats.abandon(home);
+        assertThat(router.choose("drive-service", "42", List.of(a, b, c))).isEqualTo(home);
+    }
+
+    @Test
+    void loadStaysWithinTheBoundUnderOneHotDrive() {
+        List<ServiceInstance> pool = List.of(a, b, c);
+        for (int i = 0; i < 30; i++) {
+            stats.start(router.choose("drive-service", "42", pool));
+        }
+
+        int bound = (int) Math.ceil(1.25 * 30 / 3);
+        for (ServiceInstance i : pool) {
+            assertThat(stats.stats(i).outstanding()).isLessThanOrEqualTo(bound);
+        }
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("drive-" + port, "drive-service", "10.0.0.1", port, false);
+    }
+}
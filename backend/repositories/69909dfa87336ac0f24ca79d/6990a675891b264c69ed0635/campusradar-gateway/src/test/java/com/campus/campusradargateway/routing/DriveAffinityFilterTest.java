@@ -0,0 +1,99 @@
+package com.campus.campusradargateway.routing;
+
+import com.campus.common.security.IdentityHeaders;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriveAffinityFilterTest {
+
+    private static final String BODY = "{\"driveId\":42,\"studentEmail\":\"s@college.com\"}";
+
+    private final DriveAffinityFilter filter = new DriveAffinityFilter(
+            JsonMapper.builder().build(),
+            List.of("/api/selection/**"),
+            List.of("/api/selection/drive/{driveId}/**"),
+            1024);
+
+    @Test
+    void takesDriveIdFromPathWithoutReadingBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/selection/drive/7/applicants");
+
+        assertThat(filter(request).getAttribute(AffinityRouter.ATTRIBUTE)).isEqualTo("7");
+    }
+
+    @Test
+    void readsAndReplaysJsonBodyOfAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = json(BODY);
+        request.addHeader(IdentityHeaders.SIGNATURE, "signed-by-identity-relay");
+
+        HttpServletRequest forwarded = filter(request);
+
+        assertThat(forwarded.getAttribute(AffinityRouter.ATTRIBUTE)).isEqualTo("42");
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void leavesBodyOfAnonymousRequestUnread() throws Exception {
+        MockHttpServletRequest request = json(BODY);
+
+        HttpServletRequest forwarded = filter(request);
+
+        assertThat(forwarded).isSameAs(request);
+        assertThat(forwarded.getAttribute(AffinityRouter.ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void replayedBodySupportsReadListener() throws Exception {
+        MockHttpServletRequest request = json(BODY);
+        request.addHeader(IdentityHeaders.SIGNATURE, "signed-by-identity-relay");
+        ServletInputStream in = filter(request).getInputStream();
+
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] done = new boolean[1];
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) read.write(in.read());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                done[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(done[0]).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    private HttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+
+    private static MockHttpServletRequest json(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/selection/apply");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+package com.campus.campusradargateway.routing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgingFilterTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService stubThreads = Executors.newCachedThreadPool();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+    private final DiscoveryClient discovery = mock(DiscoveryClient.class);
+
+    private ServiceInstance slow;
+    private ServiceInstance fast;
+    private ServiceInstance broken;
+    private HedgingFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        slow = stub(200, "slow", 2000);
+        fast = stub(200, "fast", 0);
+        broken = stub(503, "broken", 0);
+
+        InstanceStatsRegistry stats = new InstanceStatsRegistry(registry, 100, 30_000, 10, 50, 10_000);
+        // 10% budget, burst of 2 hedges, hedge after 200ms while the p95 is lower
+        filter = new HedgingFilter(loadBalancer, discovery, stats, registry,
+                List.of("/api/drive/**=drive-service"), 200, 200, 5000, 10, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(s -> s.stop(0));
+        stubThreads.shutdownNow();
+    }
+
+    @Test
+    void passesThroughWithNoInstanceToHedgeAgainst() throws Exception {
+        route(slow);
+        when(discovery.getInstances("drive-service")).thenReturn(List.of(slow));
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/drive/7"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(sent()).isZero();
+    }
+
+    @Test
+    void leavesOtherMethodsAndPathsAlone() throws Exception {
+        MockFilterChain post = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/drive/7"), new MockHttpServletResponse(), post);
+        MockFilterChain other = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/profile/7"), new MockHttpServletResponse(), other);
+
+        assertThat(post.getRequest()).isNotNull();
+        assertThat(other.getRequest()).isNotNull();
+    }
+
+    @Test
+    void hedgesASlowPrimaryAndReturnsTheFirstGoodAnswer() throws Exception {
+        route(slow);
+        when(discovery.getInstances("drive-service")).thenReturn(List.of(slow, fast));
+
+        MockHttpServletResponse response = get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("fast");
+        assertThat(sent()).isEqualTo(1);
+        assertThat(registry.counter("gateway.hedge.wins", "route", "/api/drive/**").count()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsHedgingWhenTheBudgetIsSpentUntilPrimariesRefillIt() throws Exception {
+        when(discovery.getInstances("drive-service")).thenReturn(List.of(slow, fast));
+
+        // the burst of two
+        route(slow);
+        assertThat(get().getContentAsString()).isEqualTo("fast");
+        assertThat(get().getContentAsString()).isEqualTo("fast");
+
+        // a failed primary would be hedged, but the bucket is down to 0.2 of a hedge
+        route(broken);
+        assertThat(get().getStatus()).isEqualTo(503);
+        assertThat(sent()).isEqualTo(2);
+        assertThat(registry.counter("gateway.hedge.budget.exhausted").count()).isEqualTo(1);
+
+        // each primary adds a tenth of a hedge
+        route(fast);
+        for (int i = 0; i < 8; i++) assertThat(get().getContentAsString()).isEqualTo("fast");
+        assertThat(sent()).isEqualTo(2);
+
+        route(slow);
+        assertThat(get().getContentAsString()).isEqualTo("fast");
+        assertThat(sent()).isEqualTo(3);
+        assertThat(registry.counter("gateway.hedge.budget.exhausted").count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse get() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/drive/7"), response, new MockFilterChain());
+        return response;
+    }
+
+    private void route(ServiceInstance primary) {
+        when(loadBalancer.choose("drive-service")).thenReturn(primary);
+    }
+
+    private double sent() {
+        return registry.counter("gateway.hedge.sent", "route", "/api/drive/**").count();
+    }
+
+    private ServiceInstance stub(int status, String body, long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(stubThreads);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException ignored) {
+                // the hedge won and the gateway hung up
+            }
+        });
+        server.start();
+        servers.add(server);
+
+        int port = server.getAddress().getPort();
+        return new DefaultServiceInstance(body, "drive-service", "127.0.0.1", port, false);
+    }
+}
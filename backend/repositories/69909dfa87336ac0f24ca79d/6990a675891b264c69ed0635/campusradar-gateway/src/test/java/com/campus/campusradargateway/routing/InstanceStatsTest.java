@@ -0,0 +1,94 @@
+package com.campus.campusradargateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceStatsTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    // 3 failures in a row eject for 1s, up to 4s; EWMA decays over 100ms
+    private final InstanceStats.Outliers outliers =
+            new InstanceStats.Outliers(3, 1000 * MILLIS, 4, 100 * MILLIS);
+
+    @Test
+    void takesASlowerSampleAtOnce() {
+        InstanceStats stats = new InstanceStats();
+        sample(stats, 10 * MILLIS, 0);
+        sample(stats, 200 * MILLIS, 1);
+
+        assertThat(stats.cost()).isEqualTo(200 * MILLIS);
+    }
+
+    @Test
+    void fasterSamplesPullTheAverageDownWithTime() {
+        InstanceStats close = new InstanceStats();
+        sample(close, 200 * MILLIS, 0);
+        sample(close, 10 * MILLIS, 10 * MILLIS);
+
+        InstanceStats apart = new InstanceStats();
+        sample(apart, 200 * MILLIS, 0);
+        sample(apart, 10 * MILLIS, 1000 * MILLIS);
+
+        assertThat(close.cost()).isLessThan(200.0 * MILLIS).isGreaterThan(150.0 * MILLIS);
+        assertThat(apart.cost()).isLessThan(11.0 * MILLIS);
+    }
+
+    @Test
+    void costGrowsWithOutstandingRequests() {
+        InstanceStats stats = new InstanceStats();
+        sample(stats, 10 * MILLIS, 0);
+
+        stats.start();
+        stats.start();
+
+        assertThat(stats.outstanding()).isEqualTo(2);
+        assertThat(stats.cost()).isEqualTo(30.0 * MILLIS);
+
+        stats.abandon();
+        assertThat(stats.cost()).isEqualTo(20.0 * MILLIS);
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresForAGrowingPeriod() {
+        InstanceStats stats = new InstanceStats();
+        long now = 0;
+
+        assertThat(fail(stats, now)).isFalse();
+        assertThat(fail(stats, now)).isFalse();
+        assertThat(fail(stats, now)).isTrue();
+        assertThat(stats.isEjected(now + 999 * MILLIS)).isTrue();
+        assertThat(stats.isEjected(now + 1000 * MILLIS)).isFalse();
+
+        now += 1000 * MILLIS;
+        fail(stats, now);
+        fail(stats, now);
+        assertThat(fail(stats, now)).isTrue();
+        assertThat(stats.isEjected(now + 1999 * MILLIS)).isTrue();
+        assertThat(stats.isEjected(now + 2000 * MILLIS)).isFalse();
+    }
+
+    @Test
+    void successResetsTheFailureRun() {
+        InstanceStats stats = new InstanceStats();
+
+        fail(stats, 0);
+        fail(stats, 0);
+        sample(stats, 10 * MILLIS, 0);
+        fail(stats, 0);
+        assertThat(fail(stats, 0)).isFalse();
+
+        assertThat(stats.isEjected(0)).isFalse();
+    }
+
+    private void sample(InstanceStats stats, long rttNanos, long now) {
+        stats.start();
+        stats.complete(rttNanos, false, now, outliers);
+    }
+
+    private boolean fail(InstanceStats stats, long now) {
+        stats.start();
+        return stats.complete(-1, true, now, outliers);
+    }
+}
@@ -0,0 +1,104 @@
+package com.campus.campusradargateway.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceStatsRegistry stats = new InstanceStatsRegistry(registry, 3, 30_000, 10, 50, 10_000);
+    private final LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(
+            null, "drive-service", stats, new AffinityRouter(stats, registry, 100, 1.25));
+
+    private final ServiceInstance a = instance(8081);
+    private final ServiceInstance b = instance(8082);
+    private final ServiceInstance c = instance(8083);
+
+    @Test
+    void emptyPoolHasNoServer() {
+        assertThat(balancer.choose(List.of(), null).hasServer()).isFalse();
+    }
+
+    @Test
+    void prefersTheFasterOfTwo() {
+        sample(a, 50 * MILLIS);
+        sample(b, 5 * MILLIS);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(balancer.choose(List.of(a, b), null).getServer()).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void weighsLatencyByOutstandingRequests() {
+        sample(a, 20 * MILLIS);
+        sample(b, 5 * MILLIS);
+        for (int i = 0; i < 4; i++) stats.start(b);    // 5ms x 5 > 20ms x 1
+
+        assertThat(balancer.choose(List.of(a, b), null).getServer()).isEqualTo(a);
+    }
+
+    @Test
+    void triesFreshInstancesFirst() {
+        sample(a, 5 * MILLIS);
+        sample(b, 5 * MILLIS);
+
+        assertThat(balancer.choose(List.of(a, c), null).getServer()).isEqualTo(c);
+    }
+
+    @Test
+    void neverPicksTheSlowestOfThree() {
+        sample(a, 5 * MILLIS);
+        sample(b, 6 * MILLIS);
+        sample(c, 500 * MILLIS);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(balancer.choose(List.of(a, b, c), null).getServer()).isNotEqualTo(c);
+        }
+    }
+
+    @Test
+    void skipsEjectedInstances() {
+        for (int i = 0; i < 3; i++) fail(a, 1 * MILLIS);
+        sample(b, 500 * MILLIS);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(balancer.choose(List.of(a, b, c), null).getServer()).isNotEqualTo(a);
+        }
+        assertThat(registry.counter("gateway.lb.ejections", "service", "drive-service").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsEjectedInstancesWhenTooManyAreOut() {
+        for (int i = 0; i < 3; i++) {
+            fail(a, 1 * MILLIS);
+            fail(b, 1 * MILLIS);
+        }
+
+        // two of three out is past the 50% cap, so the whole pool stays eligible
+        assertThat(stats.healthy(List.of(a, b, c))).containsExactly(a, b, c);
+        assertThat(stats.healthy(List.of(a, c, b, instance(8084), instance(8085)))).hasSize(3);
+    }
+
+    private void sample(ServiceInstance instance, long rttNanos) {
+        stats.start(instance);
+        stats.record(instance, rttNanos, false);
+    }
+
+    private void fail(ServiceInstance instance, long rttNanos) {
+        stats.start(instance);
+        stats.record(instance, rttNanos, true);
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("drive-" + port, "drive-service", "10.0.0.1", port, false);
+    }
+}
@@ -0,0 +1,152 @@
+package com.campus.campusradargateway.security;
+
+import com.campus.common.security.IdentityHeaders;
+import com.campus.common.security.JwtVerifier;
+import com.campus.common.security.RevocationList;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdentityRelayFilterTest {
+
+    private static final String JWT_SECRET = "test_jwt_secret_test_jwt_secret_0123456789";
+
+    private IdentityHeaders identityHeaders;
+    private RevocationList revocations;
+    private IdentityRelayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtVerifier jwtVerifier = new JwtVerifier(JWT_SECRET, 100, new SimpleMeterRegistry());
+
+        identityHeaders = new IdentityHeaders("test_gateway_identity_secret");
+        revocations = mock(RevocationList.class);
+        filter = new IdentityRelayFilter(jwtVerifier, identityHeaders, revocations);
+    }
+
+    @Test
+    void replacesClientForwardedForWithPeerAddress() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+        request.addHeader(IdentityHeaders.CLIENT_IP, "198.51.100.1");
+        request.addHeader(IdentityHeaders.CLIENT_IP_SIGNATURE, "forged");
+
+        HttpServletRequest forwarded = relay(request);
+
+        assertThat(Collections.list(forwarded.getHeaders("X-Forwarded-For"))).containsExactly("203.0.113.7");
+        assertThat(forwarded.getHeader(IdentityHeaders.CLIENT_IP)).isEqualTo("203.0.113.7");
+        assertThat(forwarded.getHeader(IdentityHeaders.CLIENT_IP_SIGNATURE))
+                .isEqualTo(identityHeaders.signClientIp("203.0.113.7"));
+    }
+
+    @Test
+    void dropsSpoofedIdentityWithoutToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive");
+        request.addHeader(IdentityHeaders.EMAIL, "admin@college.com");
+        request.addHeader(IdentityHeaders.ROLE, "ADMIN");
+
+        HttpServletRequest forwarded = relay(request);
+
+        assertThat(forwarded.getHeader(IdentityHeaders.EMAIL)).isNull();
+        assertThat(forwarded.getHeader(IdentityHeaders.ROLE)).isNull();
+    }
+
+    @Test
+    void forwardsPublicAuthEndpointsWithExpiredTokenUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/refresh");
+        request.addHeader("Authorization", "Bearer expired.or.garbage");
+        request.addHeader(IdentityHeaders.EMAIL, "admin@college.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded).isNotNull();
+        assertThat(forwarded.getHeader(IdentityHeaders.EMAIL)).isNull();
+        assertThat(forwarded.getHeader(IdentityHeaders.SIGNATURE)).isNull();
+    }
+
+    @Test
+    void rejectsInvalidTokenElsewhere() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive");
+        request.addHeader("Authorization", "Bearer expired.or.garbage");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void signsIdentityForValidToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive");
+        request.addHeader("Authorization", "Bearer " + token("student@college.com", "STUDENT"));
+
+        HttpServletRequest forwarded = relay(request);
+
+        assertThat(forwarded.getHeader(IdentityHeaders.EMAIL)).isEqualTo("student@college.com");
+        assertThat(forwarded.getHeader(IdentityHeaders.ROLE)).isEqualTo("STUDENT");
+        assertThat(forwarded.getHeader(IdentityHeaders.SIGNATURE)).isEqualTo(identityHeaders.sign(
+                "student@college.com", "STUDENT", Long.parseLong(forwarded.getHeader(IdentityHeaders.EXPIRES))));
+    }
+
+    @Test
+    void rejectsRevokedTokenBeforeAnythingDownstream() throws Exception {
+        when(revocations.isRevoked(eq("student@college.com"), anyLong())).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive");
+        request.addHeader("Authorization", "Bearer " + token("student@college.com", "STUDENT"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void forwardsRevokedTokenToLogoutWithoutIdentity() throws Exception {
+        when(revocations.isRevoked(eq("student@college.com"), anyLong())).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/logout");
+        request.addHeader("Authorization", "Bearer " + token("student@college.com", "STUDENT"));
+
+        HttpServletRequest forwarded = relay(request);
+
+        assertThat(forwarded.getHeader(IdentityHeaders.EMAIL)).isNull();
+    }
+
+    private static String token(String email, String role) {
+        return Jwts.builder()
+                .subject(email)
+                .claim("role", role)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes()))
+                .compact();
+    }
+
+    private HttpServletRequest relay(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+}
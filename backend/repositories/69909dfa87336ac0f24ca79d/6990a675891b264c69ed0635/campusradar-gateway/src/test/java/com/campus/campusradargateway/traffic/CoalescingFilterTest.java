@@ -0,0 +1,192 @@
+package com.campus.campusradargateway.traffic;
+
+import com.campus.common.security.IdentityHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescingFilterTest {
+
+    private static final String ROUTE = "/api/drive/**";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() throws Exception {
+        CoalescingFilter filter = filter(0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            answer(res, 200, "drives");
+        };
+
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // different students, one shared STUDENT scope
+            MockHttpServletRequest request = get("STUDENT", "s" + i + "@college.com");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            responses.add(response);
+            threads.add(new Thread(() -> run(filter, request, response, chain)));
+        }
+
+        threads.get(0).start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (Thread t : threads.subList(1, threads.size())) t.start();
+        for (Thread t : threads.subList(1, threads.size())) awaitParked(t);
+        release.countDown();
+        for (Thread t : threads) t.join(5000);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(responses).allSatisfy(r -> {
+            assertThat(r.getStatus()).isEqualTo(200);
+            assertThat(r.getContentAsString()).isEqualTo("drives");
+        });
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("joined")).isEqualTo(7);
+    }
+
+    @Test
+    void servesAFinishedResponseForTheCacheWindow() throws Exception {
+        CoalescingFilter filter = filter(60_000);
+
+        MockHttpServletResponse first = call(filter, get("STUDENT", "a@college.com"), 200, "drives");
+        MockHttpServletResponse second = call(filter, get("STUDENT", "b@college.com"), 200, "other");
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(count("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void scopesUnsharedRolesByEmail() throws Exception {
+        CoalescingFilter filter = filter(60_000);
+
+        call(filter, get("RECRUITER", "r1@corp.com"), 200, "r1");
+        call(filter, get("RECRUITER", "r2@corp.com"), 200, "r2");
+        MockHttpServletResponse again = call(filter, get("RECRUITER", "r1@corp.com"), 200, "fresh");
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(again.getContentAsString()).isEqualTo("r1");
+    }
+
+    @Test
+    void neverCoalescesAnonymousCalls() throws Exception {
+        CoalescingFilter filter = filter(60_000);
+
+        call(filter, new MockHttpServletRequest("GET", "/api/drive/all"), 200, "drives");
+        call(filter, new MockHttpServletRequest("GET", "/api/drive/all"), 200, "drives");
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(count("bypass")).isEqualTo(2);
+    }
+
+    @Test
+    void sharesOnlyPlain200s() throws Exception {
+        CoalescingFilter filter = filter(60_000);
+
+        call(filter, get("STUDENT", "a@college.com"), 503, "down");
+        MockHttpServletResponse afterError = call(filter, get("STUDENT", "a@college.com"), 200, "drives");
+        assertThat(afterError.getContentAsString()).isEqualTo("drives");
+
+        MockHttpServletRequest other = get("STUDENT", "a@college.com");
+        other.setQueryString("page=2");
+        callWithCookie(filter, other);
+        call(filter, copy(other), 200, "page 2");
+
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    void noCacheSkipsAFinishedResponse() throws Exception {
+        CoalescingFilter filter = filter(60_000);
+
+        call(filter, get("STUDENT", "a@college.com"), 200, "old");
+        MockHttpServletRequest request = get("STUDENT", "a@college.com");
+        request.addHeader("Cache-Control", "no-cache");
+        MockHttpServletResponse fresh = call(filter, request, 200, "new");
+
+        assertThat(fresh.getContentAsString()).isEqualTo("new");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private CoalescingFilter filter(long cacheMillis) {
+        return new CoalescingFilter(registry, List.of(ROUTE + "=STUDENT|TPO"), cacheMillis, 5000, 1024, 100);
+    }
+
+    private static MockHttpServletRequest get(String role, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive/all");
+        request.addHeader(IdentityHeaders.ROLE, role);
+        request.addHeader(IdentityHeaders.EMAIL, email);
+        request.addHeader("Accept", "application/json");
+        return request;
+    }
+
+    private static MockHttpServletRequest copy(MockHttpServletRequest request) {
+        MockHttpServletRequest c = get(request.getHeader(IdentityHeaders.ROLE), request.getHeader(IdentityHeaders.EMAIL));
+        c.setQueryString(request.getQueryString());
+        return c;
+    }
+
+    private MockHttpServletResponse call(CoalescingFilter filter, MockHttpServletRequest request,
+                                         int status, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> answer(res, status, body));
+        return response;
+    }
+
+    private void callWithCookie(CoalescingFilter filter, MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ((HttpServletResponse) res).addHeader("Set-Cookie", "s=1");
+            answer(res, 200, "private");
+        });
+    }
+
+    private void answer(ServletResponse res, int status, String body) throws IOException {
+        upstreamCalls.incrementAndGet();
+        ((HttpServletResponse) res).setStatus(status);
+        res.setContentType("text/plain");
+        res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void run(CoalescingFilter filter, MockHttpServletRequest request,
+                            MockHttpServletResponse response, FilterChain chain) {
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitParked(Thread t) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (t.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double count(String result) {
+        return registry.counter("gateway.coalesce.requests", "route", ROUTE, "result", result).count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.campus.campusradargateway.traffic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void lowerPrioritiesFillLessOfTheLimit() {
+        GradientLimit limit = new GradientLimit(10, 1, 100, 1000, 10);
+
+        for (int i = 0; i < 7; i++) assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        assertThat(limit.tryAcquire(Priority.LOW)).isFalse();
+
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isFalse();
+
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isFalse();
+
+        assertThat(limit.inflight()).isEqualTo(10);
+        assertThat(limit.rejected(Priority.LOW)).isEqualTo(1);
+        assertThat(limit.rejected(Priority.NORMAL)).isEqualTo(1);
+        assertThat(limit.rejected(Priority.CRITICAL)).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAtFullUse() {
+        GradientLimit limit = new GradientLimit(10, 1, 100, 0, 1);
+
+        int before = limit.limit();
+        for (int round = 0; round < 20; round++) saturate(limit, 10 * MILLIS, false);
+
+        assertThat(limit.limit()).isGreaterThan(before);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveBaseline() {
+        GradientLimit limit = new GradientLimit(40, 1, 100, 0, 1);
+        saturate(limit, 10 * MILLIS, false);
+        int settled = limit.limit();
+
+        for (int round = 0; round < 5; round++) saturate(limit, 100 * MILLIS, false);
+
+        assertThat(limit.limit()).isLessThan(settled);
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        GradientLimit limit = new GradientLimit(50, 5, 100, 0, 1);
+
+        int previous = limit.limit();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+            limit.release(10 * MILLIS, true);
+            assertThat(limit.limit()).isLessThan(previous);
+            previous = limit.limit();
+        }
+
+        for (int i = 0; i < 500; i++) {
+            limit.tryAcquire(Priority.CRITICAL);
+            limit.release(10 * MILLIS, true);
+        }
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTheLimitWhileMostlyIdle() {
+        GradientLimit limit = new GradientLimit(40, 1, 100, 0, 1);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+            limit.release(i % 2 == 0 ? MILLIS : 500 * MILLIS, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(40);
+    }
+
+    @Test
+    void unsampledReleaseOnlyFreesTheSlot() {
+        GradientLimit limit = new GradientLimit(1, 1, 100, 0, 1);
+
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isFalse();
+        limit.releaseUnsampled();
+
+        assertThat(limit.inflight()).isZero();
+        assertThat(limit.limit()).isEqualTo(1);
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+    }
+
+    // fills the current limit, then releases everything with the same RTT
+    private static void saturate(GradientLimit limit, long rttNanos, boolean failed) {
+        int n = 0;
+        while (limit.tryAcquire(Priority.CRITICAL)) n++;
+        for (int i = 0; i < n; i++) limit.release(rttNanos, failed);
+    }
+}
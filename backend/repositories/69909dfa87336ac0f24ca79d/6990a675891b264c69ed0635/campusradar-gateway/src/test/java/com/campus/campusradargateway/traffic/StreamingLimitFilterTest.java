@@ -0,0 +1,207 @@
+package com.campus.campusradargateway.traffic;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StreamingLimitFilter filter = new StreamingLimitFilter(registry,
+            List.of("POST /api/profile/import=1KB", "GET /api/drive/*/export"),
+            DataSize.ofBytes(100));
+
+    @Test
+    void rejectsADeclaredLengthOverTheCapBeforeReading() throws Exception {
+        MockHttpServletRequest request = post("/api/profile/import", 2048);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(response.getHeader("Connection")).isEqualTo("close");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.counter("gateway.streaming.rejected", "route", "/api/profile/import").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void cutsOffAChunkedBodyAtTheCap() throws Exception {
+        HttpServletRequest chunked = new HttpServletRequestWrapper(post("/api/profile/import", 2048)) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        AtomicLong read = new AtomicLong();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(chunked, response, drain(read));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(read.get()).isEqualTo(1024);
+    }
+
+    @Test
+    void carriesABodyWithinTheCapAndMarksTheRouteStreaming() throws Exception {
+        MockHttpServletRequest request = post("/api/profile/import", 1024);
+        AtomicLong read = new AtomicLong();
+
+        filter.doFilter(request, new MockHttpServletResponse(), drain(read));
+
+        assertThat(read.get()).isEqualTo(1024);
+        assertThat(request.getAttribute(StreamingLimitFilter.STREAMING)).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void appliesTheDefaultCapElsewhere() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = post("/api/selection/invite", 101);
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(request.getAttribute(StreamingLimitFilter.STREAMING)).isNull();
+    }
+
+    @Test
+    void routeWithoutASizeIsOnlyMarked() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drive/7/export");
+        request.setContent(new byte[500]);
+        AtomicLong read = new AtomicLong();
+
+        filter.doFilter(request, new MockHttpServletResponse(), drain(read));
+
+        assertThat(read.get()).isEqualTo(500);
+        assertThat(request.getAttribute(StreamingLimitFilter.STREAMING)).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void streamsHundredsOfMegabytesInConstantMemory() throws Exception {
+        StreamingLimitFilter bulk = new StreamingLimitFilter(registry,
+                List.of("POST /api/profile/students/import=512MB"), DataSize.ofMegabytes(10));
+        long body = DataSize.ofMegabytes(400).toBytes();
+        AtomicLong read = new AtomicLong();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long allocated = allocatedBytes();
+        bulk.doFilter(generated("/api/profile/students/import", body), response, drain(read, 16 * 1024));
+        allocated = allocatedBytes() - allocated;
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(read.get()).isEqualTo(body);
+        // the filter counts bytes as they pass; nothing near the body size is held
+        assertThat(allocated).isLessThan(DataSize.ofMegabytes(16).toBytes());
+    }
+
+    @Test
+    void cutsOffAHundredsOfMegabytesChunkedBodyAtTheCap() throws Exception {
+        StreamingLimitFilter bulk = new StreamingLimitFilter(registry,
+                List.of("POST /api/profile/students/import=256MB"), DataSize.ofMegabytes(10));
+        long cap = DataSize.ofMegabytes(256).toBytes();
+        AtomicLong read = new AtomicLong();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long allocated = allocatedBytes();
+        bulk.doFilter(generated("/api/profile/students/import", DataSize.ofMegabytes(600).toBytes()),
+                response, drain(read, 16 * 1024));
+        allocated = allocatedBytes() - allocated;
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(read.get()).isEqualTo(cap);
+        assertThat(allocated).isLessThan(DataSize.ofMegabytes(16).toBytes());
+        assertThat(registry.counter("gateway.streaming.rejected", "route", "/api/profile/students/import").count())
+                .isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest post(String path, int bytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContent(new byte[bytes]);
+        return request;
+    }
+
+    // a chunked body of the given size, produced as it is read
+    private static HttpServletRequest generated(String path, long size) {
+        ServletInputStream body = new ServletInputStream() {
+            private long left = size;
+
+            @Override
+            public int read() {
+                if (left == 0) return -1;
+                left--;
+                return 'x';
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (left == 0) return -1;
+                int n = (int) Math.min(len, left);
+                Arrays.fill(b, off, off + n, (byte) 'x');
+                left -= n;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return left == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return new HttpServletRequestWrapper(new MockHttpServletRequest("POST", path)) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public ServletInputStream getInputStream() {
+                return body;
+            }
+        };
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static FilterChain drain(AtomicLong read) {
+        return drain(read, 64);
+    }
+
+    // reads the body in fixed chunks, the way the proxy copies it upstream
+    private static FilterChain drain(AtomicLong read, int bufferSize) {
+        return (req, res) -> {
+            byte[] buffer = new byte[bufferSize];
+            try (InputStream in = req.getInputStream()) {
+                int n;
+                while ((n = in.read(buffer)) > 0) read.addAndGet(n);
+            }
+        };
+    }
+}
@@ -1,14 +1,13 @@
 package com.campus.driveservice.client;
 
-import com.campus.driveservice.dto.StudentEligibilityDto;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import java.util.List;
-
 @FeignClient(name = "profile-service2")
 public interface ProfileClient {
-    @GetMapping("/api/profile/eligible")
-    List<StudentEligibilityDto> getEligibleStudents();
+    // NDJSON, one student per line; the caller reads the body as it arrives and closes it
+    @GetMapping(value = "/api/profile/eligible/stream",
+            headers = "Accept=application/x-ndjson")
+    Response streamEligibleStudents();
 }
-
@@ -7,7 +7,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(name = "selection-service2")
 public interface SelectionClient {
-    @PostMapping("/api/selection/invite")
+    @PostMapping(value = "/api/selection/invite",
+            headers = "Content-Type=${internal.encoding.content-type:application/json}")
     void invite(@RequestBody InviteStudentsDto dto);
 }
 
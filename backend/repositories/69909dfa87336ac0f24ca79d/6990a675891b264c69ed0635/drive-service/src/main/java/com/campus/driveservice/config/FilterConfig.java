@@ -1,18 +0,0 @@
-package com.campus.driveservice.config;
-
-import com.campus.driveservice.security.JwtFilter;
-import org.springframework.boot.web.servlet.FilterRegistrationBean;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class FilterConfig {
-
-    @Bean
-    public FilterRegistrationBean<JwtFilter> jwtFilter1(JwtFilter filter) {
-        FilterRegistrationBean<JwtFilter> reg = new FilterRegistrationBean<>();
-        reg.setFilter(filter);
-        reg.addUrlPatterns("/api/*");
-        return reg;
-    }
-}
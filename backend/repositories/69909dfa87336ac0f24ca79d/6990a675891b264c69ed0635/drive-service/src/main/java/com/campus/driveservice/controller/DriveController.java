@@ -1,10 +1,12 @@
 package com.campus.driveservice.controller;
 
+import com.campus.common.feign.DownstreamUnavailableException;
 import com.campus.driveservice.dto.CreateDriveRequestDto;
 import com.campus.driveservice.dto.DriveResponseDto;
 import com.campus.driveservice.service.DriveService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -89,5 +91,11 @@ public class DriveController {
         return ResponseEntity.ok(service.previewEligibleStudents(id));
     }
 
-
+    /* profile-service2 or selection-service2 is shedding calls: nothing was sent, try again later. */
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<String> downstreamUnavailable(DownstreamUnavailableException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
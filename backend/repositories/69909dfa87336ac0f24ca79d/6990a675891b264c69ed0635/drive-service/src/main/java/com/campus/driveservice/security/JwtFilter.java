@@ -1,39 +0,0 @@
-package com.campus.driveservice.security;
-
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.*;
-import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.stereotype.Component;
-
-import java.io.IOException;
-
-@Component
-public class JwtFilter implements Filter {
-
-    private final JwtUtil jwtUtil;
-
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
-    }
-
-    @Override
-    public void doFilter(
-            ServletRequest req,
-            ServletResponse res,
-            FilterChain chain
-    ) throws IOException, ServletException {
-
-        HttpServletRequest request = (HttpServletRequest) req;
-        String header = request.getHeader("Authorization");
-
-        if (header == null || !header.startsWith("Bearer ")) {
-            throw new RuntimeException("Missing token");
-        }
-
-        Claims claims = jwtUtil.parse(header.substring(7));
-        request.setAttribute("email", claims.getSubject());
-        request.setAttribute("role", claims.get("role"));
-
-        chain.doFilter(req, res);
-    }
-}
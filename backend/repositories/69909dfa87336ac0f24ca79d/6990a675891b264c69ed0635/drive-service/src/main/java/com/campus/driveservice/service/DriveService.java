@@ -13,11 +13,18 @@ import com.campus.driveservice.model.DriveStatus;
 import com.campus.driveservice.repository.DriveCriteriaRepository;
 import com.campus.driveservice.repository.DriveRepository;
 import com.campus.driveservice.repository.DriveRoundRepository;
+import feign.Response;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +36,7 @@ public class DriveService {
     private final DriveRoundRepository roundRepo;
     private final ProfileClient profileClient;
     private final SelectionClient selectionClient;
+    private final ObjectMapper objectMapper;
 
     public DriveResponseDto createDrive(
             String recruiterEmail,
@@ -80,16 +88,8 @@ public class DriveService {
         Drive drive = driveRepo.findById(driveId).orElseThrow();
         DriveCriteria c = criteriaRepo.findByDrive(drive);
 
-        List<StudentEligibilityDto> students =
-                profileClient.getEligibleStudents();
-
-        List<String> requiredSkills = List.of(c.getRequiredSkills().split(","));
-        List<String> eligible = students.stream()
-                .filter(s -> s.getTenthMarks() >= c.getMinTenth())
-                .filter(s -> s.getTwelfthMarks() >= c.getMinTwelfth())
-                .filter(s -> s.getSkills().containsAll(requiredSkills))
-                .map(StudentEligibilityDto::getEmail)
-                .toList();
+        List<String> eligible = new ArrayList<>();
+        forEachEligible(c, s -> eligible.add(s.getEmail()));
         for(String s : eligible) {
             System.out.println(s);
         }
@@ -128,14 +128,42 @@ public class DriveService {
         Drive drive = driveRepo.findById(driveId).orElseThrow();
         DriveCriteria c = criteriaRepo.findByDrive(drive);
 
-        List<StudentEligibilityDto> students = profileClient.getEligibleStudents();
+        List<StudentEligibilityDto> eligible = new ArrayList<>();
+        forEachEligible(c, eligible::add);
+        return eligible;
+    }
+
+    /* ================================
+       ELIGIBLE STUDENTS, STREAMED
+       ================================
+       profile-service2 sends one student per line; each is filtered as it
+       is parsed, so only the matches are ever kept. */
+    private void forEachEligible(DriveCriteria c, Consumer<StudentEligibilityDto> matches) {
+
         List<String> requiredSkills = List.of(c.getRequiredSkills().split(","));
 
-        return students.stream()
-                .filter(s -> s.getTenthMarks() >= c.getMinTenth())
-                .filter(s -> s.getTwelfthMarks() >= c.getMinTwelfth())
-                .filter(s -> s.getSkills().containsAll(requiredSkills))
-                .toList();
+        try (Response response = profileClient.streamEligibleStudents()) {
+            if (response.status() != 200 || response.body() == null) {
+                throw new RuntimeException(
+                        "Eligible students unavailable: HTTP " + response.status());
+            }
+
+            try (MappingIterator<StudentEligibilityDto> students = objectMapper
+                    .readerFor(StudentEligibilityDto.class)
+                    .readValues(response.body().asInputStream())) {
+
+                while (students.hasNextValue()) {
+                    StudentEligibilityDto s = students.nextValue();
+                    if (s.getTenthMarks() >= c.getMinTenth()
+                            && s.getTwelfthMarks() >= c.getMinTwelfth()
+                            && s.getSkills().containsAll(requiredSkills)) {
+                        matches.accept(s);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Eligible students stream failed", e);
+        }
     }
 
 
@@ -0,0 +1,138 @@
+package com.campus.driveservice.service;
+
+import com.campus.driveservice.client.ProfileClient;
+import com.campus.driveservice.client.SelectionClient;
+import com.campus.driveservice.dto.InviteStudentsDto;
+import com.campus.driveservice.dto.StudentEligibilityDto;
+import com.campus.driveservice.model.Drive;
+import com.campus.driveservice.model.DriveCriteria;
+import com.campus.driveservice.repository.DriveCriteriaRepository;
+import com.campus.driveservice.repository.DriveRepository;
+import com.campus.driveservice.repository.DriveRoundRepository;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DriveServiceEligibleTest {
+
+    private static final String STREAM = String.join("\n",
+            "{\"studentId\":1,\"email\":\"a@college.com\",\"tenthMarks\":85.0,\"twelfthMarks\":80.0,\"skills\":[\"Java\",\"SQL\"]}",
+            "{\"studentId\":2,\"email\":\"b@college.com\",\"tenthMarks\":65.0,\"twelfthMarks\":90.0,\"skills\":[\"Java\",\"SQL\"]}",
+            "{\"studentId\":3,\"email\":\"c@college.com\",\"tenthMarks\":90.0,\"twelfthMarks\":90.0,\"skills\":[\"Java\"]}",
+            "{\"studentId\":4,\"email\":\"d@college.com\",\"tenthMarks\":70.0,\"twelfthMarks\":70.0,\"skills\":[\"SQL\",\"React\",\"Java\"]}",
+            "{\"studentId\":5,\"email\":\"e@college.com\",\"tenthMarks\":99.0,\"twelfthMarks\":99.0,\"skills\":[]}",
+            "");
+
+    private final DriveRepository driveRepo = mock(DriveRepository.class);
+    private final DriveCriteriaRepository criteriaRepo = mock(DriveCriteriaRepository.class);
+    private final ProfileClient profileClient = mock(ProfileClient.class);
+    private final SelectionClient selectionClient = mock(SelectionClient.class);
+
+    private final DriveService service = new DriveService(driveRepo, criteriaRepo,
+            mock(DriveRoundRepository.class), profileClient, selectionClient, JsonMapper.builder().build());
+
+    @BeforeEach
+    void setUp() {
+        Drive drive = new Drive();
+        drive.setId(7L);
+        DriveCriteria criteria = new DriveCriteria();
+        criteria.setMinTenth(70.0);
+        criteria.setMinTwelfth(70.0);
+        criteria.setRequiredSkills("Java,SQL");
+
+        when(driveRepo.findById(7L)).thenReturn(Optional.of(drive));
+        when(criteriaRepo.findByDrive(drive)).thenReturn(criteria);
+    }
+
+    @Test
+    void keepsOnlyTheStudentsThatMeetTheCriteria() {
+        stream(200, STREAM);
+
+        assertThat(service.previewEligibleStudents(7L))
+                .extracting(StudentEligibilityDto::getEmail)
+                .containsExactly("a@college.com", "d@college.com");
+    }
+
+    @Test
+    void invitesTheMatchesAndClosesTheStream() throws IOException {
+        InputStream body = spy(new ByteArrayInputStream(STREAM.getBytes(StandardCharsets.UTF_8)));
+        when(profileClient.streamEligibleStudents()).thenReturn(response(200, body));
+
+        service.autoShortlist(7L);
+
+        ArgumentCaptor<InviteStudentsDto> invite = ArgumentCaptor.forClass(InviteStudentsDto.class);
+        verify(selectionClient).invite(invite.capture());
+        assertThat(invite.getValue().getDriveId()).isEqualTo(7L);
+        assertThat(invite.getValue().getStudentEmails()).containsExactly("a@college.com", "d@college.com");
+        verify(body, atLeastOnce()).close();
+    }
+
+    @Test
+    void failsOnATruncatedStreamInsteadOfInvitingAPrefix() {
+        stream(200, STREAM.substring(0, STREAM.indexOf("\"email\":\"d@")));
+
+        assertThatThrownBy(() -> service.autoShortlist(7L)).isInstanceOf(JacksonException.class);
+        verify(selectionClient, never()).invite(any());
+    }
+
+    @Test
+    void failsWhenTheConnectionDropsMidStream() {
+        InputStream dropped = new InputStream() {
+            private final InputStream first = new ByteArrayInputStream(
+                    STREAM.substring(0, STREAM.indexOf('\n') + 1).getBytes(StandardCharsets.UTF_8));
+
+            @Override
+            public int read() throws IOException {
+                int b = first.read();
+                if (b < 0) throw new IOException("Premature EOF");
+                return b;
+            }
+        };
+        when(profileClient.streamEligibleStudents()).thenReturn(response(200, dropped));
+
+        // Jackson 3 reports the read failure unchecked, with the IOException as its cause
+        assertThatThrownBy(() -> service.autoShortlist(7L))
+                .isInstanceOf(JacksonException.class)
+                .hasRootCauseInstanceOf(IOException.class);
+        verify(selectionClient, never()).invite(any());
+    }
+
+    @Test
+    void failsOnAnythingButOk() {
+        stream(503, "{\"error\":\"unavailable\"}");
+
+        assertThatThrownBy(() -> service.previewEligibleStudents(7L))
+                .hasMessageContaining("HTTP 503");
+    }
+
+    private void stream(int status, String body) {
+        when(profileClient.streamEligibleStudents()).thenReturn(
+                response(status, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static Response response(int status, InputStream body) {
+        return Response.builder()
+                .status(status)
+                .request(Request.create(Request.HttpMethod.GET, "/api/profile/eligible/stream",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .body(body, null)
+                .build();
+    }
+}
@@ -1,16 +1,30 @@
 package com.campus.profileservice2.controller;
 
+import com.campus.profileservice2.dto.BulkBlacklistRequestDto;
+import com.campus.profileservice2.dto.BulkVerifyRequestDto;
 import com.campus.profileservice2.dto.RecruiterProfileRequestDto;
+import com.campus.profileservice2.dto.ResumeZipRequestDto;
+import com.campus.profileservice2.dto.StudentProfileBatchRequestDto;
 import com.campus.profileservice2.dto.StudentEligibilityDto;
 import com.campus.profileservice2.dto.StudentProfileRequestDto;
 import com.campus.profileservice2.dto.StudentProfileResponseDto;
+import com.campus.profileservice2.entity.StudentDocument;
+import com.campus.profileservice2.service.DocumentService;
 import com.campus.profileservice2.service.ProfileService;
+import com.campus.profileservice2.service.StudentImportService;
+import com.campus.profileservice2.service.UnsupportedDocumentException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
 
 
 @RestController
@@ -19,6 +33,8 @@ import org.springframework.web.bind.annotation.*;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final StudentImportService importService;
+    private final DocumentService documentService;
 
     @PostMapping("/student")
     public ResponseEntity<?> createOrUpdateProfile(
@@ -30,12 +46,121 @@ public class ProfileController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/student/documents/resume")
+    public ResponseEntity<?> uploadResume(
+            @RequestParam("file") MultipartFile file,
+            HttpServletRequest request
+    ) throws IOException {
+        if (!"STUDENT".equals(request.getAttribute("role"))) {
+            return ResponseEntity.status(403).build();
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String email = (String) request.getAttribute("email");
+        return ResponseEntity.ok(documentService.uploadResume(email, file));
+    }
+
+    @GetMapping("/documents/{studentId}/{hash}")
+    public void downloadDocument(
+            @PathVariable Long studentId,
+            @PathVariable String hash,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String role = (String) request.getAttribute("role");
+        String email = (String) request.getAttribute("email");
+
+        if (!("TPO".equals(role) || "RECRUITER".equals(role) || "STUDENT".equals(role))) {
+            response.setStatus(403);
+            return;
+        }
+
+        StudentDocument doc = documentService.findDocument(studentId, hash).orElse(null);
+        if (doc != null && "STUDENT".equals(role)
+                && !doc.getStudent().getEmail().equals(email)) {
+            response.setStatus(403);
+            return;
+        }
+
+        documentService.writeDocument(doc, request, response);
+    }
+
+    // links issued before the owner id was part of the URL
+    @GetMapping("/documents/{hash}")
+    public void downloadDocument(
+            @PathVariable String hash,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String role = (String) request.getAttribute("role");
+        String email = (String) request.getAttribute("email");
+
+        StudentDocument doc;
+        if ("TPO".equals(role) || "RECRUITER".equals(role)) {
+            doc = documentService.findUnattributed(hash).orElse(null);
+        } else if ("STUDENT".equals(role)) {
+            doc = documentService.findOwnDocument(email, hash).orElse(null);
+            if (doc == null) {
+                response.setStatus(403);
+                return;
+            }
+        } else {
+            response.setStatus(403);
+            return;
+        }
+
+        documentService.writeDocument(doc, request, response);
+    }
+
+    @PostMapping("/documents/resumes/zip")
+    public void downloadResumeZip(
+            @RequestBody ResumeZipRequestDto dto,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!("TPO".equals(request.getAttribute("role")) ||
+                "RECRUITER".equals(request.getAttribute("role")))) {
+            response.setStatus(403);
+            return;
+        }
+        if (dto.getEmails() == null || dto.getEmails().isEmpty()) {
+            response.setStatus(400);
+            return;
+        }
+
+        List<StudentDocument> resumes = documentService.findResumes(dto.getEmails());
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"resumes.zip\"");
+        documentService.writeResumeZip(resumes, response.getOutputStream());
+    }
+
     @PutMapping("/verify/{studentId}")
     public ResponseEntity<?> verifyStudent(@PathVariable Long studentId) {
         profileService.verifyStudent(studentId);
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/verify/bulk")
+    public ResponseEntity<?> verifyStudents(
+            @RequestBody BulkVerifyRequestDto dto,
+            HttpServletRequest request
+    ) {
+        if (!"TPO".equals(request.getAttribute("role"))) {
+            return ResponseEntity.status(403).build();
+        }
+        if (dto.getStudentIds() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(
+                profileService.verifyStudents(dto.getStudentIds())
+        );
+    }
+
     @PostMapping("/recruiter")
     public ResponseEntity<?> createRecruiterProfile(
             @RequestBody RecruiterProfileRequestDto dto
@@ -70,6 +195,24 @@ public class ProfileController {
 
 
 
+    @PostMapping("/students/batch")
+    public ResponseEntity<?> getFullProfiles(
+            @RequestBody StudentProfileBatchRequestDto dto,
+            HttpServletRequest request
+    ) {
+        if (!("RECRUITER".equals(request.getAttribute("role")) ||
+                "TPO".equals(request.getAttribute("role")))) {
+            return ResponseEntity.status(403).build();
+        }
+
+        try {
+            return ResponseEntity.ok(profileService.getFullProfiles(
+                    dto.getStudentIds(), dto.getEmails(), dto.getFields()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/students")
     public ResponseEntity<Page<StudentProfileResponseDto>> getStudents(
             @RequestParam(defaultValue = "0") int page,
@@ -109,6 +252,22 @@ public class ProfileController {
     }
 
 
+    @PostMapping(
+            value = "/students/import",
+            consumes = {"text/csv", "application/x-ndjson"}
+    )
+    public ResponseEntity<?> importStudents(HttpServletRequest request)
+            throws IOException {
+        if (!"TPO".equals(request.getAttribute("role"))) {
+            return ResponseEntity.status(403).build();
+        }
+
+        boolean ndjson = request.getContentType().startsWith("application/x-ndjson");
+        return ResponseEntity.ok(
+                importService.importStudents(request.getInputStream(), ndjson)
+        );
+    }
+
     @GetMapping("/eligible")
     public ResponseEntity<?> getEligibleStudents() {
         return ResponseEntity.ok(
@@ -116,11 +275,39 @@ public class ProfileController {
         );
     }
 
+    // same students, one JSON object per line, written while the rows are read
+    @GetMapping(value = "/eligible/stream", produces = "application/x-ndjson")
+    public void streamEligibleStudents(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        profileService.writeEligibleStudents(response.getOutputStream());
+    }
+
     @PostMapping("/blacklist/{email}")
     public ResponseEntity<?> blacklistStudent(@PathVariable String email) {
         profileService.blacklistStudentByEmail(email);
         return ResponseEntity.ok().build();
     }
-}
 
+    @PostMapping("/blacklist/bulk")
+    public ResponseEntity<?> blacklistStudents(
+            @RequestBody BulkBlacklistRequestDto dto,
+            HttpServletRequest request
+    ) {
+        if (!"TPO".equals(request.getAttribute("role"))) {
+            return ResponseEntity.status(403).build();
+        }
+        if (dto.getEmails() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(
+                profileService.blacklistStudentsByEmail(dto.getEmails())
+        );
+    }
 
+    /* The upload's bytes are not a PDF or Word document, whatever its Content-Type said. */
+    @ExceptionHandler(UnsupportedDocumentException.class)
+    public ResponseEntity<String> unsupportedDocument(UnsupportedDocumentException e) {
+        return ResponseEntity.status(415).body(e.getMessage());
+    }
+}
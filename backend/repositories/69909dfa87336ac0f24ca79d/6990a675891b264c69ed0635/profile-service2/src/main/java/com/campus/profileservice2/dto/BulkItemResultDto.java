@@ -0,0 +1,13 @@
+package com.campus.profileservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDto {
+    private String key;        // student id as sent, or email lowercased
+    private BulkOutcome outcome;
+}
@@ -0,0 +1,5 @@
+package com.campus.profileservice2.dto;
+
+public enum BulkOutcome {
+    UPDATED, ALREADY_APPLIED, NOT_FOUND, INVALID
+}
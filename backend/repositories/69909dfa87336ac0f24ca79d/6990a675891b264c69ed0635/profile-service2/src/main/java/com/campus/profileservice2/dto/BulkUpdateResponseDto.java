@@ -0,0 +1,16 @@
+package com.campus.profileservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateResponseDto {
+    private int requested;
+    private int updated;
+    private List<BulkItemResultDto> results;
+}
@@ -0,0 +1,14 @@
+package com.campus.profileservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowErrorDto {
+    private long row;          // 1-based line number in the upload
+    private String email;
+    private String error;
+}
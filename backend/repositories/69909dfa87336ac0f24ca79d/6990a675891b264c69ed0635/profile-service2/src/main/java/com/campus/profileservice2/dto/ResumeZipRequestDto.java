@@ -0,0 +1,10 @@
+package com.campus.profileservice2.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ResumeZipRequestDto {
+    private List<String> emails;   // e.g. the shortlist of a drive
+}
@@ -0,0 +1,18 @@
+package com.campus.profileservice2.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StudentImportReportDto {
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+
+    // only the first profile.import.max-reported-errors are listed
+    private List<ImportRowErrorDto> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,14 @@
+package com.campus.profileservice2.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class StudentProfileBatchRequestDto {
+    private List<Long> studentIds;
+    private List<String> emails;
+
+    // any of academics, skills, documents, experiences; empty = all
+    private List<String> fields;
+}
@@ -0,0 +1,15 @@
+package com.campus.profileservice2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentProfileBatchResponseDto {
+    private List<StudentProfileResponseDto> profiles;
+    private List<String> notFound;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_student_document_hash", columnList = "contentHash"))
 public class StudentDocument {
 
     @Id
@@ -15,10 +16,15 @@ public class StudentDocument {
     private String type;
     private String url;
 
+    // set only for files uploaded to the local document store
+    private String contentHash;
+    private String contentType;
+    private String fileName;
+    private Long sizeBytes;
+
     @ManyToOne
     @JoinColumn(name = "student_id")
     @JsonIgnore
     private StudentProfile student;
 }
 
-
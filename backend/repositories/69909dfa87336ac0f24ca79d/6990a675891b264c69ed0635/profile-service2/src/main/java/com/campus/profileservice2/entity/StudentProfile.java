@@ -14,6 +14,7 @@ public class StudentProfile {
     @GeneratedValue
     private Long id;
 
+    @Column(unique = true)
     private String email;
     private String fullName;
     private String rollNo;
@@ -0,0 +1,10 @@
+package com.campus.profileservice2.repository;
+
+// one row per eligible student and skill; skill is null for a student without skills
+public interface EligibilityRow {
+    Long getStudentId();
+    String getEmail();
+    Double getTenthMarks();
+    Double getTwelfthMarks();
+    String getSkill();
+}
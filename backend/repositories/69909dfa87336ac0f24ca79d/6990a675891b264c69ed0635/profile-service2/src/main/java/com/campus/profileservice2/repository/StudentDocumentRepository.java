@@ -2,16 +2,38 @@ package com.campus.profileservice2.repository;
 
 import com.campus.profileservice2.entity.StudentDocument;
 import com.campus.profileservice2.entity.StudentProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface StudentDocumentRepository
         extends JpaRepository<StudentDocument, Long> {
 
     List<StudentDocument> findByStudent(StudentProfile student);
 
+    List<StudentDocument> findByStudentIn(Collection<StudentProfile> students);
+
     void deleteByStudent(StudentProfile student);
-}
 
+    void deleteByStudentAndContentHashIsNull(StudentProfile student);
+
+    void deleteByStudentAndTypeAndContentHashIsNotNull(StudentProfile student, String type);
+
+    Optional<StudentDocument> findFirstByContentHash(String contentHash);
+
+    Optional<StudentDocument> findFirstByContentHashAndStudentId(String contentHash, Long studentId);
+
+    Optional<StudentDocument> findFirstByContentHashAndStudentEmail(String contentHash, String email);
+
+    boolean existsByContentHash(String contentHash);
+
+    @EntityGraph(attributePaths = "student")
+    List<StudentDocument> findByTypeAndContentHashIsNotNullAndStudentEmailIn(
+            String type,
+            Collection<String> emails
+    );
+}
 
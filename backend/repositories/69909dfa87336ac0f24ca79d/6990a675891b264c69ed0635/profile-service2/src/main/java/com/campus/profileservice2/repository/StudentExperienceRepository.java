@@ -4,6 +4,7 @@ import com.campus.profileservice2.entity.StudentExperience;
 import com.campus.profileservice2.entity.StudentProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface StudentExperienceRepository
@@ -11,6 +12,8 @@ public interface StudentExperienceRepository
 
     List<StudentExperience> findByStudent(StudentProfile student);
 
+    List<StudentExperience> findByStudentIn(Collection<StudentProfile> students);
+
     void deleteByStudent(StudentProfile student);
 }
 
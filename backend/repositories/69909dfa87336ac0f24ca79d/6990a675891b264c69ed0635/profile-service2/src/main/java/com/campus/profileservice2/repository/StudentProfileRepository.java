@@ -1,24 +1,69 @@
 package com.campus.profileservice2.repository;
 
 import com.campus.profileservice2.entity.StudentProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StudentProfileRepository
         extends JpaRepository<StudentProfile, Long> {
 
     Optional<StudentProfile> findByEmail(String email);
 
+    // academics is an eager inverse one-to-one, fetch it in the same query
+    @Query("select p from StudentProfile p left join fetch p.academics where p.id in :ids")
+    List<StudentProfile> findWithAcademicsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p from StudentProfile p left join fetch p.academics where p.email in :emails")
+    List<StudentProfile> findWithAcademicsByEmailIn(@Param("emails") Collection<String> emails);
+
     Page<StudentProfile> findByVerifiedTrueAndBlacklistedFalse(Pageable pageable);
     List<StudentProfile> findByVerifiedTrueAndBlacklistedFalse();
+
+    // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the result set
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.id as studentId, p.email as email, a.tenthMarks as tenthMarks, " +
+            "a.twelfthMarks as twelfthMarks, s.skill as skill " +
+            "from StudentProfile p join p.academics a left join p.skills s " +
+            "where p.verified = true and p.blacklisted = false order by p.id")
+    Stream<EligibilityRow> streamEligibleRows();
     Page<StudentProfile> findByBranchAndVerifiedTrueAndBlacklistedFalse(
             String branch,
             Pageable pageable
     );
 
-}
+    /* ---------- bulk status changes ---------- */
+
+    @Query("select p.id as id, p.email as email, p.verified as verified, " +
+            "p.blacklisted as blacklisted from StudentProfile p where p.id in :ids")
+    List<StudentStatusView> findStatusByIdIn(@Param("ids") Collection<Long> ids);
 
+    @Query("select p.id as id, p.email as email, p.verified as verified, " +
+            "p.blacklisted as blacklisted from StudentProfile p where p.email in :emails")
+    List<StudentStatusView> findStatusByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update StudentProfile p set p.verified = true " +
+            "where p.id in :ids and p.verified = false")
+    int markVerified(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update StudentProfile p set p.blacklisted = true " +
+            "where p.id in :ids and p.blacklisted = false")
+    int markBlacklisted(@Param("ids") Collection<Long> ids);
+
+}
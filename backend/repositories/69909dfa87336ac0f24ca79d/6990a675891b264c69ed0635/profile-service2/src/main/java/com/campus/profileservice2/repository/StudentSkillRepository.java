@@ -4,6 +4,7 @@ import com.campus.profileservice2.entity.StudentProfile;
 import com.campus.profileservice2.entity.StudentSkill;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface StudentSkillRepository
@@ -11,5 +12,7 @@ public interface StudentSkillRepository
 
     List<StudentSkill> findByStudent(StudentProfile student);
 
+    List<StudentSkill> findByStudentIn(Collection<StudentProfile> students);
+
     void deleteByStudent(StudentProfile student);
 }
@@ -0,0 +1,8 @@
+package com.campus.profileservice2.repository;
+
+public interface StudentStatusView {
+    Long getId();
+    String getEmail();
+    boolean isVerified();
+    boolean isBlacklisted();
+}
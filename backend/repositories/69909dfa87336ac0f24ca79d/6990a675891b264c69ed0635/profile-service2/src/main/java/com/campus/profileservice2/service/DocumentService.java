@@ -0,0 +1,321 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.entity.StudentDocument;
+import com.campus.profileservice2.entity.StudentProfile;
+import com.campus.profileservice2.repository.StudentDocumentRepository;
+import com.campus.profileservice2.repository.StudentProfileRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+@RequiredArgsConstructor
+public class DocumentService {
+
+    private static final String RESUME = "RESUME";
+
+    // Tomcat's sendfile contract, the same one its DefaultServlet uses
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final DocumentStore store;
+    private final StudentProfileRepository profileRepo;
+    private final StudentDocumentRepository docRepo;
+    private final StudentProfileCache profileCache;
+    private final TransactionTemplate transactionTemplate;
+
+    /* ================================
+       STUDENT UPLOADS RESUME
+       ================================
+       Not transactional: the upload streams to disk first, and only the
+       metadata swap borrows a connection. The replaced blob is left for
+       DocumentSweeper. */
+    public StudentDocument uploadResume(String email, MultipartFile file) throws IOException {
+
+        StudentProfile p = profileRepo.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Student not found"));
+
+        String contentType;
+        DocumentStore.StoredBlob blob;
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            // the client's Content-Type is not trusted: the bytes decide
+            in.mark(DocumentTypes.SNIFF_BYTES);
+            contentType = DocumentTypes.sniff(in.readNBytes(DocumentTypes.SNIFF_BYTES));
+            if (contentType == null) throw new UnsupportedDocumentException();
+            in.reset();
+
+            blob = store.store(in);
+        }
+
+        StudentDocument doc = new StudentDocument();
+        doc.setStudent(p);
+        doc.setType(RESUME);
+        doc.setUrl(DocumentStore.urlFor(p.getId(), blob.hash()));
+        doc.setContentHash(blob.hash());
+        doc.setContentType(contentType);
+        doc.setFileName(StringUtils.getFilename(
+                StringUtils.cleanPath(String.valueOf(file.getOriginalFilename()))));
+        doc.setSizeBytes(blob.size());
+
+        StudentDocument saved = transactionTemplate.execute(tx -> {
+            docRepo.deleteByStudentAndTypeAndContentHashIsNotNull(p, RESUME);
+            return docRepo.save(doc);
+        });
+
+        profileCache.invalidate(p.getId());
+        return saved;
+    }
+
+    /* ================================
+       DOCUMENT LOOKUP
+       ================================
+       The same bytes may have been uploaded by several students, each
+       with their own file name, so metadata is always looked up by hash
+       and owner. */
+    @Transactional(readOnly = true)
+    public Optional<StudentDocument> findDocument(Long studentId, String hash) {
+        if (studentId == null || !DocumentStore.isValidHash(hash)) return Optional.empty();
+        return docRepo.findFirstByContentHashAndStudentId(hash, studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<StudentDocument> findOwnDocument(String email, String hash) {
+        if (email == null || !DocumentStore.isValidHash(hash)) return Optional.empty();
+        return docRepo.findFirstByContentHashAndStudentEmail(hash, email);
+    }
+
+    /* For links stored before the owner was part of the URL: the type
+       comes from the bytes, so any row will do, but no file name is
+       carried over. */
+    @Transactional(readOnly = true)
+    public Optional<StudentDocument> findUnattributed(String hash) {
+        if (!DocumentStore.isValidHash(hash)) return Optional.empty();
+        return docRepo.findFirstByContentHash(hash).map(d -> {
+            StudentDocument anonymous = new StudentDocument();
+            anonymous.setContentHash(d.getContentHash());
+            anonymous.setContentType(d.getContentType());
+            return anonymous;
+        });
+    }
+
+    /* ================================
+       DOWNLOAD (RANGE + CONDITIONAL)
+       ================================
+       Not transactional: no connection is held while the file streams. */
+    public void writeDocument(
+            StudentDocument meta,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+
+        String hash = meta == null ? null : meta.getContentHash();
+        Path path = hash == null ? null : store.pathFor(hash);
+
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (path == null || !Files.isRegularFile(path)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String etag = "\"" + hash + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // content-addressed: the bytes behind this URL never change
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] range = parseRange(rangeHeader, length);
+            if (range == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        String contentType = DocumentTypes.servable(meta.getContentType());
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (DocumentTypes.inline(contentType) ? "inline" : "attachment")
+                        + "; filename=\"" + safeFileName(meta) + "\"");
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // the connector streams the file with sendfile(2) after we return
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start;
+            while (count > 0) {
+                long n = ch.transferTo(pos, count, out);
+                if (n <= 0) break;
+                pos += n;
+                count -= n;
+            }
+        }
+    }
+
+    /* ================================
+       SHORTLIST RESUMES AS ONE ZIP
+       ================================ */
+    @Transactional(readOnly = true)
+    public List<StudentDocument> findResumes(Collection<String> emails) {
+        return docRepo.findByTypeAndContentHashIsNotNullAndStudentEmailIn(RESUME, emails);
+    }
+
+    // Entries are copied file by file into the response stream; nothing is buffered.
+    public void writeResumeZip(List<StudentDocument> resumes, OutputStream out)
+            throws IOException {
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED);   // resumes are mostly already-compressed PDFs
+
+        Set<String> names = new HashSet<>();
+        for (StudentDocument d : resumes) {
+            Path path = store.pathFor(d.getContentHash());
+            if (!Files.isRegularFile(path)) continue;
+
+            String name = d.getStudent().getEmail() + extension(d.getFileName());
+            if (!names.add(name)) continue;
+
+            zip.putNextEntry(new ZipEntry(name));
+            Files.copy(path, zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /* ---------- HTTP helpers ---------- */
+
+    // single "bytes=" range; anything else is ignored and the full body is sent
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) return UNSATISFIABLE;
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) return UNSATISFIABLE;
+            if (end < start) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return "*".equals(ifNoneMatch.trim()) || etagListContains(ifNoneMatch, etag);
+        }
+        long since = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return since != -1 && lastModified / 1000 <= since / 1000;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date != -1 && lastModified / 1000 == date / 1000;
+    }
+
+    private static boolean etagListContains(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String safeFileName(StudentDocument d) {
+        String name = d.getFileName() == null ? "document" : d.getFileName();
+        return name.replaceAll("[\"\\\\\\r\\n]", "_");
+    }
+
+    private static String extension(String fileName) {
+        String ext = StringUtils.getFilenameExtension(fileName);
+        return ext == null ? "" : "." + ext.replaceAll("[^A-Za-z0-9]", "");
+    }
+}
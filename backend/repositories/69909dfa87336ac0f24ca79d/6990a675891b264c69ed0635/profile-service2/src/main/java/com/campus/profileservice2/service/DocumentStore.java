@@ -0,0 +1,132 @@
+package com.campus.profileservice2.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+ * Content-addressed file store: every blob lives at
+ * <root>/<hash[0..2]>/<hash[2..4]>/<sha-256>, so uploading the same file
+ * twice stores it once. Blobs are never deleted on the write path;
+ * DocumentSweeper removes the ones no document refers to any more.
+ */
+@Component
+public class DocumentStore {
+
+    public static final String URL_PREFIX = "/api/profile/documents/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public DocumentStore(@Value("${profile.documents.dir:./data/documents}") String dir)
+            throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /* Streams the upload to a temp file while hashing it, then moves it
+       into place unless a blob with the same hash is already stored. */
+    public StoredBlob store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+
+        try {
+            long size;
+            try (DigestInputStream din = new DigestInputStream(in, digest);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                size = din.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException raced) {
+                    // another upload of the same content won
+                }
+            }
+            // a fresh mtime keeps the sweeper off a blob that is about to be referenced
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public Path pathFor(String hash) {
+        if (!isValidHash(hash)) {
+            throw new IllegalArgumentException("Invalid document hash");
+        }
+        return root.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    /* Hashes of blobs last stored before the cutoff, plus leftover temp
+       files from that time, which are deleted on the way. */
+    public List<String> blobsOlderThan(Instant cutoff) throws IOException {
+        List<String> hashes = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(f) || !olderThan(f, cutoff)) continue;
+                if (f.getParent().equals(root.resolve("tmp"))) {
+                    Files.deleteIfExists(f);
+                } else if (isValidHash(f.getFileName().toString())) {
+                    hashes.add(f.getFileName().toString());
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /* Deletes the blob unless it was stored again after the cutoff. */
+    public boolean deleteIfOlderThan(String hash, Instant cutoff) throws IOException {
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) && olderThan(path, cutoff) && Files.deleteIfExists(path);
+    }
+
+    private static boolean olderThan(Path path, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+    }
+
+    public static String urlFor(Long studentId, String hash) {
+        return URL_PREFIX + studentId + "/" + hash;
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    public static boolean isStoredUrl(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredBlob(String hash, long size) {
+    }
+}
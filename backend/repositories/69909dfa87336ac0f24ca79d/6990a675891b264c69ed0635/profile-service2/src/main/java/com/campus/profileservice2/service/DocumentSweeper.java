@@ -0,0 +1,53 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.repository.StudentDocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * Removes blobs no document refers to any more (replaced or deleted
+ * resumes). Blobs stored within the grace period are skipped: an upload
+ * writes its blob before it commits the row that references it, and
+ * DocumentStore refreshes the mtime of a blob every time it is stored.
+ */
+@Slf4j
+@Component
+public class DocumentSweeper {
+
+    private final DocumentStore store;
+    private final StudentDocumentRepository docRepo;
+    private final Duration grace;
+
+    public DocumentSweeper(
+            DocumentStore store,
+            StudentDocumentRepository docRepo,
+            @Value("${profile.documents.sweep-grace-millis:3600000}") long graceMillis
+    ) {
+        this.store = store;
+        this.docRepo = docRepo;
+        this.grace = Duration.ofMillis(graceMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${profile.documents.sweep-millis:3600000}")
+    public int sweep() {
+        Instant cutoff = Instant.now().minus(grace);
+        int deleted = 0;
+        try {
+            for (String hash : store.blobsOlderThan(cutoff)) {
+                if (!docRepo.existsByContentHash(hash) && store.deleteIfOlderThan(hash, cutoff)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Document sweep stopped after {} blobs: {}", deleted, e.getMessage());
+        }
+        if (deleted > 0) log.info("Document sweep removed {} unreferenced blobs", deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,53 @@
+package com.campus.profileservice2.service;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/*
+ * Which uploads are accepted as resumes, decided from the first bytes of
+ * the file rather than the Content-Type the client sent. The sniffed type
+ * is what gets stored and served back; only PDF is ever shown inline,
+ * everything else downloads as an attachment.
+ */
+public final class DocumentTypes {
+
+    public static final String PDF = "application/pdf";
+    public static final String DOC = "application/msword";
+    public static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    // enough for the longest signature below
+    public static final int SNIFF_BYTES = 8;
+
+    private static final Set<String> ALLOWED = Set.of(PDF, DOC, DOCX);
+
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] OLE_MAGIC = {
+            (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 0x03, 0x04};
+
+    private DocumentTypes() {
+    }
+
+    /* The type the first bytes prove, or null when they match nothing allowed. */
+    public static String sniff(byte[] head) {
+        if (startsWith(head, PDF_MAGIC)) return PDF;
+        if (startsWith(head, OLE_MAGIC)) return DOC;
+        if (startsWith(head, ZIP_MAGIC)) return DOCX;
+        return null;
+    }
+
+    /* What to send as Content-Type for a stored document; older rows may carry a client-supplied type. */
+    public static String servable(String stored) {
+        return stored != null && ALLOWED.contains(stored) ? stored : OCTET_STREAM;
+    }
+
+    public static boolean inline(String type) {
+        return PDF.equals(type);
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic) {
+        return head.length >= magic.length
+                && Arrays.equals(head, 0, magic.length, magic, 0, magic.length);
+    }
+}
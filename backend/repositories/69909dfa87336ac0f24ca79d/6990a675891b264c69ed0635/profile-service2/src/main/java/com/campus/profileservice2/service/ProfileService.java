@@ -4,11 +4,19 @@ import com.campus.profileservice2.dto.*;
 import com.campus.profileservice2.entity.*;
 import com.campus.profileservice2.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +29,14 @@ public class ProfileService {
     private final StudentDocumentRepository docRepo;
     private final StudentExperienceRepository expRepo;
     private final RecruiterProfileRepository recruiterRepo;
+    private final StudentProfileCache profileCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${profile.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${profile.batch.max-size:50}")
+    private int batchMaxSize;
 
     /* ================================
        STUDENT CREATES / UPDATES PROFILE
@@ -38,6 +54,7 @@ public class ProfileService {
         profile.setCollege(dto.getCollege());
 
         StudentProfile savedProfile = profileRepo.save(profile);
+        profileCache.invalidate(savedProfile.getId());
 
         // ---------- Academics ----------
         academicsRepo.deleteByStudent(savedProfile);
@@ -58,8 +75,10 @@ public class ProfileService {
         }
 
         // ---------- Documents ----------
-        docRepo.deleteByStudent(savedProfile);
+        // uploaded files are managed by DocumentService, only links are replaced here
+        docRepo.deleteByStudentAndContentHashIsNull(savedProfile);
         for (StudentDocumentDto d : dto.getDocuments()) {
+            if (DocumentStore.isStoredUrl(d.getUrl())) continue;
             StudentDocument doc = new StudentDocument();
             doc.setStudent(savedProfile);
             doc.setType(d.getType());
@@ -88,6 +107,83 @@ public class ProfileService {
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         p.setVerified(true);
         profileRepo.save(p);
+        profileCache.invalidate(p.getId());
+    }
+
+    /* ================================
+       TPO BULK VERIFY
+       ================================ */
+    public BulkUpdateResponseDto verifyStudents(List<Long> studentIds) {
+
+        Map<String, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Long id : studentIds) {
+            if (id == null) {
+                outcomes.putIfAbsent("null", BulkOutcome.INVALID);
+            } else if (outcomes.putIfAbsent(id.toString(), BulkOutcome.NOT_FOUND) == null) {
+                ids.add(id);
+            }
+        }
+
+        int updated = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            List<Long> toUpdate = new ArrayList<>();
+            for (StudentStatusView v : profileRepo.findStatusByIdIn(chunk)) {
+                if (v.isVerified()) {
+                    outcomes.put(v.getId().toString(), BulkOutcome.ALREADY_APPLIED);
+                } else {
+                    outcomes.put(v.getId().toString(), BulkOutcome.UPDATED);
+                    toUpdate.add(v.getId());
+                }
+            }
+            if (!toUpdate.isEmpty()) {
+                updated += profileRepo.markVerified(toUpdate);
+                toUpdate.forEach(profileCache::invalidate);
+            }
+        }
+
+        return toBulkResponse(studentIds.size(), updated, outcomes);
+    }
+
+    /* ================================
+       TPO BULK BLACKLIST
+       ================================ */
+    public BulkUpdateResponseDto blacklistStudentsByEmail(List<String> emails) {
+
+        // keyed by the lowercased email: the column collation ignores case,
+        // so the stored spelling may differ from the one sent
+        Map<String, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (String email : emails) {
+            if (email == null || email.isBlank()) {
+                outcomes.putIfAbsent(String.valueOf(email), BulkOutcome.INVALID);
+                continue;
+            }
+            String key = normalizeEmail(email);
+            if (outcomes.putIfAbsent(key, BulkOutcome.NOT_FOUND) == null) {
+                keys.add(key);
+            }
+        }
+
+        int updated = 0;
+        for (List<String> chunk : chunks(keys)) {
+            List<Long> toUpdate = new ArrayList<>();
+            for (StudentStatusView v : profileRepo.findStatusByEmailIn(chunk)) {
+                String key = normalizeEmail(v.getEmail());
+                if (v.isBlacklisted()) {
+                    outcomes.put(key, BulkOutcome.ALREADY_APPLIED);
+                } else {
+                    outcomes.put(key, BulkOutcome.UPDATED);
+                    toUpdate.add(v.getId());
+                }
+            }
+            if (!toUpdate.isEmpty()) {
+                updated += profileRepo.markBlacklisted(toUpdate);
+                toUpdate.forEach(profileCache::invalidate);
+            }
+        }
+
+        return toBulkResponse(emails.size(), updated, outcomes);
     }
 
     /* ================================
@@ -110,13 +206,19 @@ public class ProfileService {
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         p.setBlacklisted(true);
         profileRepo.save(p);
+        profileCache.invalidate(p.getId());
     }
 
     /* ================================
        FULL PROFILE VIEW (TPO/RECRUITER)
        ================================ */
-    @Transactional(readOnly = true)
+    // SUPPORTS: a cache hit should not open a transaction or borrow a connection
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public StudentProfileResponseDto getFullProfile(Long studentId) {
+        return profileCache.get(studentId, () -> loadFullProfile(studentId));
+    }
+
+    private StudentProfileResponseDto loadFullProfile(Long studentId) {
 
         StudentProfile p = profileRepo.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
@@ -136,6 +238,88 @@ public class ProfileService {
         );
     }
 
+    /* ================================
+       MULTI-GET FOR CANDIDATE COMPARISON
+       ================================
+       One query for the profiles (academics joined in) and one per
+       selected child collection, grouped in memory. */
+    @Transactional(readOnly = true)
+    public StudentProfileBatchResponseDto getFullProfiles(
+            List<Long> studentIds,
+            List<String> emails,
+            List<String> fields
+    ) {
+        List<Long> ids = studentIds == null ? List.of()
+                : studentIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> mails = emails == null ? List.of()
+                : emails.stream().filter(Objects::nonNull).distinct().toList();
+
+        if (ids.size() + mails.size() > batchMaxSize) {
+            throw new IllegalArgumentException(
+                    "At most " + batchMaxSize + " students per request");
+        }
+
+        Set<String> selected = fields == null || fields.isEmpty()
+                ? Set.of("academics", "skills", "documents", "experiences")
+                : new HashSet<>(fields);
+
+        Map<Long, StudentProfile> profiles = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            Map<Long, StudentProfile> byId = profileRepo.findWithAcademicsByIdIn(ids)
+                    .stream().collect(Collectors.toMap(StudentProfile::getId, p -> p));
+            ids.stream().map(byId::get).filter(Objects::nonNull)
+                    .forEach(p -> profiles.put(p.getId(), p));
+        }
+        if (!mails.isEmpty()) {
+            Map<String, StudentProfile> byEmail = profileRepo.findWithAcademicsByEmailIn(mails)
+                    .stream().collect(Collectors.toMap(StudentProfile::getEmail, p -> p));
+            mails.stream().map(byEmail::get).filter(Objects::nonNull)
+                    .forEach(p -> profiles.putIfAbsent(p.getId(), p));
+        }
+
+        List<String> notFound = new ArrayList<>();
+        Set<Long> foundIds = profiles.keySet();
+        Set<String> foundEmails = profiles.values().stream()
+                .map(StudentProfile::getEmail).collect(Collectors.toSet());
+        ids.stream().filter(id -> !foundIds.contains(id))
+                .forEach(id -> notFound.add(id.toString()));
+        mails.stream().filter(e -> !foundEmails.contains(e))
+                .forEach(notFound::add);
+
+        if (profiles.isEmpty()) {
+            return new StudentProfileBatchResponseDto(List.of(), notFound);
+        }
+
+        Collection<StudentProfile> students = profiles.values();
+        Map<Long, List<StudentSkill>> skills = selected.contains("skills")
+                ? groupByStudent(skillRepo.findByStudentIn(students), StudentSkill::getStudent)
+                : null;
+        Map<Long, List<StudentDocument>> docs = selected.contains("documents")
+                ? groupByStudent(docRepo.findByStudentIn(students), StudentDocument::getStudent)
+                : null;
+        Map<Long, List<StudentExperience>> exps = selected.contains("experiences")
+                ? groupByStudent(expRepo.findByStudentIn(students), StudentExperience::getStudent)
+                : null;
+
+        List<StudentProfileResponseDto> result = students.stream()
+                .map(p -> new StudentProfileResponseDto(
+                        p.getId(),
+                        p.getEmail(),
+                        p.getFullName(),
+                        p.getRollNo(),
+                        p.getBranch(),
+                        p.isVerified(),
+                        p.isBlacklisted(),
+                        selected.contains("academics") ? p.getAcademics() : null,
+                        skills == null ? null : skills.getOrDefault(p.getId(), List.of()),
+                        docs == null ? null : docs.getOrDefault(p.getId(), List.of()),
+                        exps == null ? null : exps.getOrDefault(p.getId(), List.of())
+                ))
+                .toList();
+
+        return new StudentProfileBatchResponseDto(result, notFound);
+    }
+
     /* ================================
        ELIGIBLE STUDENTS (DRIVE SERVICE)
        ================================ */
@@ -160,6 +344,48 @@ public class ProfileService {
                 .toList();
     }
 
+    /* ================================
+       ELIGIBLE STUDENTS AS NDJSON
+       ================================
+       Rows come off a forward-only cursor, one per student and skill,
+       ordered by student. Each student is written as soon as its last row
+       is read, so only one student is held whatever the population. */
+    @Transactional(readOnly = true)
+    public void writeEligibleStudents(OutputStream out) throws IOException {
+
+        try (Stream<EligibilityRow> rows = profileRepo.streamEligibleRows()) {
+            StudentEligibilityDto current = null;
+            boolean flushed = false;
+
+            for (Iterator<EligibilityRow> it = rows.iterator(); it.hasNext(); ) {
+                EligibilityRow r = it.next();
+
+                if (current == null || !current.getStudentId().equals(r.getStudentId())) {
+                    if (current != null) {
+                        writeLine(current, out);
+                        if (!flushed) {
+                            out.flush();    // first result goes out now, not when the buffer fills
+                            flushed = true;
+                        }
+                    }
+                    current = new StudentEligibilityDto();
+                    current.setStudentId(r.getStudentId());
+                    current.setEmail(r.getEmail());
+                    current.setTenthMarks(r.getTenthMarks());
+                    current.setTwelfthMarks(r.getTwelfthMarks());
+                    current.setSkills(new ArrayList<>());
+                }
+                if (r.getSkill() != null) current.getSkills().add(r.getSkill());
+            }
+            if (current != null) writeLine(current, out);
+        }
+    }
+
+    private void writeLine(StudentEligibilityDto dto, OutputStream out) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(dto));
+        out.write('\n');
+    }
+
 
     /* ================================
        PAGINATED STUDENT LIST (FRONTEND)
@@ -234,6 +460,37 @@ public class ProfileService {
     }
 
 
+    private static <T> Map<Long, List<T>> groupByStudent(
+            List<T> rows,
+            Function<T, StudentProfile> student
+    ) {
+        return rows.stream().collect(Collectors.groupingBy(r -> student.apply(r).getId()));
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        int size = Math.max(1, bulkChunkSize);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private BulkUpdateResponseDto toBulkResponse(
+            int requested,
+            int updated,
+            Map<String, BulkOutcome> outcomes
+    ) {
+        List<BulkItemResultDto> results = outcomes.entrySet().stream()
+                .map(e -> new BulkItemResultDto(e.getKey(), e.getValue()))
+                .toList();
+        return new BulkUpdateResponseDto(requested, updated, results);
+    }
+
     private StudentProfileResponseDto mapToDto(StudentProfile s) {
         return new StudentProfileResponseDto(
                 s.getId(),
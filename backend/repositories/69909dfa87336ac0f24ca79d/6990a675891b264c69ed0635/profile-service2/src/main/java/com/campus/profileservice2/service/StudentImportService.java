@@ -0,0 +1,309 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.ImportRowErrorDto;
+import com.campus.profileservice2.dto.StudentImportReportDto;
+import com.campus.profileservice2.dto.StudentImportRowDto;
+import com.campus.profileservice2.entity.StudentAcademics;
+import com.campus.profileservice2.entity.StudentProfile;
+import com.campus.profileservice2.entity.StudentSkill;
+import com.campus.profileservice2.repository.StudentProfileRepository;
+import com.campus.profileservice2.repository.StudentStatusView;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+ * Streams a CSV or NDJSON upload line by line and inserts profiles,
+ * academics and skills in chunks of profile.import.chunk-size rows.
+ * Every chunk is its own transaction and Hibernate sends it as JDBC
+ * batches. Open-in-view keeps one EntityManager for the whole request
+ * and a commit does not clear it, so the persistence context is cleared
+ * after each chunk; only one chunk of rows is ever held in memory.
+ *
+ * CSV needs a header row naming the columns of StudentImportRowDto;
+ * skills are separated by ';' inside their cell. A line longer than
+ * profile.import.max-line-chars fails as a row of its own and the rest
+ * of it is skipped without being buffered.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    private final StudentProfileRepository profileRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${profile.import.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${profile.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${profile.import.max-line-chars:65536}")
+    private int maxLineChars;
+
+    public StudentImportReportDto importStudents(InputStream in, boolean ndjson)
+            throws IOException {
+
+        StudentImportReportDto report = new StudentImportReportDto();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        LineReader reader = new LineReader(new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8)), maxLineChars);
+
+        String[] header = null;
+        long lineNo = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (reader.truncated()) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                fail(report, lineNo, null, "Line longer than " + maxLineChars + " characters");
+                continue;
+            }
+            if (line.isBlank()) continue;
+
+            if (!ndjson && header == null) {
+                header = splitCsv(line);
+                continue;
+            }
+
+            report.setTotalRows(report.getTotalRows() + 1);
+
+            StudentImportRowDto row;
+            try {
+                row = ndjson ? objectMapper.readValue(line, StudentImportRowDto.class)
+                             : fromCsv(header, splitCsv(line));
+            } catch (JacksonException | IllegalArgumentException e) {
+                fail(report, lineNo, null, "Unparseable row: " + e.getMessage());
+                continue;
+            }
+
+            String error = validate(row);
+            if (error != null) {
+                fail(report, lineNo, row.getEmail(), error);
+                continue;
+            }
+
+            chunk.add(new ParsedRow(lineNo, row));
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, report);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) flush(chunk, report);
+        return report;
+    }
+
+    /* ================================
+       CHUNK INSERT
+       ================================ */
+    private void flush(List<ParsedRow> chunk, StudentImportReportDto report) {
+
+        // drop rows whose email already exists or repeats inside the chunk
+        Set<String> taken = new HashSet<>();
+        for (StudentStatusView v : profileRepo.findStatusByEmailIn(
+                chunk.stream().map(r -> r.row().getEmail()).toList())) {
+            taken.add(v.getEmail());
+        }
+
+        List<ParsedRow> fresh = new ArrayList<>(chunk.size());
+        for (ParsedRow r : chunk) {
+            if (!taken.add(r.row().getEmail())) {
+                fail(report, r.line(), r.row().getEmail(), "Profile already exists");
+            } else {
+                fresh.add(r);
+            }
+        }
+        if (fresh.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    profileRepo.saveAll(fresh.stream().map(r -> toEntity(r.row())).toList()));
+            report.setImported(report.getImported() + fresh.size());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent writer won a race on some email: retry row by row
+            for (ParsedRow r : fresh) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx ->
+                            profileRepo.save(toEntity(r.row())));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataIntegrityViolationException rowError) {
+                    fail(report, r.line(), r.row().getEmail(), "Profile already exists");
+                }
+            }
+        } finally {
+            // committed rows are done with; do not let them pile up in the request's context
+            entityManager.clear();
+        }
+    }
+
+    private StudentProfile toEntity(StudentImportRowDto row) {
+        StudentProfile p = new StudentProfile();
+        p.setEmail(row.getEmail());
+        p.setFullName(row.getFullName());
+        p.setRollNo(row.getRollNo());
+        p.setBranch(row.getBranch());
+        p.setCollege(row.getCollege());
+
+        StudentAcademics ac = new StudentAcademics();
+        ac.setStudent(p);
+        ac.setTenthMarks(row.getTenthMarks());
+        ac.setTwelfthMarks(row.getTwelfthMarks());
+        ac.setCgpa(row.getCgpa());
+        p.setAcademics(ac);
+
+        List<StudentSkill> skills = new ArrayList<>();
+        if (row.getSkills() != null) {
+            for (String s : row.getSkills()) {
+                StudentSkill skill = new StudentSkill();
+                skill.setSkill(s);
+                skill.setStudent(p);
+                skills.add(skill);
+            }
+        }
+        p.setSkills(skills);
+        return p;
+    }
+
+    /* ================================
+       PARSING / VALIDATION
+       ================================ */
+    private String validate(StudentImportRowDto row) {
+        if (row.getEmail() == null || !row.getEmail().contains("@")) {
+            return "Invalid email";
+        }
+        if (row.getFullName() == null || row.getFullName().isBlank()) {
+            return "Missing fullName";
+        }
+        if (!inRange(row.getTenthMarks(), 100)) return "tenthMarks must be 0-100";
+        if (!inRange(row.getTwelfthMarks(), 100)) return "twelfthMarks must be 0-100";
+        if (row.getCgpa() != null && !inRange(row.getCgpa(), 10)) return "cgpa must be 0-10";
+        return null;
+    }
+
+    private static boolean inRange(Double v, double max) {
+        return v != null && v >= 0 && v <= max;
+    }
+
+    private StudentImportRowDto fromCsv(String[] header, String[] cells) {
+        if (header == null) throw new IllegalArgumentException("missing header");
+
+        StudentImportRowDto row = new StudentImportRowDto();
+        for (int i = 0; i < header.length && i < cells.length; i++) {
+            String v = cells[i].trim();
+            if (v.isEmpty()) continue;
+
+            switch (header[i].trim()) {
+                case "email" -> row.setEmail(v);
+                case "fullName" -> row.setFullName(v);
+                case "rollNo" -> row.setRollNo(v);
+                case "branch" -> row.setBranch(v);
+                case "college" -> row.setCollege(v);
+                case "tenthMarks" -> row.setTenthMarks(Double.valueOf(v));
+                case "twelfthMarks" -> row.setTwelfthMarks(Double.valueOf(v));
+                case "cgpa" -> row.setCgpa(Double.valueOf(v));
+                case "skills" -> row.setSkills(
+                        Arrays.stream(v.split(";")).map(String::trim)
+                                .filter(s -> !s.isEmpty()).toList());
+                default -> { }
+            }
+        }
+        return row;
+    }
+
+    // RFC 4180 quoting within a single line; quoted newlines are not supported
+    private static String[] splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        cells.add(cur.toString());
+        return cells.toArray(new String[0]);
+    }
+
+    private void fail(StudentImportReportDto report, long line, String email, String error) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ImportRowErrorDto(line, email, error));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private record ParsedRow(long line, StudentImportRowDto row) {
+    }
+
+    /* BufferedReader.readLine() with a cap: past max chars the rest of the
+       line is read and dropped, and truncated() reports it. */
+    static final class LineReader {
+
+        private final BufferedReader in;
+        private final int max;
+        private final StringBuilder line = new StringBuilder();
+        private boolean truncated;
+
+        LineReader(BufferedReader in, int max) {
+            this.in = in;
+            this.max = max;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+
+            int c = in.read();
+            if (c < 0) return null;
+
+            while (c >= 0 && c != '\n' && c != '\r') {
+                if (line.length() < max) line.append((char) c);
+                else truncated = true;
+                c = in.read();
+            }
+            if (c == '\r') {
+                in.mark(1);
+                if (in.read() != '\n') in.reset();
+            }
+            return truncated ? "" : line.toString();
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+    }
+}
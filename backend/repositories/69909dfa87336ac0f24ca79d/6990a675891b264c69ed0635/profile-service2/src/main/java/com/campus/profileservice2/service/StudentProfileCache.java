@@ -0,0 +1,189 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.StudentProfileResponseDto;
+import com.campus.profileservice2.entity.StudentDocument;
+import com.campus.profileservice2.entity.StudentExperience;
+import com.campus.profileservice2.entity.StudentSkill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/*
+ * Bounded LRU cache of assembled full profiles.
+ *
+ * Every student has a version that is bumped on invalidation. A loader
+ * only publishes its result if the version it started with is still the
+ * current one, so a read that raced with a write can never put a stale
+ * profile back into the cache.
+ *
+ * Versions live in a fixed table of version-stripes counters shared by
+ * hash, so they take constant memory however many students are ever
+ * invalidated. Invalidating one student also retires the cached entries
+ * of the others on its stripe; that costs them a reload, never a stale
+ * read.
+ */
+@Component
+public class StudentProfileCache {
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private final LinkedHashMap<Long, Entry> entries =
+            new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLongArray versions;
+    private final int stripeMask;
+    private long weight;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public StudentProfileCache(
+            @Value("${profile.cache.max-entries:2000}") int maxEntries,
+            @Value("${profile.cache.max-weight-bytes:16777216}") long maxWeight,
+            @Value("${profile.cache.version-stripes:4096}") int versionStripes,
+            MeterRegistry registry
+    ) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+
+        int stripes = Integer.highestOneBit(Math.max(1, versionStripes - 1) << 1);
+        this.versions = new AtomicLongArray(stripes);
+        this.stripeMask = stripes - 1;
+
+        this.hits = registry.counter("profile.cache.requests", "result", "hit");
+        this.misses = registry.counter("profile.cache.requests", "result", "miss");
+        this.evictions = registry.counter("profile.cache.evictions");
+        Gauge.builder("profile.cache.size", this, StudentProfileCache::size)
+                .register(registry);
+        Gauge.builder("profile.cache.weight.bytes", this, StudentProfileCache::weight)
+                .register(registry);
+    }
+
+    public StudentProfileResponseDto get(
+            Long studentId,
+            Supplier<StudentProfileResponseDto> loader
+    ) {
+        long version = versions.get(stripe(studentId));
+
+        synchronized (this) {
+            Entry e = entries.get(studentId);
+            if (e != null && e.version == version) {
+                hits.increment();
+                return e.profile;
+            }
+        }
+
+        misses.increment();
+        StudentProfileResponseDto profile = loader.get();
+        put(studentId, version, profile);
+        return profile;
+    }
+
+    /* ================================
+       INVALIDATION
+       ================================
+       Evicts now and, when called inside a transaction, once more after
+       commit so readers that loaded the pre-commit rows are discarded. */
+    public void invalidate(Long studentId) {
+        if (studentId == null) return;
+
+        evict(studentId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            evict(studentId);
+                        }
+                    });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private void evict(Long studentId) {
+        versions.incrementAndGet(stripe(studentId));
+        synchronized (this) {
+            Entry e = entries.remove(studentId);
+            if (e != null) weight -= e.weight;
+        }
+    }
+
+    private void put(Long studentId, long version, StudentProfileResponseDto profile) {
+        long w = estimateWeight(profile);
+        if (w > maxWeight) return;
+
+        synchronized (this) {
+            if (versions.get(stripe(studentId)) != version) return;
+
+            Entry old = entries.put(studentId, new Entry(version, profile, w));
+            if (old != null) weight -= old.weight;
+            weight += w;
+
+            Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+                Map.Entry<Long, Entry> eldest = it.next();
+                if (eldest.getKey().equals(studentId)) continue;
+                weight -= eldest.getValue().weight;
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private int stripe(Long studentId) {
+        int h = studentId.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    // Rough retained size: object headers plus two bytes per character.
+    private static long estimateWeight(StudentProfileResponseDto p) {
+        long w = 128 + chars(p.getEmail()) + chars(p.getFullName())
+                + chars(p.getRollNo()) + chars(p.getBranch());
+
+        if (p.getAcademics() != null) w += 64;
+
+        if (p.getSkills() != null) {
+            for (StudentSkill s : p.getSkills()) {
+                w += 48 + chars(s.getSkill());
+            }
+        }
+        if (p.getDocuments() != null) {
+            for (StudentDocument d : p.getDocuments()) {
+                w += 56 + chars(d.getType()) + chars(d.getUrl());
+            }
+        }
+        if (p.getExperiences() != null) {
+            for (StudentExperience e : p.getExperiences()) {
+                w += 72 + chars(e.getCompany()) + chars(e.getRole())
+                        + chars(e.getDuration()) + chars(e.getDescription());
+            }
+        }
+        return w;
+    }
+
+    private static long chars(String s) {
+        return s == null ? 0 : 40 + 2L * s.length();
+    }
+
+    private record Entry(long version, StudentProfileResponseDto profile, long weight) {
+    }
+}
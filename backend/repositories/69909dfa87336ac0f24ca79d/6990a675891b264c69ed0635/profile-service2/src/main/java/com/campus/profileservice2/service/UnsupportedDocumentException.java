@@ -0,0 +1,8 @@
+package com.campus.profileservice2.service;
+
+public class UnsupportedDocumentException extends RuntimeException {
+
+    public UnsupportedDocumentException() {
+        super("Resume must be a PDF or Word document");
+    }
+}
@@ -0,0 +1,73 @@
+package com.campus.profileservice2.bench;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Bytes on the wire and CPU cost of gzip for eligible-student lists of
+ * a few sizes, at level 1, the default (6, what Tomcat and Feign use)
+ * and 9. Each row reports the encoded size and the median compress and
+ * inflate cost; every round trip is checked byte for byte.
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.campus.profileservice2.bench.GzipBenchmark [iterations]
+ */
+public final class GzipBenchmark {
+
+    private static final int[] SIZES = {50, 500, 5000};
+    private static final int[] LEVELS = {1, 6, 9};
+
+    private GzipBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int warmup = Math.max(20, iterations / 4);
+        ObjectMapper json = JsonMapper.builder().build();
+
+        System.out.printf("%d runs after %d warm-up, median%n", iterations, warmup);
+        for (int n : SIZES) {
+            byte[] body = json.writeValueAsBytes(Payloads.eligible(n));
+            System.out.printf("%n eligible, %d students: %,d bytes%n", n, body.length);
+
+            for (int level : LEVELS) {
+                byte[] gz = gzip(body, level);
+                if (!Arrays.equals(gunzip(gz), body)) {
+                    throw new IllegalStateException("round trip changed the body at level " + level);
+                }
+                Measure.Result compress = Measure.run(warmup, iterations, () -> gzip(body, level));
+                Measure.Result inflate = Measure.run(warmup, iterations, () -> gunzip(gz));
+
+                System.out.printf("  level %d  %,9d bytes (%4.1f%%)  compress %s  inflate %s%n",
+                        level, gz.length, 100.0 * gz.length / body.length, compress, inflate);
+            }
+        }
+    }
+
+    static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gz.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] gz) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz), 8192)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.campus.profileservice2.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/*
+ * Times one operation on the calling thread: wall clock, thread CPU time
+ * and bytes allocated, each the median over the measured runs after a
+ * warm-up. CPU and allocation come from the HotSpot ThreadMXBean, so they
+ * count only this thread's work, not GC or JIT threads.
+ */
+final class Measure {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Measure() {
+    }
+
+    static Result run(int warmup, int iterations, Callable<?> op) throws Exception {
+        for (int i = 0; i < warmup; i++) op.call();
+
+        long[] wall = new long[iterations];
+        long[] cpu = new long[iterations];
+        long[] alloc = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long a0 = THREADS.getCurrentThreadAllocatedBytes();
+            long c0 = THREADS.getCurrentThreadCpuTime();
+            long w0 = System.nanoTime();
+            op.call();
+            wall[i] = System.nanoTime() - w0;
+            cpu[i] = THREADS.getCurrentThreadCpuTime() - c0;
+            alloc[i] = THREADS.getCurrentThreadAllocatedBytes() - a0;
+        }
+        return new Result(median(wall), median(cpu), median(alloc));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    record Result(long wallNanos, long cpuNanos, long allocatedBytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%7.2fms wall %7.2fms cpu %8dKB alloc",
+                    wallNanos / 1e6, cpuNanos / 1e6, allocatedBytes / 1024);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.campus.profileservice2.bench;
+
+import com.campus.profileservice2.dto.StudentEligibilityDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Synthetic eligible-student lists shaped like /api/profile/eligible. */
+final class Payloads {
+
+    private static final List<String> SKILLS = List.of(
+            "Java", "SQL", "Spring Boot", "React", "Docker", "Python", "Kubernetes", "AWS");
+
+    private Payloads() {
+    }
+
+    static List<StudentEligibilityDto> eligible(int n) {
+        List<StudentEligibilityDto> students = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            StudentEligibilityDto s = new StudentEligibilityDto();
+            s.setStudentId(10_000L + i);
+            s.setEmail("student" + i + "@college.com");
+            s.setTenthMarks(60.0 + (i * 37 % 400) / 10.0);
+            s.setTwelfthMarks(55.0 + (i * 53 % 450) / 10.0);
+            // 3 to 6 skills out of a small shared vocabulary, as in real profiles
+            List<String> skills = new ArrayList<>();
+            for (int k = 0; k < 3 + i % 4; k++) skills.add(SKILLS.get((i + k * 3) % SKILLS.size()));
+            s.setSkills(skills);
+            students.add(s);
+        }
+        return students;
+    }
+}
@@ -0,0 +1,87 @@
+package com.campus.profileservice2.bench;
+
+import com.campus.profileservice2.dto.StudentEligibilityDto;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileFactory;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * JSON against Smile for the two bulk internal payloads: the eligible
+ * list (profile -> drive/selection) and an invite batch (drive ->
+ * selection). Smile is measured with the default writer and with shared
+ * string values, which is how SmileConfig serves it. Each row reports the
+ * encoded and gzipped size and the median write and read cost (wall, thread
+ * CPU, allocation).
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.campus.profileservice2.bench.SmileBenchmark [iterations] [students]
+ */
+public final class SmileBenchmark {
+
+    private static final TypeReference<List<StudentEligibilityDto>> ELIGIBLE = new TypeReference<>() {
+    };
+    private static final TypeReference<Map<String, Object>> INVITE = new TypeReference<>() {
+    };
+
+    private SmileBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int warmup = Math.max(20, iterations / 4);
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", JsonMapper.builder().build());
+        formats.put("smile", SmileMapper.builder().build());
+        formats.put("smile+shared", SmileMapper.builder(SmileFactory.builder()
+                .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                .build()).build());
+
+        List<StudentEligibilityDto> eligible = Payloads.eligible(students);
+        Map<String, Object> invite = invite(students);
+
+        System.out.printf("%d runs after %d warm-up, median; %d students%n", iterations, warmup, students);
+        run("eligible", eligible, ELIGIBLE, formats, warmup, iterations);
+        run("invite", invite, INVITE, formats, warmup, iterations);
+    }
+
+    private static void run(String name, Object payload, TypeReference<?> type,
+                            Map<String, ObjectMapper> formats, int warmup, int iterations) throws Exception {
+        System.out.printf("%n %s%n", name);
+        Object expected = null;
+        for (Map.Entry<String, ObjectMapper> f : formats.entrySet()) {
+            ObjectMapper mapper = f.getValue();
+            byte[] body = mapper.writeValueAsBytes(payload);
+
+            // every format must read back the same value
+            Object back = mapper.readValue(body, type);
+            if (expected == null) expected = back;
+            else if (!expected.equals(back)) throw new IllegalStateException(f.getKey() + " changed the payload");
+
+            Measure.Result write = Measure.run(warmup, iterations, () -> mapper.writeValueAsBytes(payload));
+            Measure.Result read = Measure.run(warmup, iterations, () -> mapper.readValue(body, type));
+
+            System.out.printf("  %-13s %,9d bytes  gz %,8d  write %s  read %s%n",
+                    f.getKey(), body.length, GzipBenchmark.gzip(body, 6).length, write, read);
+        }
+    }
+
+    private static Map<String, Object> invite(int n) {
+        List<String> emails = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) emails.add("student" + i + "@college.com");
+        Map<String, Object> invite = new LinkedHashMap<>();
+        invite.put("driveId", 42L);
+        invite.put("studentEmails", emails);
+        return invite;
+    }
+}
@@ -0,0 +1,84 @@
+package com.campus.profileservice2.config;
+
+import com.campus.profileservice2.dto.StudentEligibilityDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmileConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final List<HttpMessageConverter<?>> converters = serverConverters();
+
+    @Test
+    void keepsJsonAheadOfSmileForWildcardCallers() {
+        assertThat(indexOf(JacksonJsonHttpMessageConverter.class))
+                .isNotNegative()
+                .isLessThan(indexOf(JacksonSmileHttpMessageConverter.class));
+    }
+
+    @Test
+    void writesRepeatedSkillsOnceAndReadsThemBack() throws Exception {
+        List<StudentEligibilityDto> students = students(500);
+
+        byte[] shared = write(students);
+        byte[] plain = SmileMapper.builder().build().writeValueAsBytes(students);
+
+        assertThat(shared.length).isLessThan(plain.length);
+
+        JsonNode back = SmileMapper.builder().build().readTree(shared);
+        assertThat(back.size()).isEqualTo(500);
+        assertThat(back.get(499).get("skills").get(2).asString()).isEqualTo("Spring Boot");
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] write(Object body) throws Exception {
+        HttpMessageConverter<Object> smile = (HttpMessageConverter<Object>)
+                converters.get(indexOf(JacksonSmileHttpMessageConverter.class));
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        smile.write(body, SMILE, out);
+        return out.getBodyAsBytes();
+    }
+
+    private int indexOf(Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) return i;
+        }
+        return -1;
+    }
+
+    private static List<HttpMessageConverter<?>> serverConverters() {
+        HttpMessageConverters.ServerBuilder builder = HttpMessageConverters.forServer().registerDefaults();
+        new SmileConfig().smileConverterCustomizer().customize(builder);
+        List<HttpMessageConverter<?>> list = new ArrayList<>();
+        builder.build().forEach(list::add);
+        return list;
+    }
+
+    private static List<StudentEligibilityDto> students(int n) {
+        List<String> skills = List.of("Java", "SQL", "Spring Boot", "React", "Docker");
+        List<StudentEligibilityDto> students = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            StudentEligibilityDto s = new StudentEligibilityDto();
+            s.setStudentId((long) i);
+            s.setEmail("student" + i + "@college.com");
+            s.setTenthMarks(80.0 + i % 20);
+            s.setTwelfthMarks(75.0 + i % 25);
+            s.setSkills(skills.subList(0, 3 + i % 3));
+            students.add(s);
+        }
+        return students;
+    }
+}
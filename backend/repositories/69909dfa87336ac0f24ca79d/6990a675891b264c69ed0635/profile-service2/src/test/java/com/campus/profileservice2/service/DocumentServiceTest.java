@@ -0,0 +1,188 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.entity.StudentDocument;
+import com.campus.profileservice2.entity.StudentProfile;
+import com.campus.profileservice2.repository.StudentDocumentRepository;
+import com.campus.profileservice2.repository.StudentProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DocumentServiceTest {
+
+    private static final byte[] PDF = "%PDF-1.4\nsame resume\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private StudentProfileRepository profileRepo;
+
+    @Autowired
+    private StudentDocumentRepository docRepo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @TempDir
+    private Path dir;
+
+    private DocumentStore store;
+    private DocumentService service;
+    private DocumentSweeper sweeper;
+
+    // per metadata transaction: was a transaction already open, and was every stored blob on disk
+    private final List<Boolean> txAlreadyOpen = new ArrayList<>();
+    private final List<Boolean> blobsOnDisk = new ArrayList<>();
+
+    private StudentProfile alice;
+    private StudentProfile bob;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new DocumentStore(dir.toString());
+        TransactionTemplate recording = new TransactionTemplate(txManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                txAlreadyOpen.add(TransactionSynchronizationManager.isActualTransactionActive());
+                blobsOnDisk.add(!storedBlobs().isEmpty());
+                return super.execute(action);
+            }
+        };
+        StudentProfileCache cache = new StudentProfileCache(100, 1 << 20, 64, new SimpleMeterRegistry());
+        service = new DocumentService(store, profileRepo, docRepo, cache, recording);
+        sweeper = new DocumentSweeper(store, docRepo, Duration.ofMinutes(10).toMillis());
+
+        alice = student("alice@campus.edu");
+        bob = student("bob@campus.edu");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        docRepo.deleteAll();
+        profileRepo.deleteAll();
+    }
+
+    @Test
+    void storesTheBlobBeforeTheMetadataTransaction() throws Exception {
+        StudentDocument doc = service.uploadResume(alice.getEmail(), pdf("alice.pdf", PDF));
+
+        assertThat(txAlreadyOpen).containsExactly(false);
+        assertThat(blobsOnDisk).containsExactly(true);
+        assertThat(doc.getUrl()).isEqualTo(DocumentStore.urlFor(alice.getId(), doc.getContentHash()));
+        assertThat(Files.isRegularFile(store.pathFor(doc.getContentHash()))).isTrue();
+    }
+
+    @Test
+    void sameBytesKeepEachOwnersMetadata() throws Exception {
+        String hash = service.uploadResume(alice.getEmail(), pdf("alice-cv.pdf", PDF)).getContentHash();
+        service.uploadResume(bob.getEmail(), pdf("bob-private-name.pdf", PDF));
+        assertThat(storedBlobs()).hasSize(1);
+
+        assertThat(service.findDocument(alice.getId(), hash)).get()
+                .extracting(StudentDocument::getFileName).isEqualTo("alice-cv.pdf");
+        assertThat(service.findDocument(bob.getId(), hash)).get()
+                .extracting(StudentDocument::getFileName).isEqualTo("bob-private-name.pdf");
+        assertThat(service.findOwnDocument(bob.getEmail(), hash)).get()
+                .extracting(StudentDocument::getFileName).isEqualTo("bob-private-name.pdf");
+        assertThat(service.findOwnDocument("mallory@campus.edu", hash)).isEmpty();
+
+        assertThat(disposition(service.findDocument(alice.getId(), hash).orElseThrow()))
+                .contains("filename=\"alice-cv.pdf\"");
+        assertThat(disposition(service.findDocument(bob.getId(), hash).orElseThrow()))
+                .contains("filename=\"bob-private-name.pdf\"");
+        // the legacy hash-only route names nobody
+        assertThat(disposition(service.findUnattributed(hash).orElseThrow()))
+                .contains("filename=\"document\"");
+    }
+
+    @Test
+    void missingMetadataIsNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.writeDocument(null, new MockHttpServletRequest("GET", "/"), response);
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void sweepRemovesOnlyOldUnreferencedBlobs() throws Exception {
+        String replaced = service.uploadResume(alice.getEmail(), pdf("v1.pdf", PDF)).getContentHash();
+        String current = service.uploadResume(alice.getEmail(),
+                pdf("v2.pdf", "%PDF-1.4\nsecond draft\n".getBytes(StandardCharsets.US_ASCII))).getContentHash();
+        // an upload whose metadata is not committed yet
+        String pending = store.store(new ByteArrayInputStream("%PDF-1.4\nin flight\n".getBytes(StandardCharsets.US_ASCII))).hash();
+
+        age(replaced);
+        age(current);
+
+        assertThat(sweeper.sweep()).isEqualTo(1);
+        assertThat(Files.exists(store.pathFor(replaced))).isFalse();
+        assertThat(Files.exists(store.pathFor(current))).isTrue();
+        assertThat(Files.exists(store.pathFor(pending))).isTrue();
+    }
+
+    @Test
+    void restoringABlobProtectsItFromTheSweep() throws Exception {
+        String hash = store.store(new ByteArrayInputStream(PDF)).hash();
+        age(hash);
+        // uploaded again between the sweep's listing and its delete
+        store.store(new ByteArrayInputStream(PDF));
+
+        assertThat(store.deleteIfOlderThan(hash, Instant.now().minus(Duration.ofMinutes(10)))).isFalse();
+        assertThat(Files.exists(store.pathFor(hash))).isTrue();
+    }
+
+    private StudentProfile student(String email) {
+        StudentProfile p = new StudentProfile();
+        p.setEmail(email);
+        return profileRepo.save(p);
+    }
+
+    private static MockMultipartFile pdf(String name, byte[] bytes) {
+        return new MockMultipartFile("file", name, "application/octet-stream", bytes);
+    }
+
+    private String disposition(StudentDocument meta) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.writeDocument(meta, new MockHttpServletRequest("GET", "/"), response);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(PDF);
+        return response.getHeader(HttpHeaders.CONTENT_DISPOSITION);
+    }
+
+    private void age(String hash) throws Exception {
+        Files.setLastModifiedTime(store.pathFor(hash), FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+    }
+
+    private List<String> storedBlobs() {
+        try {
+            return store.blobsOlderThan(Instant.now().plusSeconds(60));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
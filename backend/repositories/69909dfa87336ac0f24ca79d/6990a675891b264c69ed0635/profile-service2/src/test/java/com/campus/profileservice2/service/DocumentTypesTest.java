@@ -0,0 +1,39 @@
+package com.campus.profileservice2.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentTypesTest {
+
+    @Test
+    void sniffsAllowedTypesFromTheirMagicBytes() {
+        assertThat(DocumentTypes.sniff("%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII)))
+                .isEqualTo(DocumentTypes.PDF);
+        assertThat(DocumentTypes.sniff(new byte[]{
+                (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1}))
+                .isEqualTo(DocumentTypes.DOC);
+        assertThat(DocumentTypes.sniff(new byte[]{'P', 'K', 0x03, 0x04, 0, 0, 0, 0}))
+                .isEqualTo(DocumentTypes.DOCX);
+    }
+
+    @Test
+    void rejectsHtmlAndShortUploads() {
+        assertThat(DocumentTypes.sniff("<html><script>".getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(DocumentTypes.sniff("%PD".getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(DocumentTypes.sniff(new byte[0])).isNull();
+    }
+
+    @Test
+    void servesOnlyAllowlistedTypesAndOnlyPdfInline() {
+        assertThat(DocumentTypes.servable("text/html")).isEqualTo(DocumentTypes.OCTET_STREAM);
+        assertThat(DocumentTypes.servable(null)).isEqualTo(DocumentTypes.OCTET_STREAM);
+        assertThat(DocumentTypes.servable(DocumentTypes.DOCX)).isEqualTo(DocumentTypes.DOCX);
+
+        assertThat(DocumentTypes.inline(DocumentTypes.PDF)).isTrue();
+        assertThat(DocumentTypes.inline(DocumentTypes.DOC)).isFalse();
+        assertThat(DocumentTypes.inline(DocumentTypes.OCTET_STREAM)).isFalse();
+    }
+}
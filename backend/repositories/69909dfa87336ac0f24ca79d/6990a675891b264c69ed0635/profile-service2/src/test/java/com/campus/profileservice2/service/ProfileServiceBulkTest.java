@@ -0,0 +1,117 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.BulkItemResultDto;
+import com.campus.profileservice2.dto.BulkOutcome;
+import com.campus.profileservice2.dto.BulkUpdateResponseDto;
+import com.campus.profileservice2.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ProfileServiceBulkTest {
+
+    private final StudentProfileRepository profileRepo = mock(StudentProfileRepository.class);
+    private final StudentProfileCache cache = spy(new StudentProfileCache(100, 1 << 20, 64, new SimpleMeterRegistry()));
+
+    private final ProfileService service = new ProfileService(profileRepo,
+            mock(StudentAcademicsRepository.class), mock(StudentSkillRepository.class),
+            mock(StudentDocumentRepository.class), mock(StudentExperienceRepository.class),
+            mock(RecruiterProfileRepository.class), cache, JsonMapper.builder().build());
+
+    {
+        ReflectionTestUtils.setField(service, "bulkChunkSize", 2);
+    }
+
+    /* ================================
+       VERIFY
+       ================================ */
+    @Test
+    void verifyReportsEveryIdOnceAndUpdatesOnlyPendingOnes() {
+        when(profileRepo.findStatusByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            List<StudentStatusView> found = new ArrayList<>();
+            if (ids.contains(1L)) found.add(status(1L, "a@college.com", false, false));
+            if (ids.contains(2L)) found.add(status(2L, "b@college.com", true, false));
+            if (ids.contains(4L)) found.add(status(4L, "d@college.com", false, false));
+            return found;
+        });
+        when(profileRepo.markVerified(anyCollection())).thenAnswer(inv -> ((Collection<?>) inv.getArgument(0)).size());
+
+        BulkUpdateResponseDto response = service.verifyStudents(Arrays.asList(1L, 2L, 1L, null, 3L, 4L));
+
+        assertThat(response.getRequested()).isEqualTo(6);
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(outcomes(response)).containsExactly(
+                Map.entry("1", BulkOutcome.UPDATED),
+                Map.entry("2", BulkOutcome.ALREADY_APPLIED),
+                Map.entry("null", BulkOutcome.INVALID),
+                Map.entry("3", BulkOutcome.NOT_FOUND),
+                Map.entry("4", BulkOutcome.UPDATED));
+        // ids 1,2 then 3,4: one lookup per chunk
+        verify(profileRepo, times(2)).findStatusByIdIn(anyCollection());
+        verify(cache).invalidate(1L);
+        verify(cache).invalidate(4L);
+        verify(cache, never()).invalidate(2L);
+    }
+
+    /* ================================
+       BLACKLIST
+       ================================ */
+    @Test
+    void blacklistMatchesEmailsWhateverTheirCase() {
+        when(profileRepo.findStatusByEmailIn(anyCollection())).thenAnswer(inv -> {
+            Collection<String> emails = inv.getArgument(0);
+            List<StudentStatusView> found = new ArrayList<>();
+            // stored spellings differ in case from the request; the collation still matches
+            if (emails.contains("a@college.com")) found.add(status(1L, "A@College.com", false, false));
+            if (emails.contains("b@college.com")) found.add(status(2L, "b@college.com", false, true));
+            return found;
+        });
+        when(profileRepo.markBlacklisted(anyCollection())).thenAnswer(inv -> ((Collection<?>) inv.getArgument(0)).size());
+
+        BulkUpdateResponseDto response = service.blacklistStudentsByEmail(
+                Arrays.asList("a@COLLEGE.com", " A@college.com", "B@college.com", "", "ghost@college.com"));
+
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(outcomes(response)).containsExactly(
+                Map.entry("a@college.com", BulkOutcome.UPDATED),
+                Map.entry("b@college.com", BulkOutcome.ALREADY_APPLIED),
+                Map.entry("", BulkOutcome.INVALID),
+                Map.entry("ghost@college.com", BulkOutcome.NOT_FOUND));
+        verify(profileRepo).markBlacklisted(List.of(1L));
+        verify(cache).invalidate(1L);
+    }
+
+    @Test
+    void blacklistSkipsTheUpdateWhenNothingIsPending() {
+        when(profileRepo.findStatusByEmailIn(anyCollection()))
+                .thenReturn(List.of(status(2L, "b@college.com", false, true)));
+
+        BulkUpdateResponseDto response = service.blacklistStudentsByEmail(List.of("b@college.com"));
+
+        assertThat(response.getUpdated()).isZero();
+        verify(profileRepo, never()).markBlacklisted(anyCollection());
+    }
+
+    private static Map<String, BulkOutcome> outcomes(BulkUpdateResponseDto response) {
+        return response.getResults().stream().collect(Collectors.toMap(
+                BulkItemResultDto::getKey, BulkItemResultDto::getOutcome, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static StudentStatusView status(Long id, String email, boolean verified, boolean blacklisted) {
+        return new StudentStatusView() {
+            public Long getId() { return id; }
+            public String getEmail() { return email; }
+            public boolean isVerified() { return verified; }
+            public boolean isBlacklisted() { return blacklisted; }
+        };
+    }
+}
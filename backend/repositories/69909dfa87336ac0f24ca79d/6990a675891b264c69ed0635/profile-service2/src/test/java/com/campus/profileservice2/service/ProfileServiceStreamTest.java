@@ -0,0 +1,97 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.StudentEligibilityDto;
+import com.campus.profileservice2.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileServiceStreamTest {
+
+    private final StudentProfileRepository profileRepo = mock(StudentProfileRepository.class);
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    private final ProfileService service = new ProfileService(profileRepo,
+            mock(StudentAcademicsRepository.class), mock(StudentSkillRepository.class),
+            mock(StudentDocumentRepository.class), mock(StudentExperienceRepository.class),
+            mock(RecruiterProfileRepository.class),
+            new StudentProfileCache(100, 1 << 20, 64, new SimpleMeterRegistry()), json);
+
+    @Test
+    void writesOneLinePerStudentWithItsSkillsGathered() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(profileRepo.streamEligibleRows()).thenReturn(Stream.of(
+                row(1L, "a@college.com", "Java"),
+                row(1L, "a@college.com", "SQL"),
+                row(2L, "b@college.com", null),
+                row(3L, "c@college.com", "React")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeEligibleStudents(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<StudentEligibilityDto> students = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            students.add(json.readValue(line, StudentEligibilityDto.class));
+        }
+        assertThat(students).extracting(StudentEligibilityDto::getStudentId).containsExactly(1L, 2L, 3L);
+        assertThat(students.get(0).getSkills()).containsExactly("Java", "SQL");
+        assertThat(students.get(0).getTenthMarks()).isEqualTo(80.0);
+        assertThat(students.get(1).getSkills()).isEmpty();
+        assertThat(students.get(2).getSkills()).containsExactly("React");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void sendsTheFirstStudentAsSoonAsItIsComplete() throws Exception {
+        when(profileRepo.streamEligibleRows()).thenReturn(Stream.of(
+                row(1L, "a@college.com", "Java"),
+                row(2L, "b@college.com", "Java"),
+                row(3L, "c@college.com", "Java")));
+        List<Integer> flushedAt = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedAt.add(size());
+            }
+        };
+
+        service.writeEligibleStudents(out);
+
+        // one flush, right after the first line; the rest fill the response buffer
+        assertThat(flushedAt).hasSize(1);
+        assertThat(out.toString(StandardCharsets.UTF_8).indexOf('\n') + 1).isEqualTo(flushedAt.get(0));
+    }
+
+    @Test
+    void writesNothingWhenNoStudentIsEligible() throws Exception {
+        when(profileRepo.streamEligibleRows()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeEligibleStudents(out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    private static EligibilityRow row(Long id, String email, String skill) {
+        return new EligibilityRow() {
+            public Long getStudentId() { return id; }
+            public String getEmail() { return email; }
+            public Double getTenthMarks() { return 80.0; }
+            public Double getTwelfthMarks() { return 75.0; }
+            public String getSkill() { return skill; }
+        };
+    }
+}
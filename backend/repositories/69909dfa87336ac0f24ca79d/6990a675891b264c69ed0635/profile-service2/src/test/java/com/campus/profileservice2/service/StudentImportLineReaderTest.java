@@ -0,0 +1,47 @@
+package com.campus.profileservice2.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentImportLineReaderTest {
+
+    @Test
+    void splitsOnAnyLineEnding() throws IOException {
+        StudentImportService.LineReader r = reader("a,b\r\nc\rd\ne", 100);
+
+        assertThat(r.readLine()).isEqualTo("a,b");
+        assertThat(r.readLine()).isEqualTo("c");
+        assertThat(r.readLine()).isEqualTo("d");
+        assertThat(r.readLine()).isEqualTo("e");
+        assertThat(r.readLine()).isNull();
+    }
+
+    @Test
+    void flagsOverlongLineAndResumesOnTheNext() throws IOException {
+        StudentImportService.LineReader r = reader("x".repeat(1000) + "\nshort\n", 16);
+
+        assertThat(r.readLine()).isEmpty();
+        assertThat(r.truncated()).isTrue();
+
+        assertThat(r.readLine()).isEqualTo("short");
+        assertThat(r.truncated()).isFalse();
+        assertThat(r.readLine()).isNull();
+    }
+
+    @Test
+    void lineOfExactlyMaxCharsIsKept() throws IOException {
+        StudentImportService.LineReader r = reader("0123456789abcdef\n", 16);
+
+        assertThat(r.readLine()).isEqualTo("0123456789abcdef");
+        assertThat(r.truncated()).isFalse();
+    }
+
+    private static StudentImportService.LineReader reader(String s, int max) {
+        return new StudentImportService.LineReader(new BufferedReader(new StringReader(s)), max);
+    }
+}
@@ -0,0 +1,113 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.StudentImportReportDto;
+import com.campus.profileservice2.repository.StudentProfileRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentImportServiceTest {
+
+    @Autowired
+    private StudentProfileRepository profileRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private EntityManager sharedEntityManager;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private EntityManager requestEntityManager;
+
+    // managed entities seen as each chunk's transaction starts
+    private final List<Integer> managedAtChunkStart = new ArrayList<>();
+
+    private StudentImportService service;
+
+    @BeforeEach
+    void openInView() {
+        // what OpenEntityManagerInViewInterceptor does for a web request
+        requestEntityManager = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(requestEntityManager));
+
+        TransactionTemplate recording = new TransactionTemplate(txManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                managedAtChunkStart.add(managedEntities());
+                return super.execute(action);
+            }
+        };
+        service = new StudentImportService(profileRepo, recording, JsonMapper.builder().build(), sharedEntityManager);
+        ReflectionTestUtils.setField(service, "chunkSize", 3);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(service, "maxLineChars", 1000);
+    }
+
+    @AfterEach
+    void closeView() {
+        TransactionSynchronizationManager.unbindResource(emf);
+        requestEntityManager.close();
+        profileRepo.deleteAll();
+    }
+
+    @Test
+    void clearsThePersistenceContextBetweenChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("email,fullName,tenthMarks,twelfthMarks,skills\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("s").append(i).append("@college.com,Student ").append(i).append(",80,75,Java;SQL\n");
+        }
+
+        StudentImportReportDto report = service.importStudents(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThat(report.getImported()).isEqualTo(10);
+        assertThat(managedAtChunkStart).hasSize(4).containsOnly(0);
+        assertThat(managedEntities()).isZero();
+        assertThat(profileRepo.count()).isEqualTo(10);
+    }
+
+    @Test
+    void clearsWhenSomeRowsAlreadyExist() throws Exception {
+        String first = "{\"email\":\"dup@college.com\",\"fullName\":\"A\",\"tenthMarks\":80,\"twelfthMarks\":75}\n";
+        service.importStudents(new ByteArrayInputStream(first.getBytes(StandardCharsets.UTF_8)), true);
+
+        String again = first
+                + "{\"email\":\"new@college.com\",\"fullName\":\"B\",\"tenthMarks\":80,\"twelfthMarks\":75}\n";
+        StudentImportReportDto report = service.importStudents(
+                new ByteArrayInputStream(again.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(managedEntities()).isZero();
+    }
+
+    private int managedEntities() {
+        return requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
@@ -0,0 +1,61 @@
+package com.campus.profileservice2.service;
+
+import com.campus.profileservice2.dto.StudentProfileResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentProfileCacheTest {
+
+    private final StudentProfileCache cache =
+            new StudentProfileCache(100, 1 << 20, 64, new SimpleMeterRegistry());
+
+    @Test
+    void servesCachedProfileUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> profile("a", loads));
+        cache.get(1L, () -> profile("a", loads));
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate(1L);
+        cache.get(1L, () -> profile("a", loads));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loaderThatRacedAnInvalidationDoesNotPublish() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            cache.invalidate(1L);           // a write lands while this read is loading
+            return profile("stale", loads);
+        });
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1L, () -> profile("fresh", loads)).getFullName()).isEqualTo("fresh");
+    }
+
+    @Test
+    void stillCachesAfterInvalidatingManyStudents() {
+        for (long id = 0; id < 100_000; id++) {
+            cache.invalidate(id);
+        }
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(7L, () -> profile("a", loads));
+        cache.get(7L, () -> profile("a", loads));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private static StudentProfileResponseDto profile(String name, AtomicInteger loads) {
+        loads.incrementAndGet();
+        StudentProfileResponseDto p = new StudentProfileResponseDto();
+        p.setFullName(name);
+        return p;
+    }
+}
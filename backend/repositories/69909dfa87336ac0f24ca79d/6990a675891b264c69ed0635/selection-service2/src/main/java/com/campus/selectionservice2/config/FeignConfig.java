@@ -1,5 +1,6 @@
 package com.campus.selectionservice2.config;
 
+import com.campus.common.security.IdentityHeaders;
 import feign.RequestInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,14 @@ public class FeignConfig {
                 if (authHeader != null) {
                     template.header("Authorization", authHeader);
                 }
+
+                // lets the next service skip JWT parsing as well
+                for (String name : IdentityHeaders.ALL) {
+                    String value = attrs.getRequest().getHeader(name);
+                    if (value != null) {
+                        template.header(name, value);
+                    }
+                }
             }
         };
     }
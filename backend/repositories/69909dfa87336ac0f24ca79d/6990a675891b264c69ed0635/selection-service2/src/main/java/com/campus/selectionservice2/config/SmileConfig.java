@@ -0,0 +1,29 @@
+package com.campus.selectionservice2.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.dataformat.smile.SmileFactory;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+/*
+ * Smile (binary JSON) for internal bulk payloads, picked by Accept and
+ * Content-Type. With the dependency present Spring registers a Smile
+ * converter after the JSON one, so wildcard and JSON callers, browsers
+ * included, still get JSON; Feign clients use that default as is.
+ * Here the server side's writer is swapped for one with shared string
+ * values, so repeated skills are written once and back-referenced.
+ */
+@Configuration
+public class SmileConfig {
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer smileConverterCustomizer() {
+        return builder -> builder.withSmileConverter(new JacksonSmileHttpMessageConverter(
+                SmileMapper.builder(SmileFactory.builder()
+                        .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                        .build())));
+    }
+}
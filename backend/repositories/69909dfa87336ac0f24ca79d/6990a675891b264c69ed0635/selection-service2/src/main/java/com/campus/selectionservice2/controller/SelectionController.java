@@ -1,10 +1,12 @@
 package com.campus.selectionservice2.controller;
 
-import com.campus.selectionservice2.client.DriveClient;
+import com.campus.common.feign.DownstreamUnavailableException;
 import com.campus.selectionservice2.dto.*;
+import com.campus.selectionservice2.service.DriveOwnerCache;
 import com.campus.selectionservice2.service.SelectionService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,7 +18,7 @@ import java.util.List;
 public class SelectionController {
 
     private final SelectionService service;
-    private final DriveClient driveClient;
+    private final DriveOwnerCache driveOwners;
 
     /* ================================
        RECRUITER: INVITE STUDENTS
@@ -43,7 +45,7 @@ public class SelectionController {
             @RequestParam int totalRounds,
             HttpServletRequest request
     ) {
-        String owner = driveClient.getDriveOwner(dto.getDriveId());
+        String owner = driveOwners.ownerOf(dto.getDriveId());
         if (!"RECRUITER".equals(request.getAttribute("role")) ||
                 !owner.equals(request.getAttribute("email"))) {
             return ResponseEntity.status(403).build();
@@ -124,7 +126,7 @@ public class SelectionController {
         String email = (String) request.getAttribute("email");
 
         if ("RECRUITER".equals(role)) {
-            String owner = driveClient.getDriveOwner(driveId);
+            String owner = driveOwners.ownerOf(driveId);
             if (!owner.equals(email)) {
                 return ResponseEntity.status(403).build();
             }
@@ -146,7 +148,7 @@ public class SelectionController {
         String email = (String) request.getAttribute("email");
 
         if ("RECRUITER".equals(role)) {
-            String owner = driveClient.getDriveOwner(driveId);
+            String owner = driveOwners.ownerOf(driveId);
             if (!owner.equals(email)) {
                 return ResponseEntity.status(403).build();
             }
@@ -185,7 +187,12 @@ public class SelectionController {
         return ResponseEntity.ok(service.getTpoDashboard());
     }
 
-
-
+    /* drive-service or profile-service2 is shedding calls: nothing was sent, try again later. */
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<String> downstreamUnavailable(DownstreamUnavailableException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
 
@@ -0,0 +1,84 @@
+package com.campus.selectionservice2.service;
+
+import com.campus.common.feign.DownstreamUnavailableException;
+import com.campus.selectionservice2.client.DriveClient;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Fallback for drive ownership checks. Every owner drive-service returns
+ * is remembered (a drive never changes recruiter); when drive-service is
+ * rejected by the breaker or bulkhead, times out or answers 5xx, the last
+ * known owner is used instead. A drive never seen before still fails.
+ *
+ * drive-service stays the source of truth: it is always asked first, so
+ * a 404 or 403 from it is passed through untouched.
+ */
+@Component
+public class DriveOwnerCache {
+
+    private final DriveClient driveClient;
+    private final int maxEntries;
+
+    private final Map<Long, String> owners;
+
+    private final Counter served;
+    private final Counter missed;
+
+    public DriveOwnerCache(
+            DriveClient driveClient,
+            @Value("${selection.drive-owner-cache.max-entries:10000}") int maxEntries,
+            MeterRegistry registry
+    ) {
+        this.driveClient = driveClient;
+        this.maxEntries = maxEntries;
+        this.owners = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > DriveOwnerCache.this.maxEntries;
+            }
+        };
+
+        this.served = registry.counter("selection.drive-owner.fallback", "result", "cached");
+        this.missed = registry.counter("selection.drive-owner.fallback", "result", "miss");
+        Gauge.builder("selection.drive-owner.cache.size", this, DriveOwnerCache::size)
+                .register(registry);
+    }
+
+    public String ownerOf(Long driveId) {
+        String owner;
+        try {
+            owner = driveClient.getDriveOwner(driveId);
+        } catch (DownstreamUnavailableException | FeignException e) {
+            if (e instanceof FeignException f && f.status() >= 0 && f.status() < 500) throw e;
+
+            String cached = cached(driveId);
+            if (cached == null) {
+                missed.increment();
+                throw e;
+            }
+            served.increment();
+            return cached;
+        }
+
+        synchronized (this) {
+            owners.put(driveId, owner);
+        }
+        return owner;
+    }
+
+    private synchronized String cached(Long driveId) {
+        return owners.get(driveId);
+    }
+
+    private synchronized int size() {
+        return owners.size();
+    }
+}
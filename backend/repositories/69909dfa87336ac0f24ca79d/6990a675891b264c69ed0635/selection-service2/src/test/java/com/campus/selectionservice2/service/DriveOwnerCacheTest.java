@@ -0,0 +1,80 @@
+package com.campus.selectionservice2.service;
+
+import com.campus.common.feign.DownstreamUnavailableException;
+import com.campus.selectionservice2.client.DriveClient;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DriveOwnerCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriveClient driveClient = mock(DriveClient.class);
+    private final DriveOwnerCache cache = new DriveOwnerCache(driveClient, 2, registry);
+
+    @Test
+    void fallsBackToTheLastKnownOwnerWhenDriveServiceIsDown() {
+        when(driveClient.getDriveOwner(7L)).thenReturn("r@corp.com");
+        assertThat(cache.ownerOf(7L)).isEqualTo("r@corp.com");
+
+        when(driveClient.getDriveOwner(7L))
+                .thenThrow(new DownstreamUnavailableException("drive-service", "circuit open", 5))
+                .thenThrow(status(503));
+
+        assertThat(cache.ownerOf(7L)).isEqualTo("r@corp.com");
+        assertThat(cache.ownerOf(7L)).isEqualTo("r@corp.com");
+        assertThat(registry.counter("selection.drive-owner.fallback", "result", "cached").count()).isEqualTo(2);
+    }
+
+    @Test
+    void failsForADriveNeverSeen() {
+        when(driveClient.getDriveOwner(8L))
+                .thenThrow(new DownstreamUnavailableException("drive-service", "bulkhead full", 1));
+
+        assertThatThrownBy(() -> cache.ownerOf(8L)).isInstanceOf(DownstreamUnavailableException.class);
+        assertThat(registry.counter("selection.drive-owner.fallback", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void passesClientErrorsThrough() {
+        when(driveClient.getDriveOwner(7L)).thenReturn("r@corp.com");
+        cache.ownerOf(7L);
+
+        when(driveClient.getDriveOwner(7L)).thenThrow(status(404));
+
+        assertThatThrownBy(() -> cache.ownerOf(7L))
+                .isInstanceOfSatisfying(FeignException.class, e -> assertThat(e.status()).isEqualTo(404));
+    }
+
+    @Test
+    void remembersOnlyTheMostRecentDrives() {
+        for (long id = 1; id <= 3; id++) {
+            when(driveClient.getDriveOwner(id)).thenReturn("owner" + id);
+            cache.ownerOf(id);
+        }
+        for (long id = 1; id <= 3; id++) {
+            when(driveClient.getDriveOwner(id)).thenThrow(status(503));
+        }
+
+        assertThatThrownBy(() -> cache.ownerOf(1L)).isInstanceOf(FeignException.class);
+        assertThat(cache.ownerOf(3L)).isEqualTo("owner3");
+        assertThat(registry.get("selection.drive-owner.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private static FeignException status(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://drive-service/api/drive/7/owner",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("DriveClient#getDriveOwner(Long)",
+                Response.builder().status(status).reason("").request(request).headers(Map.of()).build());
+    }
+}